@@ -0,0 +1,38 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/** Static evaluation over every position in the perft suite. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EvaluatorBenchmark {
+
+    private Board[] boards;
+
+    @Setup
+    public void setup() {
+        boards = new Board[Perft.SUITE.length];
+        for (int i = 0; i < boards.length; i++) boards[i] = Board.fromFen(Perft.SUITE[i].getFen());
+    }
+
+    @Benchmark
+    public void evaluate(Blackhole blackhole) {
+        for (Board board : boards) blackhole.consume(Evaluator.evaluate(board));
+    }
+}
@@ -0,0 +1,53 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/** FEN parsing and formatting, which every bot request goes through. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FenBenchmark {
+
+    @Param({ "start", "kiwipete", "middlegame" })
+    public String position;
+
+    private String fen;
+    private Board board;
+
+    @Setup
+    public void setup() {
+        fen = Perft.position(position).getFen();
+        board = Board.fromFen(fen);
+    }
+
+    @Benchmark
+    public Board parse() {
+        board.setFen(fen);
+        return board;
+    }
+
+    @Benchmark
+    public Board parseNew() {
+        return Board.fromFen(fen);
+    }
+
+    @Benchmark
+    public String format() {
+        return board.toFen();
+    }
+}
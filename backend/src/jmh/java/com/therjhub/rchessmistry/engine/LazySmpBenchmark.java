@@ -0,0 +1,82 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lazy SMP scaling: time to a fixed depth with 1, 2, 4 ... threads on a hash
+ * table cleared before every search. Nodes per second for each iteration are
+ * printed alongside, since helper threads search extra nodes to get there.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class LazySmpBenchmark {
+
+    @Param({ "start", "kiwipete", "middlegame" })
+    public String position;
+
+    @Param({ "7" })
+    public int depth;
+
+    @Param({ "1", "2", "4", "8" })
+    public int threads;
+
+    private Board board;
+    private TranspositionTable table;
+    private EnginePool pool;
+    private long nodes;
+    private long nanos;
+
+    @Setup
+    public void setup() {
+        board = Board.fromFen(Perft.position(position).getFen());
+        table = TranspositionTable.ofMegabytes(32);
+        pool = new EnginePool(threads, 0);
+    }
+
+    @TearDown
+    public void close() {
+        pool.close();
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        nodes = 0;
+        nanos = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        System.out.printf("%n  %d nodes/sec%n", nanos == 0 ? 0 : nodes * 1_000_000_000L / nanos);
+    }
+
+    @Benchmark
+    public SearchResult search() throws InterruptedException {
+        table.clear();
+        long start = System.nanoTime();
+        SearchResult result;
+        try (EnginePool.Lease lease = pool.acquire(threads, Long.MAX_VALUE)) {
+            result = LazySmpSearch.search(board, table, Bitbases.empty(), SearchLimits.depth(depth), lease);
+        }
+        nanos += System.nanoTime() - start;
+        nodes += result.getNodes();
+        return result;
+    }
+}
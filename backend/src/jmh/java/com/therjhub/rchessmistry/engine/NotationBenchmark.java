@@ -0,0 +1,101 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The allocation-free {@link Notation} codec against reused buffers. Run with
+ * {@code -prof gc} to confirm {@code gc.alloc.rate.norm} stays at 0 B/op.
+ * The SAN and UCI benchmarks cover every legal move of the position.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotationBenchmark {
+
+    @Param({ "start", "kiwipete", "middlegame" })
+    public String position;
+
+    private String fen;
+    private Board board;
+    private final StringBuilder out = new StringBuilder(128);
+    private final int[] scratch = new int[MoveGenerator.MAX_MOVES];
+    private final long[] packed = new long[Board.PACKED_LONGS];
+    private int[] moves;
+    private String[] san;
+    private String[] uci;
+
+    @Setup
+    public void setup() {
+        fen = Perft.position(position).getFen();
+        board = Board.fromFen(fen);
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.legalMoves(board, legal);
+        moves = new int[count];
+        san = new String[count];
+        uci = new String[count];
+        for (int i = 0; i < count; i++) {
+            moves[i] = legal[i];
+            san[i] = San.toSan(board, legal[i]);
+            uci[i] = Move.toUci(legal[i]);
+        }
+        board.pack(packed, 0);
+    }
+
+    @Benchmark
+    public Board parseFen() {
+        Notation.parseFen(fen, board);
+        return board;
+    }
+
+    @Benchmark
+    public StringBuilder formatFen() {
+        out.setLength(0);
+        return Notation.appendFen(board, out);
+    }
+
+    @Benchmark
+    public void parseSan(Blackhole blackhole) {
+        for (String text : san) blackhole.consume(Notation.parseSan(board, text, 0, text.length(), scratch));
+    }
+
+    @Benchmark
+    public StringBuilder formatSan() {
+        out.setLength(0);
+        for (int move : moves) Notation.appendSan(board, move, out, scratch).append(' ');
+        return out;
+    }
+
+    @Benchmark
+    public void parseUci(Blackhole blackhole) {
+        for (String text : uci) blackhole.consume(Notation.parseUci(board, text, 0, text.length(), scratch));
+    }
+
+    @Benchmark
+    public StringBuilder formatUci() {
+        out.setLength(0);
+        for (int move : moves) Notation.appendUci(move, out).append(' ');
+        return out;
+    }
+
+    @Benchmark
+    public Board unpack() {
+        board.unpack(packed, 0);
+        return board;
+    }
+}
@@ -0,0 +1,55 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Move generation throughput: perft on the standard test positions. Each trial
+ * first checks the node count against the published value, so a generator bug
+ * fails the run instead of producing a fast but wrong number.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PerftBenchmark {
+
+    @Param({ "start", "kiwipete", "endgame", "promotions", "discovered", "middlegame" })
+    public String position;
+
+    @Param({ "4" })
+    public int depth;
+
+    private Board board;
+    private int[][] buffers;
+
+    @Setup
+    public void setup() {
+        Perft.Position suite = Perft.position(position);
+        board = Board.fromFen(suite.getFen());
+        buffers = new int[depth][MoveGenerator.MAX_MOVES];
+        long nodes = Perft.count(board, depth, buffers);
+        if (nodes != suite.getExpected(depth)) {
+            throw new IllegalStateException("perft(" + position + ", " + depth + ") = " + nodes
+                    + ", expected " + suite.getExpected(depth));
+        }
+    }
+
+    @Benchmark
+    public long perft() {
+        return Perft.count(board, depth, buffers);
+    }
+}
@@ -0,0 +1,57 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed-depth single-threaded search. The hash table is cleared before every
+ * call so each measurement does the same work.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({ "start", "kiwipete", "middlegame" })
+    public String position;
+
+    @Param({ "5" })
+    public int depth;
+
+    private TranspositionTable table;
+    private Search search;
+    private Search searchNoHash;
+
+    @Setup
+    public void setup() {
+        String fen = Perft.position(position).getFen();
+        table = TranspositionTable.ofMegabytes(4);
+        search = new Search(Board.fromFen(fen), table);
+        searchNoHash = new Search(Board.fromFen(fen));
+    }
+
+    @Benchmark
+    public SearchResult withHash() {
+        table.clear();
+        return search.search(depth);
+    }
+
+    @Benchmark
+    public SearchResult withoutHash() {
+        return searchNoHash.search(depth);
+    }
+}
@@ -0,0 +1,118 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matchmaking load on a simulated clock: {@code queued} players seek at once,
+ * then more arrive at {@code arrivalsPerSecond} for a minute, with ratings
+ * spread like a real player base. The score is the real time the queue spends
+ * on the whole run. After every iteration it prints the time to match, in
+ * simulated time, for the queued players and the later arrivals separately,
+ * and the rating gap of each pair.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class MatchmakingBenchmark {
+
+    // Same settings as application.properties
+    private static final double BUCKET_WIDTH = 50;
+    private static final double INITIAL_WINDOW = 50;
+    private static final double MAX_WINDOW = 400;
+    private static final long TARGET_WAIT_MS = 10_000;
+    private static final long TICK_MS = 250;
+    private static final long ARRIVAL_MS = 60_000;
+
+    @Param({ "10000" })
+    public int queued;
+
+    @Param({ "0", "5", "500" })
+    public int arrivalsPerSecond;
+
+    private double[] ratings;
+    private long[] arrivals;
+    // By player; -1 until matched
+    private long[] waits;
+    private double[] gaps;
+    private int gapCount;
+
+    @Setup
+    public void setup() {
+        int total = queued + (int) (arrivalsPerSecond * ARRIVAL_MS / 1000);
+        Random random = new Random(42);
+        ratings = new double[total];
+        arrivals = new long[total];
+        for (int i = 0; i < total; i++) {
+            ratings[i] = Math.max(100, Math.min(3000, 1500 + 350 * random.nextGaussian()));
+            arrivals[i] = i < queued ? 0 : (i - queued) * 1000L / arrivalsPerSecond;
+        }
+        waits = new long[total];
+        gaps = new double[total / 2];
+    }
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        Arrays.fill(waits, -1);
+        gapCount = 0;
+    }
+
+    @Benchmark
+    public int simulate() {
+        MatchQueue<Integer> queue = new MatchQueue<>(BUCKET_WIDTH, INITIAL_WINDOW, MAX_WINDOW, TARGET_WAIT_MS,
+                this::paired);
+        int next = 0;
+        long now = 0;
+        while (next < ratings.length || queue.size() > 1) {
+            long tickAt = now + TICK_MS;
+            for (; next < ratings.length && arrivals[next] <= tickAt; next++) {
+                queue.offer(new MatchQueue.Ticket<>(next, ratings[next], arrivals[next]), arrivals[next]);
+            }
+            now = tickAt;
+            queue.tick(now);
+        }
+        return gapCount;
+    }
+
+    private void paired(MatchQueue.Ticket<Integer> first, MatchQueue.Ticket<Integer> second, long now) {
+        waits[first.player] = now - first.enqueuedAt;
+        waits[second.player] = now - second.enqueuedAt;
+        gaps[gapCount++] = Math.abs(first.rating - second.rating);
+    }
+
+    @TearDown(Level.Iteration)
+    public void report() {
+        double[] g = Arrays.copyOf(gaps, gapCount);
+        Arrays.sort(g);
+        System.out.printf("%n  queued:   %s%n  arrivals: %s%n  rating gap mean %.0f, p95 %.0f, p99 %.0f, max %.0f%n",
+                waits(0, queued), waits(queued, waits.length), Arrays.stream(g).average().orElse(0),
+                g[(int) (g.length * 0.95)], g[(int) (g.length * 0.99)], g[g.length - 1]);
+    }
+
+    private String waits(int from, int to) {
+        long[] w = Arrays.stream(waits, from, to).filter(wait -> wait >= 0).sorted().toArray();
+        if (w.length == 0) return "none";
+        long over = Arrays.stream(w).filter(wait -> wait > TARGET_WAIT_MS).count();
+        return String.format("%d of %d matched, wait p50 %d ms, p95 %d ms, p99 %d ms, max %d ms, %.2f%% over target",
+                w.length, to - from, w[w.length / 2], w[(int) (w.length * 0.95)], w[(int) (w.length * 0.99)],
+                w[w.length - 1], 100.0 * over / w.length);
+    }
+}
@@ -2,8 +2,10 @@ package com.therjhub.rchessmistry;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class RChessMistryApplication {
     public static void main(String[] args) {
         SpringApplication.run(RChessMistryApplication.class, args);
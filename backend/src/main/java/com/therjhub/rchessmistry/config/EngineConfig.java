@@ -0,0 +1,70 @@
+package com.therjhub.rchessmistry.config;
+
+import com.therjhub.rchessmistry.engine.BitbaseGenerator;
+import com.therjhub.rchessmistry.engine.Bitbases;
+import com.therjhub.rchessmistry.engine.EnginePool;
+import com.therjhub.rchessmistry.engine.OpeningBook;
+import com.therjhub.rchessmistry.engine.TranspositionTable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+@Configuration
+public class EngineConfig {
+
+    // One off-heap table shared by every bot search in the process
+    @Bean
+    public TranspositionTable transpositionTable(@Value("${app.engine.hash-size-mb}") int hashSizeMb) {
+        TranspositionTable table = TranspositionTable.ofMegabytes(hashSizeMb);
+        System.out.println("♟️  Engine hash table: " + (table.getSizeBytes() >> 20) + " MB off-heap");
+        return table;
+    }
+
+    // Bounded engine threads; 0 means one per available core
+    @Bean
+    public EnginePool enginePool(@Value("${app.engine.threads}") int threads,
+                                 @Value("${app.engine.reserved-threads}") int reservedThreads) {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new EnginePool(size, reservedThreads);
+    }
+
+    // Memory-mapped, so it is ready instantly; build one with OpeningBookBuilder
+    @Bean
+    public OpeningBook openingBook(@Value("${app.engine.book-path}") String bookPath) {
+        Path path = Paths.get(bookPath);
+        if (bookPath.isBlank() || !Files.isRegularFile(path)) {
+            System.out.println("⚠️  No opening book at '" + bookPath + "'. Bot will search from move one.");
+            return OpeningBook.empty();
+        }
+        try {
+            OpeningBook book = OpeningBook.open(path);
+            System.out.println("📖 Opening book loaded: " + book.size() + " entries");
+            return book;
+        } catch (Exception e) {
+            System.out.println("⚠️  Opening book could not be loaded: " + e.getMessage());
+            return OpeningBook.empty();
+        }
+    }
+
+    // Three-man endgame tables; any missing ones are solved on first start (about a second)
+    @Bean
+    public Bitbases bitbases(@Value("${app.engine.bitbase-dir}") String bitbaseDir) {
+        if (bitbaseDir.isBlank()) return Bitbases.empty();
+        Path dir = Paths.get(bitbaseDir);
+        try {
+            List<String> generated = BitbaseGenerator.generateMissing(dir);
+            if (!generated.isEmpty()) System.out.println("🧮 Generated endgame bitbases: " + generated);
+            Bitbases bitbases = Bitbases.open(dir);
+            System.out.println("🏁 Endgame bitbases loaded: " + bitbases.getTables());
+            return bitbases;
+        } catch (Exception e) {
+            System.out.println("⚠️  Endgame bitbases unavailable: " + e.getMessage());
+            return Bitbases.empty();
+        }
+    }
+}
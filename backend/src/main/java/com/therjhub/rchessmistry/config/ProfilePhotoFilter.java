@@ -0,0 +1,176 @@
+package com.therjhub.rchessmistry.config;
+
+import com.therjhub.rchessmistry.service.ProfilePhotoService;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Serves profile photos and thumbnails straight from the upload directory,
+ * ahead of Spring Security and the dispatcher, so an avatar load never parses
+ * a JWT or opens a persistence context. Stored names carry a random fragment
+ * and are never rewritten, so responses are cacheable forever. On Tomcat the
+ * body goes out with sendfile; elsewhere it is copied channel to channel.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class ProfilePhotoFilter extends OncePerRequestFilter {
+
+    private static final String CACHE_FOREVER = "public, max-age=31536000, immutable";
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-]+\\.(jpg|png|gif)");
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d*)-(\\d*)");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "jpg", "image/jpeg", "png", "image/png", "gif", "image/gif");
+
+    // Tomcat's request attributes for handing a file region to the connector
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    private Path directory;
+
+    @PostConstruct
+    public void init() {
+        directory = Paths.get(uploadDir).toAbsolutePath().normalize();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + ProfilePhotoService.URL_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean head = "HEAD".equals(request.getMethod());
+        if (!head && !"GET".equals(request.getMethod())) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        String name = request.getRequestURI()
+                .substring(request.getContextPath().length() + ProfilePhotoService.URL_PREFIX.length());
+        Matcher fileName = FILE_NAME.matcher(name);
+        Path file = directory.resolve(name);
+        BasicFileAttributes attributes;
+        try {
+            if (!fileName.matches()) throw new IOException();
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            if (!attributes.isRegularFile()) throw new IOException();
+        } catch (IOException e) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        long length = attributes.size();
+        long modified = attributes.lastModifiedTime().toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(modified) + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, modified);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_FOREVER);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (notModified(request, etag, modified)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0, end = length;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            Matcher bytes = RANGE.matcher(range.trim());
+            // Multiple ranges are answered with the whole file, which the spec allows
+            if (bytes.matches() && !(bytes.group(1).isEmpty() && bytes.group(2).isEmpty())) {
+                if (bytes.group(1).isEmpty()) {
+                    start = Math.max(0, length - offset(bytes.group(2)));
+                } else {
+                    start = offset(bytes.group(1));
+                    if (!bytes.group(2).isEmpty()) end = Math.min(length - 1, offset(bytes.group(2))) + 1;
+                }
+                if (start >= end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+        }
+
+        response.setContentType(CONTENT_TYPES.get(fileName.group(1)));
+        response.setContentLengthLong(end - start);
+        if (head) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel channel = Channels.newChannel(out);
+            for (long position = start; position < end; ) {
+                position += in.transferTo(position, end - position, channel);
+            }
+            out.flush();
+        }
+    }
+
+    private static boolean notModified(HttpServletRequest request, String etag, long modified) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            for (String tag : ifNoneMatch.split(",")) {
+                String candidate = tag.trim();
+                if (candidate.startsWith("W/")) candidate = candidate.substring(2);
+                if (candidate.equals(etag) || candidate.equals("*")) return true;
+            }
+            return false;
+        }
+        long since;
+        try {
+            since = request.getDateHeader(HttpHeaders.IF_MODIFIED_SINCE);
+        } catch (IllegalArgumentException e) {
+            // Not a date, so the condition is ignored as the spec says
+            return false;
+        }
+        return since != -1 && modified / 1000 <= since / 1000;
+    }
+
+    // Too many digits for a long still names a byte past the end of any file
+    private static long offset(String digits) {
+        try {
+            return Long.parseLong(digits);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+}
@@ -40,10 +40,16 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
                 .authorizeHttpRequests(auth -> auth
+                        // Server counters, like the bot and multiplayer stats; the first match wins
+                        .requestMatchers("/api/auth/stats").authenticated()
                         .requestMatchers(
                                 "/api/auth/**",
                                 "/h2-console/**",
-                                "/api/challenges/public")
+                                "/api/challenges/public",
+                                // Normally answered by ProfilePhotoFilter before this chain runs
+                                "/uploads/profiles/**",
+                                // The game socket checks the JWT itself during the handshake
+                                "/ws/**")
                         .permitAll()
                         .anyRequest().authenticated())
                 .headers(headers -> headers.frameOptions(frame -> frame.disable()))
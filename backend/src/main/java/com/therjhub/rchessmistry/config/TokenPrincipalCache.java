@@ -0,0 +1,68 @@
+package com.therjhub.rchessmistry.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded LRU of already-verified tokens and their principals, so a client
+ * reusing its token skips signature checks. An entry lives no longer than
+ * the token's own expiry.
+ */
+@Component
+public class TokenPrincipalCache {
+
+    private static class Entry {
+        final UserDetails principal;
+        final long expiresAt;
+
+        Entry(UserDetails principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public TokenPrincipalCache(@Value("${app.jwt.cache-max-entries}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > TokenPrincipalCache.this.maxEntries;
+            }
+        };
+    }
+
+    /** The principal for a token verified earlier, or null if unknown or expired. */
+    public UserDetails get(String token) {
+        synchronized (entries) {
+            Entry entry = entries.get(token);
+            if (entry != null && System.currentTimeMillis() < entry.expiresAt) {
+                hits.increment();
+                return entry.principal;
+            }
+            if (entry != null) entries.remove(token);
+        }
+        misses.increment();
+        return null;
+    }
+
+    /** Caches a verified token until {@code expiresAt} (epoch millis). */
+    public void put(String token, UserDetails principal, long expiresAt) {
+        synchronized (entries) {
+            entries.put(token, new Entry(principal, expiresAt));
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+}
@@ -0,0 +1,33 @@
+package com.therjhub.rchessmistry.config;
+
+import com.therjhub.rchessmistry.multiplayer.GameSocket;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.ServletContext;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.server.ServerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the game socket with the servlet container's own WebSocket
+ * support (Tomcat's JSR 356 implementation), which needs no extra dependency.
+ */
+@Configuration
+public class WebSocketConfig {
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @Autowired
+    private GameSocket gameSocket;
+
+    @PostConstruct
+    public void registerEndpoints() throws DeploymentException {
+        ServerContainer container = (ServerContainer) servletContext.getAttribute(ServerContainer.class.getName());
+        if (container == null) {
+            System.out.println("⚠️  No WebSocket container; online games are unavailable.");
+            return;
+        }
+        container.addEndpoint(gameSocket.config());
+    }
+}
@@ -4,12 +4,18 @@ import com.therjhub.rchessmistry.dto.AuthResponse;
 import com.therjhub.rchessmistry.dto.LoginRequest;
 import com.therjhub.rchessmistry.dto.RegisterRequest;
 import com.therjhub.rchessmistry.service.AuthService;
+import com.therjhub.rchessmistry.service.PasswordHasher;
+import com.therjhub.rchessmistry.service.UsernameIndex;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/auth")
@@ -19,11 +25,19 @@ public class AuthController {
     @Autowired
     private AuthService authService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
     @PostMapping("/register")
     public ResponseEntity<?> register(@Valid @RequestBody RegisterRequest request) {
         try {
             AuthResponse response = authService.register(request);
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
@@ -34,11 +48,27 @@ public class AuthController {
         try {
             AuthResponse response = authService.login(request);
             return ResponseEntity.ok(response);
+        } catch (RejectedExecutionException e) {
+            return busy(e);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(passwordHasher.getStats());
+        stats.putAll(usernameIndex.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
+    // Password hashing is saturated: tell the client to back off rather than queue
+    private static ResponseEntity<?> busy(RejectedExecutionException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", e.getMessage()));
+    }
+
     @GetMapping("/check-username/{username}")
     public ResponseEntity<?> checkUsername(@PathVariable String username) {
         boolean available = !authService.usernameExists(username.toLowerCase().trim());
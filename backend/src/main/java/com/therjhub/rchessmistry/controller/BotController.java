@@ -0,0 +1,43 @@
+package com.therjhub.rchessmistry.controller;
+
+import com.therjhub.rchessmistry.dto.BotMoveResponse;
+import com.therjhub.rchessmistry.service.BotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/bot")
+@CrossOrigin(origins = "*")
+public class BotController {
+
+    @Autowired
+    private BotService botService;
+
+    @GetMapping("/move")
+    public ResponseEntity<?> getMove(@RequestParam String fen,
+                                     @RequestParam(defaultValue = "CLASSIC") String mode) {
+        try {
+            BotMoveResponse response = botService.getBestMove(fen, mode);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/endgame")
+    public ResponseEntity<?> endgame(@RequestParam String fen) {
+        try {
+            return ResponseEntity.ok(botService.probeEndgame(fen));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        return ResponseEntity.ok(botService.getStats());
+    }
+}
@@ -1,15 +1,23 @@
 package com.therjhub.rchessmistry.controller;
 
+import com.therjhub.rchessmistry.dto.ChallengeAttemptRequest;
 import com.therjhub.rchessmistry.model.Challenge;
 import com.therjhub.rchessmistry.repository.ChallengeRepository;
+import com.therjhub.rchessmistry.service.ChallengeCatalog;
+import com.therjhub.rchessmistry.service.ChallengeService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/challenges")
@@ -19,14 +27,39 @@ public class ChallengeController {
     @Autowired
     private ChallengeRepository challengeRepository;
 
+    @Autowired
+    private ChallengeCatalog challengeCatalog;
+
+    @Autowired
+    private ChallengeService challengeService;
+
     @GetMapping("/public")
-    public ResponseEntity<List<Challenge>> getAllChallenges() {
-        return ResponseEntity.ok(challengeRepository.findByActiveTrue());
+    public ResponseEntity<byte[]> getAllChallenges() {
+        return serve(challengeCatalog.getAll());
     }
 
     @GetMapping("/difficulty/{level}")
-    public ResponseEntity<List<Challenge>> getByDifficulty(@PathVariable String level) {
-        return ResponseEntity.ok(challengeRepository.findByDifficultyAndActiveTrue(level.toUpperCase()));
+    public ResponseEntity<byte[]> getByDifficulty(@PathVariable String level) {
+        return serve(challengeCatalog.getByDifficulty(level.toUpperCase()));
+    }
+
+    @PostMapping("/{id}/attempt")
+    public ResponseEntity<?> attempt(Authentication auth, @PathVariable Long id,
+                                     @RequestBody ChallengeAttemptRequest request) {
+        try {
+            return ResponseEntity.ok(challengeService.attempt(auth.getName(), id, request.getMoves()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // The client revalidates every time; Spring answers a matching If-None-Match with 304
+    private static ResponseEntity<byte[]> serve(ChallengeCatalog.View view) {
+        return ResponseEntity.ok()
+                .eTag(view.getEtag())
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(view.getJson());
     }
 
     @Bean
@@ -66,37 +99,62 @@ public class ChallengeController {
                                 "Smothered Mate",
                                 "Deliver the legendary smothered mate with the knight",
                                 "6rk/6pp/7N/8/8/8/8/7K w - - 0 1",
-                                "Nf7 Rxf7 -- Ng5 -- Qh5",
+                                "Nf7",
                                 "ADVANCED", 50
                         ),
                         createChallenge(
                                 "Windmill Combination",
                                 "Execute a windmill to win decisive material",
                                 "r4rk1/pp3p1p/2p3p1/4n3/8/2N5/PPP2PPP/R3R1K1 w - - 0 1",
-                                "Rxe5 Rf8 Re7 Rf7 Rxf7 Rxf7",
+                                "Rxe5",
                                 "ADVANCED", 60
                         ),
                         createChallenge(
                                 "Zwischenzug Tactics",
                                 "Find the intermediate move that changes everything",
                                 "r1bq1rk1/pp3ppp/2nbpn2/3p4/3P4/2NBPN2/PPQ2PPP/R1B2RK1 w - - 0 1",
-                                "Ne5 Nxe5 Nxe5 Nxd4",
+                                "Ne5 Nxe5 dxe5",
                                 "ADVANCED", 75
                         ),
                         createChallenge(
                                 "Endgame: King & Pawn",
                                 "Win this classic king and pawn endgame",
                                 "4k3/8/8/8/8/8/4P3/4K3 w - - 0 1",
-                                "Ke2 Ke7 Ke3 Ke6 Ke4 Ke7 Ke5 Ke8 Kf6 Kd7 e4 Ke8 e5 Kd8 e6 Ke8 e7 Kf7 Kd7",
+                                "Kd2 Ke7 Ke3 Ke6 Ke4",
                                 "BEGINNER", 20
                         )
                 );
-                challengeRepository.saveAll(challenges);
+                challengeCatalog.saveAll(challenges);
                 System.out.println("✅ Seeded " + challenges.size() + " chess challenges!");
+            } else {
+                correctSeededSolutions();
             }
         };
     }
 
+    // Solutions seeded by earlier releases that never replayed, by title: { as seeded, corrected }
+    private static final Map<String, String[]> CORRECTED_SOLUTIONS = Map.of(
+            "Smothered Mate", new String[] { "Nf7 Rxf7 -- Ng5 -- Qh5", "Nf7" },
+            "Windmill Combination", new String[] { "Rxe5 Rf8 Re7 Rf7 Rxf7 Rxf7", "Rxe5" },
+            "Zwischenzug Tactics", new String[] { "Ne5 Nxe5 Nxe5 Nxd4", "Ne5 Nxe5 dxe5" },
+            "Endgame: King & Pawn", new String[] {
+                    "Ke2 Ke7 Ke3 Ke6 Ke4 Ke7 Ke5 Ke8 Kf6 Kd7 e4 Ke8 e5 Kd8 e6 Ke8 e7 Kf7 Kd7",
+                    "Kd2 Ke7 Ke3 Ke6 Ke4" });
+
+    // Only rows still holding the old seed are rewritten, so edited challenges are left alone
+    private void correctSeededSolutions() {
+        List<Challenge> corrected = new ArrayList<>();
+        for (Challenge challenge : challengeRepository.findByTitleIn(CORRECTED_SOLUTIONS.keySet())) {
+            String[] solution = CORRECTED_SOLUTIONS.get(challenge.getTitle());
+            if (!solution[0].equals(challenge.getSolutionMoves())) continue;
+            challenge.setSolutionMoves(solution[1]);
+            corrected.add(challenge);
+        }
+        if (corrected.isEmpty()) return;
+        challengeCatalog.saveAll(corrected);
+        System.out.println("✅ Corrected the solutions of " + corrected.size() + " seeded challenges");
+    }
+
     private Challenge createChallenge(String title, String desc, String fen, String solution, String difficulty, int points) {
         Challenge c = new Challenge();
         c.setTitle(title);
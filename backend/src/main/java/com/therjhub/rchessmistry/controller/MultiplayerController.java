@@ -0,0 +1,29 @@
+package com.therjhub.rchessmistry.controller;
+
+import com.therjhub.rchessmistry.multiplayer.GameServer;
+import com.therjhub.rchessmistry.multiplayer.Matchmaker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/multiplayer")
+@CrossOrigin(origins = "*")
+public class MultiplayerController {
+
+    @Autowired
+    private GameServer gameServer;
+
+    @Autowired
+    private Matchmaker matchmaker;
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>(gameServer.getStats());
+        stats.putAll(matchmaker.getStats());
+        return ResponseEntity.ok(stats);
+    }
+}
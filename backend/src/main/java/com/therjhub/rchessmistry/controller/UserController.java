@@ -1,10 +1,14 @@
 package com.therjhub.rchessmistry.controller;
 
+import com.therjhub.rchessmistry.dto.GameDetail;
+import com.therjhub.rchessmistry.dto.GameHistoryPage;
+import com.therjhub.rchessmistry.dto.LeaderboardEntry;
 import com.therjhub.rchessmistry.dto.SaveGameRequest;
 import com.therjhub.rchessmistry.model.GameRecord;
 import com.therjhub.rchessmistry.model.User;
 import com.therjhub.rchessmistry.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +22,8 @@ import java.util.Map;
 @CrossOrigin(origins = "*")
 public class UserController {
 
+    private static final MediaType PGN = MediaType.parseMediaType("application/x-chess-pgn");
+
     @Autowired
     private UserService userService;
 
@@ -72,22 +78,54 @@ public class UserController {
     }
 
     @GetMapping("/game-history")
-    public ResponseEntity<?> gameHistory(Authentication auth) {
+    public ResponseEntity<?> gameHistory(Authentication auth,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "20") int limit) {
         try {
-            List<GameRecord> history = userService.getGameHistory(auth.getName());
+            GameHistoryPage history = userService.getGameHistory(auth.getName(), cursor, limit);
             return ResponseEntity.ok(history);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/game/{id}")
+    public ResponseEntity<?> gameDetail(Authentication auth, @PathVariable Long id) {
+        try {
+            GameDetail detail = userService.getGameDetail(auth.getName(), id);
+            return ResponseEntity.ok(detail);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/game/{id}/pgn")
+    public ResponseEntity<?> gamePgn(Authentication auth, @PathVariable Long id) {
+        try {
+            String pgn = userService.getGamePgn(auth.getName(), id);
+            return ResponseEntity.ok().contentType(PGN).body(pgn == null ? "" : pgn);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/leaderboard")
-    public ResponseEntity<?> leaderboard() {
+    public ResponseEntity<?> leaderboard(@RequestParam(defaultValue = "0") int offset,
+                                         @RequestParam(defaultValue = "50") int limit) {
         try {
-            List<User> leaders = userService.getLeaderboard();
+            List<LeaderboardEntry> leaders = userService.getLeaderboard(offset, limit);
             return ResponseEntity.ok(leaders);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
+
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<?> myRank(Authentication auth) {
+        try {
+            return ResponseEntity.ok(userService.getMyRank(auth.getName()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
@@ -5,6 +5,7 @@ public class AuthResponse {
     private String username;
     private String displayName;
     private String profilePhotoUrl;
+    private String profileThumbnailUrl;
     private int wins;
     private int losses;
     private int draws;
@@ -15,12 +16,13 @@ public class AuthResponse {
     public AuthResponse() {}
 
     public AuthResponse(String token, String username, String displayName,
-                        String profilePhotoUrl, int wins, int losses, int draws,
+                        String profilePhotoUrl, String profileThumbnailUrl, int wins, int losses, int draws,
                         int gamesPlayed, String themePreference, String message) {
         this.token = token;
         this.username = username;
         this.displayName = displayName;
         this.profilePhotoUrl = profilePhotoUrl;
+        this.profileThumbnailUrl = profileThumbnailUrl;
         this.wins = wins;
         this.losses = losses;
         this.draws = draws;
@@ -37,6 +39,8 @@ public class AuthResponse {
     public void setDisplayName(String displayName) { this.displayName = displayName; }
     public String getProfilePhotoUrl() { return profilePhotoUrl; }
     public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
+    public String getProfileThumbnailUrl() { return profileThumbnailUrl; }
+    public void setProfileThumbnailUrl(String profileThumbnailUrl) { this.profileThumbnailUrl = profileThumbnailUrl; }
     public int getWins() { return wins; }
     public void setWins(int wins) { this.wins = wins; }
     public int getLosses() { return losses; }
@@ -0,0 +1,53 @@
+package com.therjhub.rchessmistry.dto;
+
+import java.util.List;
+
+public class BotMoveResponse {
+    private String bestMove;
+    private String mode;
+    private int score;
+    private int depth;
+    private long nodes;
+    private long timeMs;
+    private List<String> pv;
+    private int threads;
+    private long nps;
+    private String source;
+
+    public BotMoveResponse() {}
+
+    public BotMoveResponse(String bestMove, String mode, int score, int depth,
+                           long nodes, long timeMs, List<String> pv, int threads, long nps, String source) {
+        this.bestMove = bestMove;
+        this.mode = mode;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.timeMs = timeMs;
+        this.pv = pv;
+        this.threads = threads;
+        this.nps = nps;
+        this.source = source;
+    }
+
+    public String getBestMove() { return bestMove; }
+    public void setBestMove(String bestMove) { this.bestMove = bestMove; }
+    public String getMode() { return mode; }
+    public void setMode(String mode) { this.mode = mode; }
+    public int getScore() { return score; }
+    public void setScore(int score) { this.score = score; }
+    public int getDepth() { return depth; }
+    public void setDepth(int depth) { this.depth = depth; }
+    public long getNodes() { return nodes; }
+    public void setNodes(long nodes) { this.nodes = nodes; }
+    public long getTimeMs() { return timeMs; }
+    public void setTimeMs(long timeMs) { this.timeMs = timeMs; }
+    public List<String> getPv() { return pv; }
+    public void setPv(List<String> pv) { this.pv = pv; }
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public long getNps() { return nps; }
+    public void setNps(long nps) { this.nps = nps; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
+}
@@ -0,0 +1,11 @@
+package com.therjhub.rchessmistry.dto;
+
+import java.util.List;
+
+/** The solver's own moves so far, in UCI, from the challenge's start position. */
+public class ChallengeAttemptRequest {
+    private List<String> moves;
+
+    public List<String> getMoves() { return moves; }
+    public void setMoves(List<String> moves) { this.moves = moves; }
+}
@@ -0,0 +1,39 @@
+package com.therjhub.rchessmistry.dto;
+
+/**
+ * Verdict on an attempt. While correct and unsolved, {@code reply} is the
+ * opponent's answer to play on the board before the solver's next move.
+ */
+public class ChallengeAttemptResult {
+    private boolean correct;
+    private boolean solved;
+    private String reply;
+    private String replySan;
+    private int movesLeft;
+    private int pointsAwarded;
+
+    public ChallengeAttemptResult() {}
+
+    public ChallengeAttemptResult(boolean correct, boolean solved, String reply, String replySan,
+                                  int movesLeft, int pointsAwarded) {
+        this.correct = correct;
+        this.solved = solved;
+        this.reply = reply;
+        this.replySan = replySan;
+        this.movesLeft = movesLeft;
+        this.pointsAwarded = pointsAwarded;
+    }
+
+    public boolean isCorrect() { return correct; }
+    public void setCorrect(boolean correct) { this.correct = correct; }
+    public boolean isSolved() { return solved; }
+    public void setSolved(boolean solved) { this.solved = solved; }
+    public String getReply() { return reply; }
+    public void setReply(String reply) { this.reply = reply; }
+    public String getReplySan() { return replySan; }
+    public void setReplySan(String replySan) { this.replySan = replySan; }
+    public int getMovesLeft() { return movesLeft; }
+    public void setMovesLeft(int movesLeft) { this.movesLeft = movesLeft; }
+    public int getPointsAwarded() { return pointsAwarded; }
+    public void setPointsAwarded(int pointsAwarded) { this.pointsAwarded = pointsAwarded; }
+}
@@ -0,0 +1,23 @@
+package com.therjhub.rchessmistry.dto;
+
+/** A single game with its PGN and per-ply analysis, served apart from the history list. */
+public class GameDetail {
+    private GameSummary summary;
+    private String pgn;
+    private int[] moveLosses;
+
+    public GameDetail() {}
+
+    public GameDetail(GameSummary summary, String pgn, int[] moveLosses) {
+        this.summary = summary;
+        this.pgn = pgn;
+        this.moveLosses = moveLosses;
+    }
+
+    public GameSummary getSummary() { return summary; }
+    public void setSummary(GameSummary summary) { this.summary = summary; }
+    public String getPgn() { return pgn; }
+    public void setPgn(String pgn) { this.pgn = pgn; }
+    public int[] getMoveLosses() { return moveLosses; }
+    public void setMoveLosses(int[] moveLosses) { this.moveLosses = moveLosses; }
+}
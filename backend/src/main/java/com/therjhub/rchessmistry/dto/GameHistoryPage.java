@@ -0,0 +1,21 @@
+package com.therjhub.rchessmistry.dto;
+
+import java.util.List;
+
+/** A page of game history; pass {@code nextCursor} back to get the next one (null on the last page). */
+public class GameHistoryPage {
+    private List<GameSummary> games;
+    private String nextCursor;
+
+    public GameHistoryPage() {}
+
+    public GameHistoryPage(List<GameSummary> games, String nextCursor) {
+        this.games = games;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<GameSummary> getGames() { return games; }
+    public void setGames(List<GameSummary> games) { this.games = games; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -0,0 +1,67 @@
+package com.therjhub.rchessmistry.dto;
+
+import com.therjhub.rchessmistry.model.GameRecord;
+
+import java.time.LocalDateTime;
+
+/** One row of the game history: the record without its moves or analysis detail. */
+public class GameSummary {
+    private Long id;
+    private GameRecord.OpponentType opponentType;
+    private GameRecord.GameMode gameMode;
+    private GameRecord.GameResult result;
+    private GameRecord.PlayerColor playerColor;
+    private String opponentName;
+    private int totalMoves;
+    private int durationSeconds;
+    private int blunderCount;
+    private double accuracyScore;
+    private GameRecord.AnalysisStatus analysisStatus;
+    private LocalDateTime playedAt;
+
+    public GameSummary() {}
+
+    // Used by the JPQL constructor expression in GameRecordRepository
+    public GameSummary(Long id, GameRecord.OpponentType opponentType, GameRecord.GameMode gameMode,
+                       GameRecord.GameResult result, GameRecord.PlayerColor playerColor, String opponentName,
+                       int totalMoves, int durationSeconds, int blunderCount, double accuracyScore,
+                       GameRecord.AnalysisStatus analysisStatus, LocalDateTime playedAt) {
+        this.id = id;
+        this.opponentType = opponentType;
+        this.gameMode = gameMode;
+        this.result = result;
+        this.playerColor = playerColor;
+        this.opponentName = opponentName;
+        this.totalMoves = totalMoves;
+        this.durationSeconds = durationSeconds;
+        this.blunderCount = blunderCount;
+        this.accuracyScore = accuracyScore;
+        this.analysisStatus = analysisStatus;
+        this.playedAt = playedAt;
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public GameRecord.OpponentType getOpponentType() { return opponentType; }
+    public void setOpponentType(GameRecord.OpponentType opponentType) { this.opponentType = opponentType; }
+    public GameRecord.GameMode getGameMode() { return gameMode; }
+    public void setGameMode(GameRecord.GameMode gameMode) { this.gameMode = gameMode; }
+    public GameRecord.GameResult getResult() { return result; }
+    public void setResult(GameRecord.GameResult result) { this.result = result; }
+    public GameRecord.PlayerColor getPlayerColor() { return playerColor; }
+    public void setPlayerColor(GameRecord.PlayerColor playerColor) { this.playerColor = playerColor; }
+    public String getOpponentName() { return opponentName; }
+    public void setOpponentName(String opponentName) { this.opponentName = opponentName; }
+    public int getTotalMoves() { return totalMoves; }
+    public void setTotalMoves(int totalMoves) { this.totalMoves = totalMoves; }
+    public int getDurationSeconds() { return durationSeconds; }
+    public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
+    public int getBlunderCount() { return blunderCount; }
+    public void setBlunderCount(int blunderCount) { this.blunderCount = blunderCount; }
+    public double getAccuracyScore() { return accuracyScore; }
+    public void setAccuracyScore(double accuracyScore) { this.accuracyScore = accuracyScore; }
+    public GameRecord.AnalysisStatus getAnalysisStatus() { return analysisStatus; }
+    public void setAnalysisStatus(GameRecord.AnalysisStatus analysisStatus) { this.analysisStatus = analysisStatus; }
+    public LocalDateTime getPlayedAt() { return playedAt; }
+    public void setPlayedAt(LocalDateTime playedAt) { this.playedAt = playedAt; }
+}
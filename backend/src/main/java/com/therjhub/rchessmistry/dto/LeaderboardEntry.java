@@ -0,0 +1,73 @@
+package com.therjhub.rchessmistry.dto;
+
+/** A player's public standing; {@code rank} is 1-based and 0 until it is ranked. */
+public class LeaderboardEntry {
+    private Long id;
+    private int rank;
+    private String username;
+    private String displayName;
+    private String profilePhotoUrl;
+    private String profileThumbnailUrl;
+    private int wins;
+    private int losses;
+    private int draws;
+    private int gamesPlayed;
+    private int rating;
+    private int ratingDeviation;
+
+    public LeaderboardEntry() {}
+
+    // Used by the JPQL constructor expression in UserRepository
+    public LeaderboardEntry(Long id, String username, String displayName, String profilePhotoUrl,
+                            String profileThumbnailUrl, int wins, int losses, int draws, int gamesPlayed,
+                            double rating, double ratingDeviation) {
+        this(id, 0, username, displayName, profilePhotoUrl, profileThumbnailUrl, wins, losses, draws, gamesPlayed,
+                (int) Math.round(rating), (int) Math.round(ratingDeviation));
+    }
+
+    public LeaderboardEntry(Long id, int rank, String username, String displayName, String profilePhotoUrl,
+                            String profileThumbnailUrl, int wins, int losses, int draws, int gamesPlayed, int rating, int ratingDeviation) {
+        this.id = id;
+        this.rank = rank;
+        this.username = username;
+        this.displayName = displayName;
+        this.profilePhotoUrl = profilePhotoUrl;
+        this.profileThumbnailUrl = profileThumbnailUrl;
+        this.wins = wins;
+        this.losses = losses;
+        this.draws = draws;
+        this.gamesPlayed = gamesPlayed;
+        this.rating = rating;
+        this.ratingDeviation = ratingDeviation;
+    }
+
+    public LeaderboardEntry withRank(int rank) {
+        return new LeaderboardEntry(id, rank, username, displayName, profilePhotoUrl, profileThumbnailUrl, wins, losses, draws, gamesPlayed,
+                rating, ratingDeviation);
+    }
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public int getRank() { return rank; }
+    public void setRank(int rank) { this.rank = rank; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getDisplayName() { return displayName; }
+    public void setDisplayName(String displayName) { this.displayName = displayName; }
+    public String getProfilePhotoUrl() { return profilePhotoUrl; }
+    public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
+    public String getProfileThumbnailUrl() { return profileThumbnailUrl; }
+    public void setProfileThumbnailUrl(String profileThumbnailUrl) { this.profileThumbnailUrl = profileThumbnailUrl; }
+    public int getWins() { return wins; }
+    public void setWins(int wins) { this.wins = wins; }
+    public int getLosses() { return losses; }
+    public void setLosses(int losses) { this.losses = losses; }
+    public int getDraws() { return draws; }
+    public void setDraws(int draws) { this.draws = draws; }
+    public int getGamesPlayed() { return gamesPlayed; }
+    public void setGamesPlayed(int gamesPlayed) { this.gamesPlayed = gamesPlayed; }
+    public int getRating() { return rating; }
+    public void setRating(int rating) { this.rating = rating; }
+    public int getRatingDeviation() { return ratingDeviation; }
+    public void setRatingDeviation(int ratingDeviation) { this.ratingDeviation = ratingDeviation; }
+}
@@ -0,0 +1,37 @@
+package com.therjhub.rchessmistry.dto;
+
+import com.therjhub.rchessmistry.model.GameRecord;
+
+import java.time.LocalDateTime;
+
+/** The fields of a game record that rating needs, read without loading the entity. */
+public class RatedGame {
+    private final Long id;
+    private final Long userId;
+    private final GameRecord.GameMode gameMode;
+    private final GameRecord.GameResult result;
+    private final LocalDateTime playedAt;
+    // Null for bot games, which are rated against the mode's anchor
+    private final Double opponentRating;
+    private final Double opponentDeviation;
+
+    // Used by the JPQL constructor expressions in GameRecordRepository
+    public RatedGame(Long id, Long userId, GameRecord.GameMode gameMode, GameRecord.GameResult result,
+                     LocalDateTime playedAt, Double opponentRating, Double opponentDeviation) {
+        this.id = id;
+        this.userId = userId;
+        this.gameMode = gameMode;
+        this.result = result;
+        this.playedAt = playedAt;
+        this.opponentRating = opponentRating;
+        this.opponentDeviation = opponentDeviation;
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public GameRecord.GameMode getGameMode() { return gameMode; }
+    public GameRecord.GameResult getResult() { return result; }
+    public LocalDateTime getPlayedAt() { return playedAt; }
+    public Double getOpponentRating() { return opponentRating; }
+    public Double getOpponentDeviation() { return opponentDeviation; }
+}
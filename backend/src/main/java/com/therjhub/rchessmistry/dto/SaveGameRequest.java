@@ -4,6 +4,9 @@ public class SaveGameRequest {
     private String opponentType;
     private String gameMode;
     private String result;
+    // Optional: the player's colour (WHITE or BLACK, default WHITE) and the other player's name
+    private String playerColor;
+    private String opponentName;
     private int totalMoves;
     private int durationSeconds;
     private String pgn;
@@ -16,6 +19,10 @@ public class SaveGameRequest {
     public void setGameMode(String gameMode) { this.gameMode = gameMode; }
     public String getResult() { return result; }
     public void setResult(String result) { this.result = result; }
+    public String getPlayerColor() { return playerColor; }
+    public void setPlayerColor(String playerColor) { this.playerColor = playerColor; }
+    public String getOpponentName() { return opponentName; }
+    public void setOpponentName(String opponentName) { this.opponentName = opponentName; }
     public int getTotalMoves() { return totalMoves; }
     public void setTotalMoves(int totalMoves) { this.totalMoves = totalMoves; }
     public int getDurationSeconds() { return durationSeconds; }
@@ -0,0 +1,73 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Precomputed attack tables. Leapers use plain lookup tables; sliders walk
+ * precomputed rays and cut them at the first blocker found with a bit scan.
+ */
+public final class Attacks {
+
+    static final long[] KNIGHT = new long[64];
+    static final long[] KING = new long[64];
+    static final long[][] PAWN = new long[2][64];
+
+    // N, E, NE, NW scan forward (lowest bit first); S, W, SE, SW scan backward.
+    private static final int[] DIR_FILE = { 0, 1, 1, -1, 0, -1, 1, -1 };
+    private static final int[] DIR_RANK = { 1, 0, 1, 1, -1, 0, -1, -1 };
+    private static final long[][] RAYS = new long[8][64];
+
+    static {
+        for (int sq = 0; sq < 64; sq++) {
+            int f = Square.file(sq), r = Square.rank(sq);
+            KNIGHT[sq] = leaper(f, r, new int[][] {{1, 2}, {2, 1}, {2, -1}, {1, -2}, {-1, -2}, {-2, -1}, {-2, 1}, {-1, 2}});
+            KING[sq] = leaper(f, r, new int[][] {{1, 0}, {1, 1}, {0, 1}, {-1, 1}, {-1, 0}, {-1, -1}, {0, -1}, {1, -1}});
+            PAWN[Piece.WHITE][sq] = leaper(f, r, new int[][] {{-1, 1}, {1, 1}});
+            PAWN[Piece.BLACK][sq] = leaper(f, r, new int[][] {{-1, -1}, {1, -1}});
+            for (int dir = 0; dir < 8; dir++) {
+                long ray = 0L;
+                for (int nf = f + DIR_FILE[dir], nr = r + DIR_RANK[dir];
+                     nf >= 0 && nf < 8 && nr >= 0 && nr < 8;
+                     nf += DIR_FILE[dir], nr += DIR_RANK[dir]) {
+                    ray |= 1L << Square.of(nf, nr);
+                }
+                RAYS[dir][sq] = ray;
+            }
+        }
+    }
+
+    private Attacks() {}
+
+    private static long leaper(int f, int r, int[][] deltas) {
+        long bb = 0L;
+        for (int[] d : deltas) {
+            int nf = f + d[0], nr = r + d[1];
+            if (nf >= 0 && nf < 8 && nr >= 0 && nr < 8) bb |= 1L << Square.of(nf, nr);
+        }
+        return bb;
+    }
+
+    private static long ray(int dir, int sq, long occupied) {
+        long ray = RAYS[dir][sq];
+        long blockers = ray & occupied;
+        if (blockers != 0) {
+            int first = dir < 4 ? Long.numberOfTrailingZeros(blockers) : 63 - Long.numberOfLeadingZeros(blockers);
+            ray ^= RAYS[dir][first];
+        }
+        return ray;
+    }
+
+    public static long knight(int sq) { return KNIGHT[sq]; }
+    public static long king(int sq) { return KING[sq]; }
+    public static long pawn(int colour, int sq) { return PAWN[colour][sq]; }
+
+    public static long bishop(int sq, long occupied) {
+        return ray(2, sq, occupied) | ray(3, sq, occupied) | ray(6, sq, occupied) | ray(7, sq, occupied);
+    }
+
+    public static long rook(int sq, long occupied) {
+        return ray(0, sq, occupied) | ray(1, sq, occupied) | ray(4, sq, occupied) | ray(5, sq, occupied);
+    }
+
+    public static long queen(int sq, long occupied) {
+        return bishop(sq, occupied) | rook(sq, occupied);
+    }
+}
@@ -0,0 +1,165 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Solves the three-man endgames (king and one piece against a bare king) by
+ * retrograde analysis and writes them in the {@link Bitbases} format.
+ *
+ * <pre>
+ * java -cp target/classes com.therjhub.rchessmistry.engine.BitbaseGenerator bitbases
+ * </pre>
+ *
+ * Checkmates seed the win set; each pass then marks a position won when the
+ * strong side has a move into a win, or the weak side has only moves into
+ * wins. Whatever is still unmarked when a pass adds nothing is a draw.
+ * KQK and KRK are solved before KPK so promotions can look up their result.
+ */
+public final class BitbaseGenerator {
+
+    /** Tables in dependency order. */
+    static final int[] TYPES = { Piece.QUEEN, Piece.ROOK, Piece.PAWN };
+
+    private BitbaseGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: BitbaseGenerator <output-dir>");
+            System.exit(1);
+        }
+        List<String> written = generateMissing(Paths.get(args[0]));
+        System.out.println("Wrote " + written.size() + " bitbases to " + args[0] + " " + written);
+    }
+
+    /** Solves and writes every table not already present in {@code dir}; returns the file names written. */
+    public static List<String> generateMissing(Path dir) throws IOException {
+        Files.createDirectories(dir);
+        List<String> written = new ArrayList<>();
+        long[][] solved = new long[6][];
+        for (int type : TYPES) {
+            Path file = dir.resolve(Bitbases.fileName(type));
+            if (Files.isRegularFile(file)) {
+                solved[type] = Bitbases.read(file, type);
+                continue;
+            }
+            solved[type] = solve(type, solved);
+            write(file, type, solved[type]);
+            written.add(file.getFileName().toString());
+        }
+        return written;
+    }
+
+    /** Win bits for king + {@code type} vs king, indexed by {@link Bitbases#index}. */
+    static long[] solve(int type, long[][] solved) {
+        long[] win = new long[Bitbases.POSITIONS / 64];
+        boolean[] valid = new boolean[Bitbases.POSITIONS];
+        for (int idx = 0; idx < Bitbases.POSITIONS; idx++) {
+            valid[idx] = isValid(type, idx >>> 18, (idx >>> 12) & 63, (idx >>> 6) & 63, idx & 63);
+        }
+
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (int idx = 0; idx < Bitbases.POSITIONS; idx++) {
+                if (!valid[idx] || isSet(win, idx)) continue;
+                int wk = (idx >>> 12) & 63, bk = (idx >>> 6) & 63, sq = idx & 63;
+                boolean won = (idx >>> 18) == 0
+                        ? strongCanWin(type, wk, bk, sq, win, solved)
+                        : weakMustLose(type, wk, bk, sq, win);
+                if (won) {
+                    win[idx >>> 6] |= 1L << idx;
+                    changed = true;
+                }
+            }
+        }
+        return win;
+    }
+
+    private static boolean isValid(int type, int stm, int wk, int bk, int sq) {
+        if (wk == bk || wk == sq || bk == sq) return false;
+        if ((Attacks.king(wk) & (1L << bk)) != 0) return false;
+        if (type == Piece.PAWN && (Square.rank(sq) == 0 || Square.rank(sq) == 7)) return false;
+        // The side that just moved cannot have left the other king in check
+        return stm == 1 || (attacks(type, sq, (1L << wk) | (1L << bk)) & (1L << bk)) == 0;
+    }
+
+    private static boolean strongCanWin(int type, int wk, int bk, int sq, long[] win, long[][] solved) {
+        long kingTargets = Attacks.king(wk) & ~Attacks.king(bk) & ~(1L << sq);
+        while (kingTargets != 0) {
+            int to = Long.numberOfTrailingZeros(kingTargets);
+            kingTargets &= kingTargets - 1;
+            if (isSet(win, Bitbases.index(1, to, bk, sq))) return true;
+        }
+
+        long kings = (1L << wk) | (1L << bk);
+        if (type != Piece.PAWN) {
+            long targets = attacks(type, sq, kings) & ~kings;
+            while (targets != 0) {
+                int to = Long.numberOfTrailingZeros(targets);
+                targets &= targets - 1;
+                if (isSet(win, Bitbases.index(1, wk, bk, to))) return true;
+            }
+            return false;
+        }
+
+        int one = sq + 8;
+        if ((kings & (1L << one)) != 0) return false;
+        if (Square.rank(one) == 7) {
+            return isSet(solved[Piece.QUEEN], Bitbases.index(1, wk, bk, one))
+                    || isSet(solved[Piece.ROOK], Bitbases.index(1, wk, bk, one));
+        }
+        if (isSet(win, Bitbases.index(1, wk, bk, one))) return true;
+        int two = sq + 16;
+        return Square.rank(sq) == 1 && (kings & (1L << two)) == 0 && isSet(win, Bitbases.index(1, wk, bk, two));
+    }
+
+    private static boolean weakMustLose(int type, int wk, int bk, int sq, long[] win) {
+        long guarded = Attacks.king(wk) | attacks(type, sq, 1L << wk);
+        long targets = Attacks.king(bk) & ~guarded;
+        if (targets == 0) {
+            // Mate or stalemate
+            return (attacks(type, sq, (1L << wk) | (1L << bk)) & (1L << bk)) != 0;
+        }
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            // An undefended piece can be taken, leaving bare kings
+            if (to == sq) return false;
+            if (!isSet(win, Bitbases.index(0, wk, to, sq))) return false;
+        }
+        return true;
+    }
+
+    private static long attacks(int type, int sq, long occupied) {
+        return switch (type) {
+            case Piece.PAWN -> Attacks.pawn(Piece.WHITE, sq);
+            case Piece.ROOK -> Attacks.rook(sq, occupied);
+            case Piece.QUEEN -> Attacks.queen(sq, occupied);
+            default -> throw new IllegalArgumentException("No bitbase for piece type " + type);
+        };
+    }
+
+    private static boolean isSet(long[] bits, int idx) {
+        return (bits[idx >>> 6] & (1L << idx)) != 0;
+    }
+
+    private static void write(Path file, int type, long[] win) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream raw = Files.newOutputStream(tmp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(raw))) {
+            out.write(Bitbases.MAGIC);
+            out.writeInt(Bitbases.VERSION);
+            out.writeInt(type);
+            for (long word : win) out.writeLong(word);
+        }
+        Files.move(tmp, file, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,126 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Win/draw bitbases for king and one piece against a bare king, generated by
+ * {@link BitbaseGenerator} and memory-mapped read-only. A probe is a single
+ * bit lookup, so these endgames resolve without searching.
+ *
+ * <p>Tables are stored with the strong side as White; positions where Black
+ * is the strong side are mirrored vertically before lookup. Each table has one
+ * bit per (side to move, white king, black king, piece square), set when the
+ * strong side wins. File layout (big-endian): magic {@code RCMBITB1} (8 bytes),
+ * version (4), piece type (4), then {@code 2*64*64*64} bits as 8-byte words.
+ */
+public final class Bitbases {
+
+    public static final int UNKNOWN = -1;
+    public static final int DRAW = 0;
+    public static final int WIN = 1;
+    public static final int LOSS = 2;
+
+    static final byte[] MAGIC = "RCMBITB1".getBytes(StandardCharsets.US_ASCII);
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int POSITIONS = 2 * 64 * 64 * 64;
+    static final int TABLE_BYTES = POSITIONS / 8;
+
+    private static final Bitbases EMPTY = new Bitbases(new ByteBuffer[6]);
+
+    // Indexed by the strong side's piece type
+    private final ByteBuffer[] tables;
+
+    private Bitbases(ByteBuffer[] tables) {
+        this.tables = tables;
+    }
+
+    public static Bitbases empty() {
+        return EMPTY;
+    }
+
+    /** Maps every known table found in {@code dir}; missing ones are simply not probed. */
+    public static Bitbases open(Path dir) throws IOException {
+        ByteBuffer[] tables = new ByteBuffer[6];
+        for (int type : BitbaseGenerator.TYPES) {
+            Path file = dir.resolve(fileName(type));
+            if (Files.isRegularFile(file)) tables[type] = map(file, type);
+        }
+        return new Bitbases(tables);
+    }
+
+    static String fileName(int type) {
+        return "k" + Character.toLowerCase(Piece.symbol(type)) + "k.bin";
+    }
+
+    static int index(int strongToMove, int whiteKing, int blackKing, int sq) {
+        return strongToMove << 18 | whiteKing << 12 | blackKing << 6 | sq;
+    }
+
+    /** Names of the loaded tables, e.g. {@code KQK}. */
+    public List<String> getTables() {
+        List<String> names = new ArrayList<>();
+        for (int type = 0; type < tables.length; type++) {
+            if (tables[type] != null) names.add("K" + Piece.symbol(type) + "K");
+        }
+        return names;
+    }
+
+    /**
+     * Result for the side to move ({@link #WIN}, {@link #DRAW} or {@link #LOSS}),
+     * or {@link #UNKNOWN} when no loaded table covers the position.
+     */
+    public int probe(Board board) {
+        if (Long.bitCount(board.occupied) != 3) return UNKNOWN;
+        long extra = board.occupied & ~board.pieces[Piece.of(Piece.WHITE, Piece.KING)]
+                & ~board.pieces[Piece.of(Piece.BLACK, Piece.KING)];
+        int sq = Long.numberOfTrailingZeros(extra);
+        int piece = board.squares[sq];
+        ByteBuffer table = tables[Piece.type(piece)];
+        if (table == null) return UNKNOWN;
+
+        int strong = Piece.colour(piece);
+        int flip = strong == Piece.WHITE ? 0 : 56;
+        int idx = index(board.side == strong ? 0 : 1,
+                board.kingSquare(strong) ^ flip, board.kingSquare(strong ^ 1) ^ flip, sq ^ flip);
+        boolean win = (table.getLong((idx >>> 6) << 3) & (1L << idx)) != 0;
+        if (!win) return DRAW;
+        return board.side == strong ? WIN : LOSS;
+    }
+
+    private static ByteBuffer map(Path file, int type) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() != HEADER_BYTES + TABLE_BYTES) throw new IOException("Not a bitbase: " + file);
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, file, type);
+            return buffer.position(HEADER_BYTES).slice();
+        }
+    }
+
+    /** Reads a table back into the generator's word layout. */
+    static long[] read(Path file, int type) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+        if (buffer.capacity() != HEADER_BYTES + TABLE_BYTES) throw new IOException("Not a bitbase: " + file);
+        checkHeader(buffer, file, type);
+        long[] words = new long[POSITIONS / 64];
+        for (int i = 0; i < words.length; i++) words[i] = buffer.getLong(HEADER_BYTES + i * 8);
+        return words;
+    }
+
+    private static void checkHeader(ByteBuffer buffer, Path file, int type) throws IOException {
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (buffer.get(i) != MAGIC[i]) throw new IOException("Not a bitbase: " + file);
+        }
+        if (buffer.getInt(8) != VERSION || buffer.getInt(12) != type) {
+            throw new IOException("Unsupported bitbase: " + file);
+        }
+    }
+}
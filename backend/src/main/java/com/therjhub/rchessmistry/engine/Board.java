@@ -0,0 +1,311 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Bitboard position with make/unmake. All state needed to take a move back
+ * is kept in preallocated arrays, so playing moves never allocates.
+ */
+public final class Board {
+
+    public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+
+    /** Enough for any real game plus the deepest search on top of it; longer histories grow the arrays. */
+    static final int MAX_HISTORY = 2048;
+
+    /** The halfmove clock saturates here so it always fits its 16 bits of undo state. */
+    public static final int MAX_HALFMOVE_CLOCK = 0x7FFF;
+
+    private static final int[] CASTLING_MASK = new int[64];
+
+    static {
+        java.util.Arrays.fill(CASTLING_MASK, 15);
+        CASTLING_MASK[0] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASK[7] &= ~WHITE_KINGSIDE;
+        CASTLING_MASK[4] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASK[56] &= ~BLACK_QUEENSIDE;
+        CASTLING_MASK[63] &= ~BLACK_KINGSIDE;
+        CASTLING_MASK[60] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+    }
+
+    final long[] pieces = new long[12];
+    final long[] colours = new long[2];
+    long occupied;
+    final int[] squares = new int[64];
+
+    int side;
+    int castling;
+    int epSquare = Square.NONE;
+    int halfmoveClock;
+    int fullmoveNumber = 1;
+    long key;
+
+    // Packed per-ply undo state: castling | ep+1 << 4 | captured+1 << 11 | halfmove << 16
+    private int[] undo = new int[MAX_HISTORY];
+    // Key of the position before each move, for unmake and repetition detection
+    private long[] keys = new long[MAX_HISTORY];
+    private int ply;
+
+    public Board() {
+        java.util.Arrays.fill(squares, Piece.EMPTY);
+    }
+
+    /** Independent copy, including move history, for searching on another thread. */
+    public Board(Board other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, 12);
+        System.arraycopy(other.colours, 0, colours, 0, 2);
+        System.arraycopy(other.squares, 0, squares, 0, 64);
+        occupied = other.occupied;
+        side = other.side;
+        castling = other.castling;
+        epSquare = other.epSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        key = other.key;
+        ply = other.ply;
+        if (other.undo.length > undo.length) {
+            undo = new int[other.undo.length];
+            keys = new long[other.keys.length];
+        }
+        System.arraycopy(other.undo, 0, undo, 0, ply);
+        System.arraycopy(other.keys, 0, keys, 0, ply);
+    }
+
+    public static Board fromFen(String fen) {
+        Board board = new Board();
+        board.setFen(fen);
+        return board;
+    }
+
+    public static Board startPosition() {
+        return fromFen(START_FEN);
+    }
+
+    // ========== ACCESSORS ==========
+    public int sideToMove() { return side; }
+    public int castlingRights() { return castling; }
+    public int enPassantSquare() { return epSquare; }
+    public int halfmoveClock() { return halfmoveClock; }
+    public int fullmoveNumber() { return fullmoveNumber; }
+    public int pieceAt(int sq) { return squares[sq]; }
+    public long pieces(int piece) { return pieces[piece]; }
+    public long pieces(int colour, int type) { return pieces[Piece.of(colour, type)]; }
+    public long colour(int colour) { return colours[colour]; }
+    public long occupied() { return occupied; }
+    public long key() { return key; }
+
+    public int kingSquare(int colour) {
+        return Long.numberOfTrailingZeros(pieces[Piece.of(colour, Piece.KING)]);
+    }
+
+    public boolean inCheck() {
+        return isAttacked(kingSquare(side), side ^ 1);
+    }
+
+    /** True if the current position already occurred since the last irreversible move. */
+    public boolean isRepetition() {
+        int limit = Math.max(0, ply - halfmoveClock);
+        for (int i = ply - 2; i >= limit; i -= 2) {
+            if (keys[i] == key) return true;
+        }
+        return false;
+    }
+
+    public boolean isAttacked(int sq, int byColour) {
+        int base = byColour * 6;
+        if ((Attacks.PAWN[byColour ^ 1][sq] & pieces[base + Piece.PAWN]) != 0) return true;
+        if ((Attacks.KNIGHT[sq] & pieces[base + Piece.KNIGHT]) != 0) return true;
+        if ((Attacks.KING[sq] & pieces[base + Piece.KING]) != 0) return true;
+        long queens = pieces[base + Piece.QUEEN];
+        if ((Attacks.bishop(sq, occupied) & (pieces[base + Piece.BISHOP] | queens)) != 0) return true;
+        return (Attacks.rook(sq, occupied) & (pieces[base + Piece.ROOK] | queens)) != 0;
+    }
+
+    // ========== MAKE / UNMAKE ==========
+    public void makeMove(int move) {
+        int from = Move.from(move), to = Move.to(move), flags = Move.flags(move);
+        int piece = squares[from];
+        int captured = Piece.EMPTY;
+
+        long enPassantKey = enPassantKey(side);
+        if (ply == undo.length) growHistory();
+        keys[ply] = key;
+        undo[ply++] = castling | ((epSquare + 1) << 4) | (halfmoveClock << 16);
+
+        if (flags == Move.EN_PASSANT) {
+            int capSq = to ^ 8;
+            captured = squares[capSq];
+            removePiece(capSq);
+        } else if ((flags & Move.CAPTURE) != 0) {
+            captured = squares[to];
+            removePiece(to);
+        }
+        undo[ply - 1] |= (captured + 1) << 11;
+
+        movePiece(from, to);
+        if ((flags & Move.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, Piece.of(side, Move.promotionType(move)));
+        } else if (flags == Move.KING_CASTLE) {
+            movePiece(to + 1, to - 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            movePiece(to - 2, to + 1);
+        }
+
+        key ^= enPassantKey;
+        epSquare = flags == Move.DOUBLE_PUSH ? (from + to) >>> 1 : Square.NONE;
+        key ^= enPassantKey(side ^ 1);
+        halfmoveClock = (Piece.type(piece) == Piece.PAWN || captured != Piece.EMPTY) ? 0
+                : Math.min(halfmoveClock + 1, MAX_HALFMOVE_CLOCK);
+        key ^= Zobrist.CASTLING[castling];
+        castling &= CASTLING_MASK[from] & CASTLING_MASK[to];
+        key ^= Zobrist.CASTLING[castling];
+        if (side == Piece.BLACK) fullmoveNumber++;
+        side ^= 1;
+        key ^= Zobrist.SIDE;
+    }
+
+    /**
+     * The en-passant part of the key. As in polyglot books, the file only counts
+     * when a pawn of {@code capturer} stands ready to take, so a position reached
+     * by a double push matches the same position written without the square.
+     */
+    long enPassantKey(int capturer) {
+        if (epSquare == Square.NONE
+                || (Attacks.PAWN[capturer ^ 1][epSquare] & pieces[Piece.of(capturer, Piece.PAWN)]) == 0) {
+            return 0L;
+        }
+        return Zobrist.EN_PASSANT_FILE[Square.file(epSquare)];
+    }
+
+    // Only a replay of an unusually long game gets here
+    private void growHistory() {
+        undo = java.util.Arrays.copyOf(undo, undo.length * 2);
+        keys = java.util.Arrays.copyOf(keys, keys.length * 2);
+    }
+
+    public void unmakeMove(int move) {
+        int from = Move.from(move), to = Move.to(move), flags = Move.flags(move);
+        int state = undo[--ply];
+
+        side ^= 1;
+        if (side == Piece.BLACK) fullmoveNumber--;
+        castling = state & 15;
+        epSquare = ((state >>> 4) & 127) - 1;
+        halfmoveClock = state >>> 16;
+        int captured = ((state >>> 11) & 31) - 1;
+
+        if ((flags & Move.PROMOTION) != 0) {
+            removePiece(to);
+            addPiece(to, Piece.of(side, Piece.PAWN));
+        } else if (flags == Move.KING_CASTLE) {
+            movePiece(to - 1, to + 1);
+        } else if (flags == Move.QUEEN_CASTLE) {
+            movePiece(to + 1, to - 2);
+        }
+        movePiece(to, from);
+
+        if (flags == Move.EN_PASSANT) {
+            addPiece(to ^ 8, captured);
+        } else if (captured != Piece.EMPTY) {
+            addPiece(to, captured);
+        }
+        key = keys[ply];
+    }
+
+    void addPiece(int sq, int piece) {
+        long bit = 1L << sq;
+        pieces[piece] |= bit;
+        colours[Piece.colour(piece)] |= bit;
+        occupied |= bit;
+        squares[sq] = piece;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+    }
+
+    private void removePiece(int sq) {
+        int piece = squares[sq];
+        long bit = ~(1L << sq);
+        pieces[piece] &= bit;
+        colours[Piece.colour(piece)] &= bit;
+        occupied &= bit;
+        squares[sq] = Piece.EMPTY;
+        key ^= Zobrist.PIECE_SQUARE[piece][sq];
+    }
+
+    private void movePiece(int from, int to) {
+        int piece = squares[from];
+        long bits = (1L << from) | (1L << to);
+        pieces[piece] ^= bits;
+        colours[Piece.colour(piece)] ^= bits;
+        occupied ^= bits;
+        squares[from] = Piece.EMPTY;
+        squares[to] = piece;
+        key ^= Zobrist.PIECE_SQUARE[piece][from] ^ Zobrist.PIECE_SQUARE[piece][to];
+    }
+
+    // ========== FEN ==========
+    public void setFen(String fen) {
+        Notation.parseFen(fen, this);
+    }
+
+    public String toFen() {
+        return Notation.appendFen(this, new StringBuilder(90)).toString();
+    }
+
+    // ========== PACKED FORM ==========
+    /** Longs used by {@link #pack}: the twelve piece bitboards plus one state word. */
+    public static final int PACKED_LONGS = 13;
+
+    /**
+     * Writes the position as piece bitboards followed by a state word
+     * (side | castling << 1 | ep+1 << 5 | halfmove << 12 | fullmove << 28),
+     * for storing many positions in one primitive array. History is not kept.
+     */
+    public void pack(long[] into, int offset) {
+        System.arraycopy(pieces, 0, into, offset, 12);
+        into[offset + 12] = side | (long) castling << 1 | (long) (epSquare + 1) << 5
+                | (long) (halfmoveClock & 0xFFFF) << 12 | (long) (fullmoveNumber & 0xFFFF) << 28;
+    }
+
+    /** Inverse of {@link #pack}; clears the move history. */
+    public void unpack(long[] from, int offset) {
+        clear();
+        for (int piece = 0; piece < 12; piece++) {
+            long bb = from[offset + piece];
+            while (bb != 0) {
+                addPiece(Long.numberOfTrailingZeros(bb), piece);
+                bb &= bb - 1;
+            }
+        }
+        long state = from[offset + 12];
+        side = (int) (state & 1);
+        castling = (int) (state >>> 1) & 15;
+        epSquare = (int) (state >>> 5 & 127) - 1;
+        halfmoveClock = (int) (state >>> 12) & 0xFFFF;
+        fullmoveNumber = (int) (state >>> 28) & 0xFFFF;
+        key = Zobrist.compute(this);
+    }
+
+    /** Empties the board and resets all state, ready for setup. */
+    void clear() {
+        java.util.Arrays.fill(pieces, 0L);
+        java.util.Arrays.fill(colours, 0L);
+        java.util.Arrays.fill(squares, Piece.EMPTY);
+        occupied = 0L;
+        side = Piece.WHITE;
+        castling = 0;
+        epSquare = Square.NONE;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        key = 0L;
+        ply = 0;
+    }
+
+    @Override
+    public String toString() {
+        return toFen();
+    }
+}
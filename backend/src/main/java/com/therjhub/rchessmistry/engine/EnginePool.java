@@ -0,0 +1,81 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded set of engine threads shared by all bot searches. Every search
+ * needs one permit for its main thread and waits for it in arrival order;
+ * helper threads are only handed out while more than {@code reserved}
+ * permits are free, so a deep search can never take the capacity that
+ * single-threaded searches rely on.
+ */
+public final class EnginePool implements AutoCloseable {
+
+    private final int threads;
+    private final int reserved;
+    private final Semaphore permits;
+    private final ExecutorService helpers;
+
+    public EnginePool(int threads, int reserved) {
+        this.threads = Math.max(1, threads);
+        this.reserved = Math.max(0, Math.min(reserved, this.threads - 1));
+        this.permits = new Semaphore(this.threads, true);
+        AtomicInteger counter = new AtomicInteger();
+        this.helpers = Executors.newFixedThreadPool(this.threads, runnable -> {
+            Thread thread = new Thread(runnable, "engine-helper-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getThreads() { return threads; }
+    public int getAvailable() { return permits.availablePermits(); }
+    public int getQueueLength() { return permits.getQueueLength(); }
+
+    ExecutorService helpers() { return helpers; }
+
+    /**
+     * Reserves one thread, waiting up to {@code timeoutMillis}, plus up to
+     * {@code wanted - 1} helpers that are free right now.
+     * Returns {@code null} if no thread became free in time.
+     */
+    public Lease acquire(int wanted, long timeoutMillis) throws InterruptedException {
+        if (!permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) return null;
+        int granted = 1;
+        while (granted < wanted && permits.availablePermits() > reserved && permits.tryAcquire()) {
+            granted++;
+        }
+        return new Lease(granted);
+    }
+
+    @Override
+    public void close() {
+        helpers.shutdownNow();
+    }
+
+    /** Threads granted to one search; release with {@link #close()}. */
+    public final class Lease implements AutoCloseable {
+
+        private final int granted;
+        private boolean released;
+
+        private Lease(int granted) {
+            this.granted = granted;
+        }
+
+        public int getThreads() { return granted; }
+        public EnginePool getPool() { return EnginePool.this; }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                permits.release(granted);
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Static evaluation: material plus piece-square tables, with the king table
+ * tapered between middlegame and endgame by remaining non-pawn material.
+ * Scores are in centipawns from the side to move's point of view.
+ */
+public final class Evaluator {
+
+    public static final int[] PIECE_VALUE = { 100, 320, 330, 500, 900, 0 };
+
+    /** Base score of a bitbase win; well clear of any material balance, well below mate scores. */
+    public static final int KNOWN_WIN = 10_000;
+
+    private static final int BISHOP_PAIR = 30;
+    private static final int[] PHASE_WEIGHT = { 0, 1, 1, 2, 4, 0 };
+    private static final int MAX_PHASE = 24;
+
+    // Tables are laid out as seen from White, rank 8 first.
+    private static final int[] PAWN_TABLE = {
+             0,  0,  0,  0,  0,  0,  0,  0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+             5,  5, 10, 25, 25, 10,  5,  5,
+             0,  0,  0, 20, 20,  0,  0,  0,
+             5, -5,-10,  0,  0,-10, -5,  5,
+             5, 10, 10,-20,-20, 10, 10,  5,
+             0,  0,  0,  0,  0,  0,  0,  0 };
+    private static final int[] KNIGHT_TABLE = {
+           -50,-40,-30,-30,-30,-30,-40,-50,
+           -40,-20,  0,  0,  0,  0,-20,-40,
+           -30,  0, 10, 15, 15, 10,  0,-30,
+           -30,  5, 15, 20, 20, 15,  5,-30,
+           -30,  0, 15, 20, 20, 15,  0,-30,
+           -30,  5, 10, 15, 15, 10,  5,-30,
+           -40,-20,  0,  5,  5,  0,-20,-40,
+           -50,-40,-30,-30,-30,-30,-40,-50 };
+    private static final int[] BISHOP_TABLE = {
+           -20,-10,-10,-10,-10,-10,-10,-20,
+           -10,  0,  0,  0,  0,  0,  0,-10,
+           -10,  0,  5, 10, 10,  5,  0,-10,
+           -10,  5,  5, 10, 10,  5,  5,-10,
+           -10,  0, 10, 10, 10, 10,  0,-10,
+           -10, 10, 10, 10, 10, 10, 10,-10,
+           -10,  5,  0,  0,  0,  0,  5,-10,
+           -20,-10,-10,-10,-10,-10,-10,-20 };
+    private static final int[] ROOK_TABLE = {
+             0,  0,  0,  0,  0,  0,  0,  0,
+             5, 10, 10, 10, 10, 10, 10,  5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+             0,  0,  0,  5,  5,  0,  0,  0 };
+    private static final int[] QUEEN_TABLE = {
+           -20,-10,-10, -5, -5,-10,-10,-20,
+           -10,  0,  0,  0,  0,  0,  0,-10,
+           -10,  0,  5,  5,  5,  5,  0,-10,
+            -5,  0,  5,  5,  5,  5,  0, -5,
+             0,  0,  5,  5,  5,  5,  0, -5,
+           -10,  5,  5,  5,  5,  5,  0,-10,
+           -10,  0,  5,  0,  0,  0,  0,-10,
+           -20,-10,-10, -5, -5,-10,-10,-20 };
+    private static final int[] KING_MIDDLEGAME = {
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -20,-30,-30,-40,-40,-30,-30,-20,
+           -10,-20,-20,-20,-20,-20,-20,-10,
+            20, 20,  0,  0,  0,  0, 20, 20,
+            20, 30, 10,  0,  0, 10, 30, 20 };
+    private static final int[] KING_ENDGAME = {
+           -50,-40,-30,-20,-20,-30,-40,-50,
+           -30,-20,-10,  0,  0,-10,-20,-30,
+           -30,-10, 20, 30, 30, 20,-10,-30,
+           -30,-10, 30, 40, 40, 30,-10,-30,
+           -30,-10, 30, 40, 40, 30,-10,-30,
+           -30,-10, 20, 30, 30, 20,-10,-30,
+           -30,-30,  0,  0,  0,  0,-30,-30,
+           -50,-30,-30,-30,-30,-30,-30,-50 };
+
+    private static final int[][] TABLES = { PAWN_TABLE, KNIGHT_TABLE, BISHOP_TABLE, ROOK_TABLE, QUEEN_TABLE };
+
+    private Evaluator() {}
+
+    public static int evaluate(Board board) {
+        int score = 0;
+        int phase = 0;
+        for (int piece = 0; piece < 12; piece++) {
+            int type = Piece.type(piece);
+            int colour = Piece.colour(piece);
+            int sign = colour == Piece.WHITE ? 1 : -1;
+            long bb = board.pieces[piece];
+            if (type == Piece.KING) continue;
+            phase += PHASE_WEIGHT[type] * Long.bitCount(bb);
+            int[] table = TABLES[type];
+            while (bb != 0) {
+                int sq = Long.numberOfTrailingZeros(bb);
+                bb &= bb - 1;
+                score += sign * (PIECE_VALUE[type] + table[colour == Piece.WHITE ? sq ^ 56 : sq]);
+            }
+        }
+        if (Long.bitCount(board.pieces[Piece.of(Piece.WHITE, Piece.BISHOP)]) >= 2) score += BISHOP_PAIR;
+        if (Long.bitCount(board.pieces[Piece.of(Piece.BLACK, Piece.BISHOP)]) >= 2) score -= BISHOP_PAIR;
+
+        phase = Math.min(phase, MAX_PHASE);
+        int whiteKing = board.kingSquare(Piece.WHITE) ^ 56;
+        int blackKing = board.kingSquare(Piece.BLACK);
+        int kingMg = KING_MIDDLEGAME[whiteKing] - KING_MIDDLEGAME[blackKing];
+        int kingEg = KING_ENDGAME[whiteKing] - KING_ENDGAME[blackKing];
+        score += (kingMg * phase + kingEg * (MAX_PHASE - phase)) / MAX_PHASE;
+
+        return board.side == Piece.WHITE ? score : -score;
+    }
+
+    /**
+     * Score of a position a bitbase says {@code strong} wins, from its point of
+     * view. Rewards pushing the pawn, or driving the lone king to the edge and
+     * bringing the kings together, so the search keeps making progress.
+     */
+    public static int evaluateKnownWin(Board board, int strong) {
+        long material = board.colour(strong) & ~board.pieces[Piece.of(strong, Piece.KING)];
+        int sq = Long.numberOfTrailingZeros(material);
+        int type = Piece.type(board.squares[sq]);
+        int score = KNOWN_WIN + PIECE_VALUE[type];
+        if (type == Piece.PAWN) {
+            return score + 20 * (strong == Piece.WHITE ? Square.rank(sq) : 7 - Square.rank(sq));
+        }
+        int weakKing = board.kingSquare(strong ^ 1);
+        int strongKing = board.kingSquare(strong);
+        int edge = Math.max(3 - Square.file(weakKing), Square.file(weakKing) - 4)
+                + Math.max(3 - Square.rank(weakKing), Square.rank(weakKing) - 4);
+        int kingDistance = Math.max(Math.abs(Square.file(weakKing) - Square.file(strongKing)),
+                Math.abs(Square.rank(weakKing) - Square.rank(strongKing)));
+        return score + 20 * edge + 10 * (7 - kingDistance);
+    }
+
+    /** True when neither side can possibly deliver mate (bare kings, or a single minor piece). */
+    public static boolean isInsufficientMaterial(Board board) {
+        long heavy = board.pieces[Piece.of(Piece.WHITE, Piece.PAWN)] | board.pieces[Piece.of(Piece.BLACK, Piece.PAWN)]
+                | board.pieces[Piece.of(Piece.WHITE, Piece.ROOK)] | board.pieces[Piece.of(Piece.BLACK, Piece.ROOK)]
+                | board.pieces[Piece.of(Piece.WHITE, Piece.QUEEN)] | board.pieces[Piece.of(Piece.BLACK, Piece.QUEEN)];
+        if (heavy != 0) return false;
+        return Long.bitCount(board.occupied) <= 3;
+    }
+}
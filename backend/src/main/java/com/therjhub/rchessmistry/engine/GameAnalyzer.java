@@ -0,0 +1,107 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.List;
+
+/**
+ * Replays a game through the engine and scores every move by how much
+ * evaluation it gave away compared with the engine's best move.
+ *
+ * <p>Each position is searched once. The loss of the move played from position
+ * {@code i} is {@code score(i) + score(i + 1)}, because both scores are from
+ * the side to move's point of view. Scores are clamped to ±{@link #SCORE_CAP}
+ * so a missed mate costs as much as a lost queen rather than thousands of
+ * points. Accuracy uses the usual win-probability curve.
+ * One instance owns a single {@link Search}, reused for every position of
+ * every game, and is not thread-safe.
+ */
+public final class GameAnalyzer {
+
+    public static final int SCORE_CAP = 1_000;
+    public static final int BLUNDER_LOSS = 300;
+
+    /** Per-ply losses plus the totals for the side(s) being rated. */
+    public static final class Result {
+        private final int[] losses;
+        private final int blunders;
+        private final double accuracy;
+
+        Result(int[] losses, int blunders, double accuracy) {
+            this.losses = losses;
+            this.blunders = blunders;
+            this.accuracy = accuracy;
+        }
+
+        /** Centipawns lost by each ply, both sides. */
+        public int[] getLosses() { return losses; }
+        public int getBlunders() { return blunders; }
+        /** 0-100, averaged over the rated side's moves. */
+        public double getAccuracy() { return accuracy; }
+    }
+
+    private final TranspositionTable tt;
+    private final SearchLimits limits;
+    private final Search search;
+
+    public GameAnalyzer(TranspositionTable tt, SearchLimits limits) {
+        this.tt = tt;
+        this.limits = limits;
+        this.search = new Search(new Board(), tt);
+    }
+
+    /**
+     * Analyses {@code moves} (SAN) from {@code startFen}. Only moves by the
+     * colours flagged in {@code rateWhite}/{@code rateBlack} count towards
+     * blunders and accuracy. Throws IllegalArgumentException on an illegal move.
+     */
+    public Result analyze(String startFen, List<String> moves, boolean rateWhite, boolean rateBlack) {
+        Board parser = Board.fromFen(startFen);
+        int[] played = new int[moves.size()];
+        for (int i = 0; i < played.length; i++) {
+            played[i] = San.parse(parser, moves.get(i));
+            parser.makeMove(played[i]);
+        }
+        return analyze(startFen, played, rateWhite, rateBlack);
+    }
+
+    /** As above for already-decoded moves, e.g. from {@link GameCodec}. */
+    public Result analyze(String startFen, int[] played, boolean rateWhite, boolean rateBlack) {
+        // The search leaves its board as it found it, so the game is played forward on it
+        Board board = search.getBoard();
+        board.setFen(startFen);
+        tt.newSearch();
+        int[] scores = new int[played.length + 1];
+        for (int i = 0; i <= played.length; i++) {
+            scores[i] = clamp(search.search(limits).getScore());
+            if (i < played.length) board.makeMove(played[i]);
+        }
+
+        Board replay = Board.fromFen(startFen);
+        int[] losses = new int[played.length];
+        int blunders = 0, rated = 0;
+        double accuracySum = 0;
+        for (int i = 0; i < played.length; i++) {
+            int mover = replay.sideToMove();
+            replay.makeMove(played[i]);
+            losses[i] = Math.max(0, scores[i] + scores[i + 1]);
+            if (mover == Piece.WHITE ? !rateWhite : !rateBlack) continue;
+            rated++;
+            if (losses[i] >= BLUNDER_LOSS) blunders++;
+            accuracySum += moveAccuracy(scores[i], -scores[i + 1]);
+        }
+        double accuracy = rated == 0 ? 0.0 : Math.round(accuracySum / rated * 10) / 10.0;
+        return new Result(losses, blunders, accuracy);
+    }
+
+    private static int clamp(int score) {
+        return Math.max(-SCORE_CAP, Math.min(SCORE_CAP, score));
+    }
+
+    private static double winPercent(int centipawns) {
+        return 50 + 50 * (2 / (1 + Math.exp(-0.00368208 * centipawns)) - 1);
+    }
+
+    private static double moveAccuracy(int before, int after) {
+        double drop = Math.max(0, winPercent(before) - winPercent(after));
+        return Math.max(0, Math.min(100, 103.1668 * Math.exp(-0.04354 * drop) - 3.1669));
+    }
+}
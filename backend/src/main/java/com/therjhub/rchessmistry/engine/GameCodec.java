@@ -0,0 +1,180 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compact binary form of a game: two bytes per move (the 16-bit move
+ * encoding) after an optional start FEN, deflated when that makes it smaller.
+ * PGN text is only rebuilt on demand with {@link #toPgn}.
+ *
+ * <p>Layout: header byte (version << 4 | {@link #HAS_FEN} | {@link #DEFLATED}),
+ * then the body, deflated if flagged: [FEN length (2) + UTF-8 FEN] followed by
+ * big-endian 16-bit moves.
+ */
+public final class GameCodec {
+
+    static final int VERSION = 1;
+    static final int HAS_FEN = 1;
+    static final int DEFLATED = 2;
+
+    // Below this a deflate header costs more than it saves
+    private static final int DEFLATE_THRESHOLD = 64;
+    private static final int PGN_LINE_LENGTH = 80;
+
+    /** A decoded game: its start position and moves. */
+    public static final class Decoded {
+        private final String startFen;
+        private final int[] moves;
+
+        Decoded(String startFen, int[] moves) {
+            this.startFen = startFen;
+            this.moves = moves;
+        }
+
+        public String getStartFen() { return startFen; }
+        public int[] getMoves() { return moves; }
+    }
+
+    private GameCodec() {}
+
+    /** Encodes a parsed PGN game; throws IllegalArgumentException on an illegal move. */
+    public static byte[] encode(Pgn.Game game) {
+        String startFen = game.getStartFen();
+        Board board = Board.fromFen(startFen);
+        int[] scratch = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[game.getMoves().size()];
+        for (int i = 0; i < moves.length; i++) {
+            String san = game.getMoves().get(i);
+            moves[i] = Notation.parseSan(board, san, 0, san.length(), scratch);
+            if (moves[i] <= Move.NONE) throw new IllegalArgumentException("Illegal move in PGN: " + san);
+            board.makeMove(moves[i]);
+        }
+        return encode(startFen, moves, moves.length);
+    }
+
+    public static byte[] encode(String startFen, int[] moves, int count) {
+        boolean hasFen = startFen != null && !startFen.equals(Board.START_FEN);
+        byte[] fen = hasFen ? startFen.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        ByteBuffer body = ByteBuffer.allocate((hasFen ? 2 + fen.length : 0) + 2 * count);
+        if (hasFen) body.putShort((short) fen.length).put(fen);
+        for (int i = 0; i < count; i++) body.putShort((short) moves[i]);
+
+        int header = VERSION << 4 | (hasFen ? HAS_FEN : 0);
+        byte[] raw = body.array();
+        if (raw.length >= DEFLATE_THRESHOLD) {
+            byte[] deflated = deflate(raw);
+            if (deflated.length < raw.length) return withHeader(header | DEFLATED, deflated);
+        }
+        return withHeader(header, raw);
+    }
+
+    public static Decoded decode(byte[] data) {
+        if (data == null || data.length == 0 || (data[0] & 0xFF) >>> 4 != VERSION) {
+            throw new IllegalArgumentException("Unsupported game encoding");
+        }
+        int header = data[0];
+        byte[] raw = (header & DEFLATED) != 0 ? inflate(data) : Arrays.copyOfRange(data, 1, data.length);
+        ByteBuffer body = ByteBuffer.wrap(raw);
+        String startFen = Board.START_FEN;
+        if ((header & HAS_FEN) != 0) {
+            byte[] fen = new byte[body.getShort() & 0xFFFF];
+            body.get(fen);
+            startFen = new String(fen, StandardCharsets.UTF_8);
+        }
+        int[] moves = new int[body.remaining() / 2];
+        for (int i = 0; i < moves.length; i++) moves[i] = body.getShort() & 0xFFFF;
+        return new Decoded(startFen, moves);
+    }
+
+    /**
+     * Rebuilds PGN text with the given tag pairs (a {@code Result} tag also
+     * ends the movetext). Moves are checked for legality as they are replayed.
+     */
+    public static String toPgn(byte[] data, Map<String, String> tags) {
+        Decoded game = decode(data);
+        StringBuilder out = new StringBuilder(64 + 8 * game.moves.length);
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            out.append('[').append(tag.getKey()).append(" \"")
+                    .append(tag.getValue().replace("\\", "\\\\").replace("\"", "\\\"")).append("\"]\n");
+        }
+        if (!game.startFen.equals(Board.START_FEN)) {
+            out.append("[SetUp \"1\"]\n[FEN \"").append(game.startFen).append("\"]\n");
+        }
+        out.append('\n');
+
+        Board board = Board.fromFen(game.startFen);
+        int[] scratch = new int[MoveGenerator.MAX_MOVES];
+        int lineStart = out.length();
+        for (int i = 0; i < game.moves.length; i++) {
+            int move = game.moves[i];
+            if (!isLegal(board, move, scratch)) throw new IllegalArgumentException("Corrupt game encoding at ply " + i);
+            int tokenStart = out.length();
+            if (board.sideToMove() == Piece.WHITE) out.append(board.fullmoveNumber()).append(". ");
+            else if (i == 0) out.append(board.fullmoveNumber()).append("... ");
+            Notation.appendSan(board, move, out, scratch).append(' ');
+            if (out.length() - lineStart > PGN_LINE_LENGTH && tokenStart > lineStart) {
+                out.setCharAt(tokenStart - 1, '\n');
+                lineStart = tokenStart;
+            }
+            board.makeMove(move);
+        }
+        return out.append(tags.getOrDefault("Result", "*")).append('\n').toString();
+    }
+
+    private static boolean isLegal(Board board, int move, int[] scratch) {
+        int count = MoveGenerator.generate(board, scratch);
+        for (int i = 0; i < count; i++) {
+            if (scratch[i] == move) return MoveGenerator.isLegal(board, move);
+        }
+        return false;
+    }
+
+    private static byte[] withHeader(int header, byte[] body) {
+        byte[] data = new byte[body.length + 1];
+        data[0] = (byte) header;
+        System.arraycopy(body, 0, data, 1, body.length);
+        return data;
+    }
+
+    private static byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length);
+            byte[] buffer = new byte[512];
+            while (!deflater.finished()) out.write(buffer, 0, deflater.deflate(buffer));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 2);
+            byte[] buffer = new byte[512];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Truncated game encoding");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt game encoding", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
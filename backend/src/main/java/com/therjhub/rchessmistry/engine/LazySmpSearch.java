@@ -0,0 +1,62 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Lazy SMP: helper threads search the same root on their own board copies
+ * and only cooperate through the shared transposition table. The calling
+ * thread runs the main search and its result is the one returned; helpers
+ * are stopped as soon as it finishes.
+ */
+public final class LazySmpSearch {
+
+    private LazySmpSearch() {}
+
+    /** Budgets apply to the main thread; helpers run until it stops them. */
+    public static SearchResult search(Board root, TranspositionTable tt, Bitbases bitbases,
+                                      SearchLimits limits, EnginePool.Lease lease) {
+        int threads = lease.getThreads();
+        AtomicBoolean stop = new AtomicBoolean();
+        tt.newSearch();
+
+        List<Search> helperSearches = new ArrayList<>(threads - 1);
+        List<Future<?>> futures = new ArrayList<>(threads - 1);
+        for (int i = 1; i < threads; i++) {
+            Search helper = new Search(new Board(root), tt);
+            helper.setStop(stop);
+            helper.setDepthOffset(i & 1);
+            helper.setBitbases(bitbases);
+            helperSearches.add(helper);
+            futures.add(lease.getPool().helpers().submit(() -> helper.search(limits.getDepth())));
+        }
+
+        Search main = new Search(new Board(root), tt);
+        main.setStop(stop);
+        main.setBitbases(bitbases);
+        SearchResult result;
+        try {
+            result = main.search(limits);
+        } finally {
+            stop.set(true);
+        }
+
+        long nodes = result.getNodes();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                futures.get(i).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // A failed helper only costs us its share of the work
+            }
+            nodes += helperSearches.get(i).getNodes();
+        }
+
+        return new SearchResult(result.getBestMove(), result.getScore(), result.getDepth(), nodes,
+                result.getElapsedMillis(), result.getPrincipalVariation(), threads);
+    }
+}
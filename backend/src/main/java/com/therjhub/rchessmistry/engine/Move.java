@@ -0,0 +1,48 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Moves are packed into 16 bits: from (6) | to (6) | flags (4).
+ * The flag layout follows the usual from-to-flags scheme, so a move can be
+ * stored or sent anywhere an {@code int} or {@code short} fits.
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int KING_CASTLE = 2;
+    public static final int QUEEN_CASTLE = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+    public static final int PROMOTION_CAPTURE = 12;
+
+    private Move() {}
+
+    public static int of(int from, int to, int flags) { return from | (to << 6) | (flags << 12); }
+
+    public static int from(int move) { return move & 63; }
+    public static int to(int move) { return (move >>> 6) & 63; }
+    public static int flags(int move) { return (move >>> 12) & 15; }
+
+    public static boolean isCapture(int move) { return (flags(move) & CAPTURE) != 0; }
+    public static boolean isPromotion(int move) { return (flags(move) & PROMOTION) != 0; }
+    public static boolean isCastle(int move) { int f = flags(move); return f == KING_CASTLE || f == QUEEN_CASTLE; }
+
+    /** Promotion piece type ({@link Piece#KNIGHT} .. {@link Piece#QUEEN}); only meaningful for promotions. */
+    public static int promotionType(int move) { return (flags(move) & 3) + Piece.KNIGHT; }
+
+    public static String toUci(int move) {
+        return Notation.appendUci(move, new StringBuilder(5)).toString();
+    }
+
+    /**
+     * Resolves a UCI string (e.g. {@code e2e4}, {@code e7e8q}) against the legal moves of a position.
+     * Returns {@link #NONE} when the move is not legal there.
+     */
+    public static int fromUci(Board board, String uci) {
+        if (uci == null) return NONE;
+        return Notation.parseUci(board, uci, 0, uci.length(), new int[MoveGenerator.MAX_MOVES]);
+    }
+}
@@ -0,0 +1,193 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Pseudo-legal move generation into caller-supplied buffers. Legality is
+ * checked by playing the move and testing whether our king is attacked.
+ */
+public final class MoveGenerator {
+
+    /** Upper bound on moves in any legal position (218) with some headroom. */
+    public static final int MAX_MOVES = 256;
+
+    private static final long RANK_1 = 0xFFL;
+    private static final long RANK_8 = 0xFFL << 56;
+
+    private MoveGenerator() {}
+
+    /** All pseudo-legal moves. Returns the number of moves written to {@code moves}. */
+    public static int generate(Board board, int[] moves) {
+        return generate(board, moves, false);
+    }
+
+    /** Captures and promotions only, for quiescence search. */
+    public static int generateNoisy(Board board, int[] moves) {
+        return generate(board, moves, true);
+    }
+
+    /** All legal moves. Returns the number of moves written to {@code moves}. */
+    public static int legalMoves(Board board, int[] moves) {
+        int count = generate(board, moves, false);
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            if (isLegal(board, moves[i])) moves[legal++] = moves[i];
+        }
+        return legal;
+    }
+
+    /** Plays the move and reports whether it leaves the mover's king safe. */
+    public static boolean isLegal(Board board, int move) {
+        int us = board.side;
+        board.makeMove(move);
+        boolean legal = !board.isAttacked(board.kingSquare(us), us ^ 1);
+        board.unmakeMove(move);
+        return legal;
+    }
+
+    public static boolean hasLegalMove(Board board) {
+        return hasLegalMove(board, new int[MAX_MOVES]);
+    }
+
+    /** Allocation-free variant; {@code moves} is scratch space of {@link #MAX_MOVES}. */
+    public static boolean hasLegalMove(Board board, int[] moves) {
+        int count = generate(board, moves, false);
+        for (int i = 0; i < count; i++) {
+            if (isLegal(board, moves[i])) return true;
+        }
+        return false;
+    }
+
+    private static int generate(Board board, int[] moves, boolean noisyOnly) {
+        int us = board.side, them = us ^ 1;
+        long own = board.colours[us];
+        long enemies = board.colours[them];
+        long occupied = board.occupied;
+        long targets = noisyOnly ? enemies : ~own;
+        int n = 0;
+
+        n = pawnMoves(board, moves, n, us, enemies, occupied, noisyOnly);
+
+        long knights = board.pieces[Piece.of(us, Piece.KNIGHT)];
+        while (knights != 0) {
+            int from = Long.numberOfTrailingZeros(knights);
+            knights &= knights - 1;
+            n = addMoves(moves, n, from, Attacks.KNIGHT[from] & targets, enemies);
+        }
+        long bishops = board.pieces[Piece.of(us, Piece.BISHOP)];
+        while (bishops != 0) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            bishops &= bishops - 1;
+            n = addMoves(moves, n, from, Attacks.bishop(from, occupied) & targets, enemies);
+        }
+        long rooks = board.pieces[Piece.of(us, Piece.ROOK)];
+        while (rooks != 0) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            rooks &= rooks - 1;
+            n = addMoves(moves, n, from, Attacks.rook(from, occupied) & targets, enemies);
+        }
+        long queens = board.pieces[Piece.of(us, Piece.QUEEN)];
+        while (queens != 0) {
+            int from = Long.numberOfTrailingZeros(queens);
+            queens &= queens - 1;
+            n = addMoves(moves, n, from, Attacks.queen(from, occupied) & targets, enemies);
+        }
+        int king = board.kingSquare(us);
+        n = addMoves(moves, n, king, Attacks.KING[king] & targets, enemies);
+
+        if (!noisyOnly && board.castling != 0) {
+            n = castlingMoves(board, moves, n, us, king);
+        }
+        return n;
+    }
+
+    private static int addMoves(int[] moves, int n, int from, long targets, long enemies) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            moves[n++] = Move.of(from, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : Move.QUIET);
+        }
+        return n;
+    }
+
+    private static int pawnMoves(Board board, int[] moves, int n, int us, long enemies, long occupied, boolean noisyOnly) {
+        long pawns = board.pieces[Piece.of(us, Piece.PAWN)];
+        long empty = ~occupied;
+        int forward = us == Piece.WHITE ? 8 : -8;
+        long promotionRank = us == Piece.WHITE ? RANK_8 : RANK_1;
+        long doubleRank = us == Piece.WHITE ? 0xFFL << 16 : 0xFFL << 40;
+
+        long single = (us == Piece.WHITE ? pawns << 8 : pawns >>> 8) & empty;
+        long promotions = single & promotionRank;
+        while (promotions != 0) {
+            int to = Long.numberOfTrailingZeros(promotions);
+            promotions &= promotions - 1;
+            n = addPromotions(moves, n, to - forward, to, Move.PROMOTION, noisyOnly);
+        }
+        if (!noisyOnly) {
+            long pushes = single & ~promotionRank;
+            long doubles = (us == Piece.WHITE ? (single & doubleRank) << 8 : (single & doubleRank) >>> 8) & empty;
+            while (pushes != 0) {
+                int to = Long.numberOfTrailingZeros(pushes);
+                pushes &= pushes - 1;
+                moves[n++] = Move.of(to - forward, to, Move.QUIET);
+            }
+            while (doubles != 0) {
+                int to = Long.numberOfTrailingZeros(doubles);
+                doubles &= doubles - 1;
+                moves[n++] = Move.of(to - 2 * forward, to, Move.DOUBLE_PUSH);
+            }
+        }
+
+        while (pawns != 0) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            pawns &= pawns - 1;
+            long attacks = Attacks.PAWN[us][from];
+            long captures = attacks & enemies;
+            while (captures != 0) {
+                int to = Long.numberOfTrailingZeros(captures);
+                captures &= captures - 1;
+                if (((1L << to) & promotionRank) != 0) {
+                    n = addPromotions(moves, n, from, to, Move.PROMOTION_CAPTURE, false);
+                } else {
+                    moves[n++] = Move.of(from, to, Move.CAPTURE);
+                }
+            }
+            if (board.epSquare != Square.NONE && (attacks & (1L << board.epSquare)) != 0) {
+                moves[n++] = Move.of(from, board.epSquare, Move.EN_PASSANT);
+            }
+        }
+        return n;
+    }
+
+    private static int addPromotions(int[] moves, int n, int from, int to, int baseFlags, boolean queenOnly) {
+        moves[n++] = Move.of(from, to, baseFlags | 3);
+        if (!queenOnly) {
+            moves[n++] = Move.of(from, to, baseFlags);
+            moves[n++] = Move.of(from, to, baseFlags | 1);
+            moves[n++] = Move.of(from, to, baseFlags | 2);
+        }
+        return n;
+    }
+
+    private static int castlingMoves(Board board, int[] moves, int n, int us, int king) {
+        int them = us ^ 1;
+        int rights = board.castling;
+        long occupied = board.occupied;
+        int rook = Piece.of(us, Piece.ROOK);
+        int kingSide = us == Piece.WHITE ? Board.WHITE_KINGSIDE : Board.BLACK_KINGSIDE;
+        int queenSide = us == Piece.WHITE ? Board.WHITE_QUEENSIDE : Board.BLACK_QUEENSIDE;
+        int home = us == Piece.WHITE ? 4 : 60;
+        if (king != home || board.isAttacked(home, them)) return n;
+
+        if ((rights & kingSide) != 0 && board.squares[home + 3] == rook
+                && (occupied & ((1L << (home + 1)) | (1L << (home + 2)))) == 0
+                && !board.isAttacked(home + 1, them) && !board.isAttacked(home + 2, them)) {
+            moves[n++] = Move.of(home, home + 2, Move.KING_CASTLE);
+        }
+        if ((rights & queenSide) != 0 && board.squares[home - 4] == rook
+                && (occupied & ((1L << (home - 1)) | (1L << (home - 2)) | (1L << (home - 3)))) == 0
+                && !board.isAttacked(home - 1, them) && !board.isAttacked(home - 2, them)) {
+            moves[n++] = Move.of(home, home - 2, Move.QUEEN_CASTLE);
+        }
+        return n;
+    }
+}
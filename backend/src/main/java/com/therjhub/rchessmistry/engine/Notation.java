@@ -0,0 +1,343 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Allocation-free text codec between FEN, SAN and UCI and the engine's
+ * packed forms: a {@link Board} (bitboards plus state) and 16-bit moves.
+ *
+ * <p>Parsers read straight from a {@link CharSequence} range, so callers can
+ * walk a PGN or a solution line without cutting substrings. Formatters append
+ * to a caller-owned {@link StringBuilder}, and move lookups use a caller-owned
+ * scratch list of {@link MoveGenerator#MAX_MOVES} ints. Only the error paths
+ * allocate. The convenience methods on {@link Board}, {@link San} and
+ * {@link Move} delegate here.
+ */
+public final class Notation {
+
+    /** {@link #parseSan} result for text that is not SAN at all. */
+    public static final int MALFORMED = -1;
+    /** {@link #parseSan} result when several legal moves match. */
+    public static final int AMBIGUOUS = -2;
+
+    private static final String SAN_PIECES = " NBRQK";
+    private static final String UCI_PROMOTIONS = "nbrq";
+    private static final String FEN_PIECES = "PNBRQKpnbrqk";
+
+    private Notation() {}
+
+    // ========== FEN ==========
+
+    /** Replaces the position on {@code board}; throws IllegalArgumentException on bad input. */
+    public static void parseFen(CharSequence fen, Board board) {
+        int length = fen == null ? 0 : fen.length();
+        int i = skipSpaces(fen, 0, length);
+        if (i == length) throw new IllegalArgumentException("FEN is required");
+        board.clear();
+
+        int rank = 7, file = 0;
+        for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+            char c = fen.charAt(i);
+            if (c == '/') {
+                if (file != 8 || rank == 0) throw invalidFen(fen);
+                rank--;
+                file = 0;
+            } else if (c >= '1' && c <= '8') {
+                file += c - '0';
+                if (file > 8) throw invalidFen(fen);
+            } else {
+                int piece = FEN_PIECES.indexOf(c);
+                if (piece < 0 || file > 7) throw invalidFen(fen);
+                board.addPiece(Square.of(file++, rank), piece);
+            }
+        }
+        if (rank != 0 || file != 8) throw invalidFen(fen);
+        if (Long.bitCount(board.pieces[Piece.of(Piece.WHITE, Piece.KING)]) != 1
+                || Long.bitCount(board.pieces[Piece.of(Piece.BLACK, Piece.KING)]) != 1) {
+            throw new IllegalArgumentException("FEN must contain exactly one king per side");
+        }
+
+        i = skipSpaces(fen, i, length);
+        if (i == length || (i + 1 < length && !Character.isWhitespace(fen.charAt(i + 1)))) throw invalidFen(fen);
+        switch (fen.charAt(i++)) {
+            case 'w' -> board.side = Piece.WHITE;
+            case 'b' -> board.side = Piece.BLACK;
+            default -> throw new IllegalArgumentException("Invalid side to move in FEN: " + fen);
+        }
+
+        i = skipSpaces(fen, i, length);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else {
+            for (; i < length && !Character.isWhitespace(fen.charAt(i)); i++) {
+                switch (fen.charAt(i)) {
+                    case 'K' -> board.castling |= Board.WHITE_KINGSIDE;
+                    case 'Q' -> board.castling |= Board.WHITE_QUEENSIDE;
+                    case 'k' -> board.castling |= Board.BLACK_KINGSIDE;
+                    case 'q' -> board.castling |= Board.BLACK_QUEENSIDE;
+                    default -> throw new IllegalArgumentException("Invalid castling rights in FEN: " + fen);
+                }
+            }
+        }
+
+        i = skipSpaces(fen, i, length);
+        if (i < length && fen.charAt(i) == '-') {
+            i++;
+        } else if (i < length) {
+            board.epSquare = parseSquare(fen, i);
+            if (!isEnPassantTarget(board, board.epSquare)) {
+                throw new IllegalArgumentException("Invalid en passant square in FEN: " + fen);
+            }
+            i += 2;
+        }
+
+        i = skipSpaces(fen, i, length);
+        if (i < length) {
+            int end = tokenEnd(fen, i, length);
+            board.halfmoveClock = Math.min(parseNumber(fen, i, end), Board.MAX_HALFMOVE_CLOCK);
+            i = skipSpaces(fen, end, length);
+        }
+        if (i < length) {
+            int end = tokenEnd(fen, i, length);
+            board.fullmoveNumber = parseNumber(fen, i, end);
+        }
+
+        if (board.isAttacked(board.kingSquare(board.side ^ 1), board.side)) {
+            throw new IllegalArgumentException("Side not to move is in check");
+        }
+        board.key = Zobrist.compute(board);
+    }
+
+    public static StringBuilder appendFen(Board board, StringBuilder out) {
+        for (int rank = 7; rank >= 0; rank--) {
+            int empty = 0;
+            for (int file = 0; file < 8; file++) {
+                int piece = board.squares[Square.of(file, rank)];
+                if (piece == Piece.EMPTY) {
+                    empty++;
+                } else {
+                    if (empty > 0) { out.append((char) ('0' + empty)); empty = 0; }
+                    out.append(FEN_PIECES.charAt(piece));
+                }
+            }
+            if (empty > 0) out.append((char) ('0' + empty));
+            if (rank > 0) out.append('/');
+        }
+        out.append(board.side == Piece.WHITE ? " w " : " b ");
+        int castling = board.castling;
+        if (castling == 0) out.append('-');
+        if ((castling & Board.WHITE_KINGSIDE) != 0) out.append('K');
+        if ((castling & Board.WHITE_QUEENSIDE) != 0) out.append('Q');
+        if ((castling & Board.BLACK_KINGSIDE) != 0) out.append('k');
+        if ((castling & Board.BLACK_QUEENSIDE) != 0) out.append('q');
+        out.append(' ');
+        if (board.epSquare == Square.NONE) out.append('-');
+        else appendSquare(board.epSquare, out);
+        return out.append(' ').append(board.halfmoveClock).append(' ').append(board.fullmoveNumber);
+    }
+
+    // ========== UCI ==========
+
+    public static StringBuilder appendUci(int move, StringBuilder out) {
+        if (move == Move.NONE) return out.append("0000");
+        appendSquare(Move.from(move), out);
+        appendSquare(Move.to(move), out);
+        if (Move.isPromotion(move)) out.append(UCI_PROMOTIONS.charAt(Move.flags(move) & 3));
+        return out;
+    }
+
+    /** The legal move written as {@code text[start, end)} in UCI, or {@link Move#NONE}. */
+    public static int parseUci(Board board, CharSequence text, int start, int end, int[] scratch) {
+        int length = end - start;
+        if (length != 4 && length != 5) return Move.NONE;
+        int from = parseSquare(text, start);
+        int to = parseSquare(text, start + 2);
+        if (from == Square.NONE || to == Square.NONE) return Move.NONE;
+        int promotion = length == 5 ? UCI_PROMOTIONS.indexOf(text.charAt(start + 4)) : -1;
+        if (length == 5 && promotion < 0) return Move.NONE;
+
+        int count = MoveGenerator.generate(board, scratch);
+        for (int i = 0; i < count; i++) {
+            int move = scratch[i];
+            if (Move.from(move) != from || Move.to(move) != to) continue;
+            if (Move.isPromotion(move) ? (Move.flags(move) & 3) != promotion : promotion >= 0) continue;
+            return MoveGenerator.isLegal(board, move) ? move : Move.NONE;
+        }
+        return Move.NONE;
+    }
+
+    // ========== SAN ==========
+
+    /**
+     * The legal move written as {@code text[start, end)} in SAN (check marks and
+     * annotations are ignored), {@link Move#NONE} if no legal move matches,
+     * {@link #AMBIGUOUS} or {@link #MALFORMED}.
+     */
+    public static int parseSan(Board board, CharSequence text, int start, int end, int[] scratch) {
+        while (end > start && "+#!?".indexOf(text.charAt(end - 1)) >= 0) end--;
+        int length = end - start;
+
+        if (isCastle(text, start, length)) {
+            int flag = length == 3 ? Move.KING_CASTLE : Move.QUEEN_CASTLE;
+            int count = MoveGenerator.generate(board, scratch);
+            for (int i = 0; i < count; i++) {
+                if (Move.flags(scratch[i]) == flag) return MoveGenerator.isLegal(board, scratch[i]) ? scratch[i] : Move.NONE;
+            }
+            return Move.NONE;
+        }
+
+        int promotion = -1;
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == '=') {
+                if (i + 1 >= end) return MALFORMED;
+                promotion = SAN_PIECES.indexOf(text.charAt(i + 1));
+                if (promotion <= 0 || promotion == Piece.KING) return MALFORMED;
+                end = i;
+                break;
+            }
+        }
+        if (promotion < 0 && end - start > 2 && "NBRQ".indexOf(text.charAt(end - 1)) >= 0
+                && isDigit(text.charAt(end - 2))) {
+            promotion = SAN_PIECES.indexOf(text.charAt(end - 1));
+            end--;
+        }
+        if (end - start < 2) return MALFORMED;
+
+        int type = Piece.PAWN;
+        char first = text.charAt(start);
+        if (first >= 'A' && first <= 'Z') {
+            type = SAN_PIECES.indexOf(first);
+            if (type <= 0) return MALFORMED;
+            start++;
+        }
+        int to = parseSquare(text, end - 2);
+        if (to == Square.NONE) return MALFORMED;
+        int fromFile = -1, fromRank = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = text.charAt(i);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRank = c - '1';
+            else if (c != 'x' && c != '-' && c != ':') return MALFORMED;
+        }
+
+        int wantedPromotion = promotion < 0 ? Piece.QUEEN : promotion;
+        int match = Move.NONE;
+        int count = MoveGenerator.generate(board, scratch);
+        for (int i = 0; i < count; i++) {
+            int move = scratch[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Piece.type(board.squares[from]) != type) continue;
+            if (fromFile >= 0 && Square.file(from) != fromFile) continue;
+            if (fromRank >= 0 && Square.rank(from) != fromRank) continue;
+            if (Move.isPromotion(move) ? Move.promotionType(move) != wantedPromotion : promotion >= 0) continue;
+            if (!MoveGenerator.isLegal(board, move)) continue;
+            if (match != Move.NONE) return AMBIGUOUS;
+            match = move;
+        }
+        return match;
+    }
+
+    /** Appends a legal move in SAN, including check and mate suffixes. */
+    public static StringBuilder appendSan(Board board, int move, StringBuilder out, int[] scratch) {
+        int from = Move.from(move), to = Move.to(move);
+        int type = Piece.type(board.squares[from]);
+
+        if (Move.flags(move) == Move.KING_CASTLE) {
+            out.append("O-O");
+        } else if (Move.flags(move) == Move.QUEEN_CASTLE) {
+            out.append("O-O-O");
+        } else if (type == Piece.PAWN) {
+            if (Move.isCapture(move)) out.append((char) ('a' + Square.file(from))).append('x');
+            appendSquare(to, out);
+            if (Move.isPromotion(move)) out.append('=').append(SAN_PIECES.charAt(Move.promotionType(move)));
+        } else {
+            out.append(SAN_PIECES.charAt(type));
+            appendDisambiguation(board, move, type, out, scratch);
+            if (Move.isCapture(move)) out.append('x');
+            appendSquare(to, out);
+        }
+
+        board.makeMove(move);
+        if (board.inCheck()) out.append(MoveGenerator.hasLegalMove(board, scratch) ? '+' : '#');
+        board.unmakeMove(move);
+        return out;
+    }
+
+    private static void appendDisambiguation(Board board, int move, int type, StringBuilder out, int[] scratch) {
+        int from = Move.from(move), to = Move.to(move);
+        int count = MoveGenerator.generate(board, scratch);
+        boolean ambiguous = false, sameFile = false, sameRank = false;
+        for (int i = 0; i < count; i++) {
+            int other = Move.from(scratch[i]);
+            if (other == from || Move.to(scratch[i]) != to || Piece.type(board.squares[other]) != type) continue;
+            if (!MoveGenerator.isLegal(board, scratch[i])) continue;
+            ambiguous = true;
+            if (Square.file(other) == Square.file(from)) sameFile = true;
+            if (Square.rank(other) == Square.rank(from)) sameRank = true;
+        }
+        if (!ambiguous) return;
+        if (!sameFile) out.append((char) ('a' + Square.file(from)));
+        else if (!sameRank) out.append((char) ('1' + Square.rank(from)));
+        else appendSquare(from, out);
+    }
+
+    // ========== HELPERS ==========
+
+    private static boolean isCastle(CharSequence text, int start, int length) {
+        if (length != 3 && length != 5) return false;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(start + i);
+            if ((i & 1) == 0 ? c != 'O' && c != '0' : c != '-') return false;
+        }
+        return true;
+    }
+
+    private static void appendSquare(int sq, StringBuilder out) {
+        out.append((char) ('a' + Square.file(sq))).append((char) ('1' + Square.rank(sq)));
+    }
+
+    // The square a pawn of the side not to move just skipped: that pawn is in front of it, its start behind it is empty
+    private static boolean isEnPassantTarget(Board board, int sq) {
+        if (sq == Square.NONE) return false;
+        boolean whiteToMove = board.side == Piece.WHITE;
+        if (Square.rank(sq) != (whiteToMove ? 5 : 2)) return false;
+        int pawn = whiteToMove ? sq - 8 : sq + 8;
+        int start = whiteToMove ? sq + 8 : sq - 8;
+        return board.squares[pawn] == Piece.of(board.side ^ 1, Piece.PAWN)
+                && board.squares[sq] == Piece.EMPTY && board.squares[start] == Piece.EMPTY;
+    }
+
+    private static int parseSquare(CharSequence text, int at) {
+        if (at < 0 || at + 1 >= text.length()) return Square.NONE;
+        int file = text.charAt(at) - 'a';
+        int rank = text.charAt(at + 1) - '1';
+        return file < 0 || file > 7 || rank < 0 || rank > 7 ? Square.NONE : Square.of(file, rank);
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(CharSequence text, int i, int length) {
+        while (i < length && Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private static int tokenEnd(CharSequence text, int i, int length) {
+        while (i < length && !Character.isWhitespace(text.charAt(i))) i++;
+        return i;
+    }
+
+    private static int parseNumber(CharSequence text, int start, int end) {
+        if (start == end || end - start > 9) throw new IllegalArgumentException("Invalid move counter in FEN: " + text);
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) throw new IllegalArgumentException("Invalid move counter in FEN: " + text);
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static IllegalArgumentException invalidFen(CharSequence fen) {
+        return new IllegalArgumentException("Invalid FEN: " + fen);
+    }
+}
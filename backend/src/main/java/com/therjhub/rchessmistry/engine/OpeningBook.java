@@ -0,0 +1,133 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.random.RandomGenerator;
+
+/**
+ * Read-only opening book memory-mapped from a file written by
+ * {@link OpeningBookBuilder}. Lookups are a binary search over the mapped
+ * entries, so opening the book costs nothing and its data never lives on the heap.
+ *
+ * <p>File layout (big-endian): magic {@code RCMBOOK1} (8 bytes), version (4),
+ * entry count (4), then 16-byte entries sorted by unsigned Zobrist key:
+ * key (8) | move (2) | weight (2) | reserved (4).
+ */
+public final class OpeningBook {
+
+    static final byte[] MAGIC = "RCMBOOK1".getBytes(StandardCharsets.US_ASCII);
+    // 2: the en-passant file is only keyed when a capture is possible
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    static final int ENTRY_BYTES = 16;
+
+    private static final OpeningBook EMPTY = new OpeningBook(ByteBuffer.allocate(0), 0);
+
+    // Every bot request probes the book, so each thread reuses its own move lists
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private static final class Scratch {
+        final int[] legal = new int[MoveGenerator.MAX_MOVES];
+        final int[] moves = new int[MoveGenerator.MAX_MOVES];
+        final int[] weights = new int[MoveGenerator.MAX_MOVES];
+    }
+
+    private final ByteBuffer entries;
+    private final int count;
+
+    private OpeningBook(ByteBuffer entries, int count) {
+        this.entries = entries;
+        this.count = count;
+    }
+
+    public static OpeningBook empty() {
+        return EMPTY;
+    }
+
+    public static OpeningBook open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IOException("Not an opening book: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            for (int i = 0; i < MAGIC.length; i++) {
+                if (buffer.get(i) != MAGIC[i]) throw new IOException("Not an opening book: " + path);
+            }
+            if (buffer.getInt(8) != VERSION) throw new IOException("Unsupported book version in " + path);
+            int count = buffer.getInt(12);
+            if ((long) HEADER_BYTES + (long) count * ENTRY_BYTES != size) {
+                throw new IOException("Truncated opening book: " + path);
+            }
+            return new OpeningBook(buffer.position(HEADER_BYTES).slice(), count);
+        }
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Writes the book moves for this position that are legal here, with their
+     * weights, and returns how many there are.
+     */
+    public int probe(Board board, int[] moves, int[] weights) {
+        long key = board.key();
+        int first = lowerBound(key);
+        if (first >= count || entries.getLong(first * ENTRY_BYTES) != key) return 0;
+
+        int[] legal = SCRATCH.get().legal;
+        int legalCount = MoveGenerator.legalMoves(board, legal);
+        int n = 0;
+        for (int i = first; i < count && entries.getLong(i * ENTRY_BYTES) == key; i++) {
+            int offset = i * ENTRY_BYTES;
+            int move = entries.getShort(offset + 8) & 0xFFFF;
+            int weight = entries.getShort(offset + 10) & 0xFFFF;
+            // Guards against key collisions and stale books
+            if (weight > 0 && contains(legal, legalCount, move) && n < moves.length) {
+                moves[n] = move;
+                weights[n] = weight;
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /** Picks a book move with probability proportional to its weight, or {@link Move#NONE}. */
+    public int pick(Board board, RandomGenerator random) {
+        if (count == 0) return Move.NONE;
+        Scratch scratch = SCRATCH.get();
+        int[] moves = scratch.moves, weights = scratch.weights;
+        int n = probe(board, moves, weights);
+        if (n == 0) return Move.NONE;
+        int total = 0;
+        for (int i = 0; i < n; i++) total += weights[i];
+        int roll = random.nextInt(total);
+        for (int i = 0; i < n; i++) {
+            roll -= weights[i];
+            if (roll < 0) return moves[i];
+        }
+        return moves[n - 1];
+    }
+
+    private int lowerBound(long key) {
+        int lo = 0, hi = count;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(entries.getLong(mid * ENTRY_BYTES), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    private static boolean contains(int[] moves, int count, int move) {
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) return true;
+        }
+        return false;
+    }
+}
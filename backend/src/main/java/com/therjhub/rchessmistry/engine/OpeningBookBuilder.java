@@ -0,0 +1,126 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a PGN collection into the binary {@link OpeningBook} format.
+ *
+ * <pre>
+ * java -cp target/classes com.therjhub.rchessmistry.engine.OpeningBookBuilder \
+ *      games.pgn book/openings.bin [--plies 16] [--min-count 2]
+ * </pre>
+ *
+ * Each move played from a position within the first {@code plies} plies is
+ * counted; moves seen fewer than {@code min-count} times are dropped.
+ * A move's weight is 2 per win and 1 per draw for the side that played it, plus 1
+ * per game, so popular and successful moves are picked more often.
+ */
+public final class OpeningBookBuilder {
+
+    private final int maxPlies;
+    // key -> move -> { times played, weight }
+    private final Map<Long, Map<Integer, int[]>> positions = new HashMap<>();
+    private int games;
+    private int skipped;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: OpeningBookBuilder <games.pgn> <book.bin> [--plies N] [--min-count N]");
+            System.exit(1);
+        }
+        int plies = 16, minCount = 2;
+        for (int i = 2; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--plies" -> plies = Integer.parseInt(args[i + 1]);
+                case "--min-count" -> minCount = Integer.parseInt(args[i + 1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            Pgn.forEachGame(reader, builder::addGame);
+        }
+        int entries = builder.write(Paths.get(args[1]), minCount);
+        System.out.println("Read " + builder.games + " games (" + builder.skipped + " skipped), wrote "
+                + entries + " book entries to " + args[1]);
+    }
+
+    public void addGame(Pgn.Game game) {
+        if (game.getTag("FEN") != null || game.getMoves().isEmpty()) {
+            skipped++;
+            return;
+        }
+        String result = game.getTag("Result");
+        Board board = Board.startPosition();
+        try {
+            List<String> moves = game.getMoves();
+            for (int ply = 0; ply < Math.min(maxPlies, moves.size()); ply++) {
+                int move = San.parse(board, moves.get(ply));
+                int[] stats = positions.computeIfAbsent(board.key(), k -> new HashMap<>())
+                        .computeIfAbsent(move, m -> new int[2]);
+                stats[0]++;
+                stats[1] += 1 + resultWeight(result, board.sideToMove());
+                board.makeMove(move);
+            }
+            games++;
+        } catch (IllegalArgumentException e) {
+            skipped++;
+        }
+    }
+
+    private static int resultWeight(String result, int side) {
+        if ("1/2-1/2".equals(result)) return 1;
+        if ("1-0".equals(result)) return side == Piece.WHITE ? 2 : 0;
+        if ("0-1".equals(result)) return side == Piece.BLACK ? 2 : 0;
+        return 0;
+    }
+
+    /** Writes entries sorted by unsigned key and returns how many were written. */
+    public int write(Path path, int minCount) throws IOException {
+        List<long[]> rows = new ArrayList<>();
+        for (Map.Entry<Long, Map<Integer, int[]>> position : positions.entrySet()) {
+            for (Map.Entry<Integer, int[]> move : position.getValue().entrySet()) {
+                int[] stats = move.getValue();
+                if (stats[0] >= minCount) {
+                    rows.add(new long[] { position.getKey(), move.getKey(), Math.min(stats[1], 0xFFFF) });
+                }
+            }
+        }
+        rows.sort((a, b) -> {
+            int byKey = Long.compareUnsigned(a[0], b[0]);
+            return byKey != 0 ? byKey : Long.compare(b[2], a[2]);
+        });
+
+        if (path.getParent() != null) Files.createDirectories(path.getParent());
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.write(OpeningBook.MAGIC);
+            out.writeInt(OpeningBook.VERSION);
+            out.writeInt(rows.size());
+            for (long[] row : rows) {
+                out.writeLong(row[0]);
+                out.writeShort((int) row[1]);
+                out.writeShort((int) row[2]);
+                out.writeInt(0);
+            }
+        }
+        return rows.size();
+    }
+}
@@ -0,0 +1,94 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Counts leaf nodes of the legal move tree to a fixed depth. Known counts for
+ * the standard test positions make this the move generator's correctness check.
+ *
+ * <pre>
+ * java -cp target/classes com.therjhub.rchessmistry.engine.Perft [max-depth]
+ * </pre>
+ */
+public final class Perft {
+
+    /** A standard test position and its published node counts for depths 1, 2, 3 ... */
+    public static final class Position {
+        private final String name;
+        private final String fen;
+        private final long[] counts;
+
+        Position(String name, String fen, long... counts) {
+            this.name = name;
+            this.fen = fen;
+            this.counts = counts;
+        }
+
+        public String getName() { return name; }
+        public String getFen() { return fen; }
+        public int getMaxDepth() { return counts.length; }
+        public long getExpected(int depth) { return counts[depth - 1]; }
+    }
+
+    public static final Position[] SUITE = {
+            new Position("start", Board.START_FEN,
+                    20, 400, 8_902, 197_281, 4_865_609),
+            new Position("kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+                    48, 2_039, 97_862, 4_085_603),
+            new Position("endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+                    14, 191, 2_812, 43_238, 674_624),
+            new Position("promotions", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1",
+                    6, 264, 9_467, 422_333),
+            new Position("discovered", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+                    44, 1_486, 62_379, 2_103_487),
+            new Position("middlegame", "r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 10",
+                    46, 2_079, 89_890, 3_894_594),
+    };
+
+    private Perft() {}
+
+    public static Position position(String name) {
+        for (Position position : SUITE) {
+            if (position.name.equals(name)) return position;
+        }
+        throw new IllegalArgumentException("Unknown perft position: " + name);
+    }
+
+    /** Leaf count at {@code depth}; {@code buffers} needs one move list per ply. */
+    public static long count(Board board, int depth, int[][] buffers) {
+        int[] moves = buffers[depth - 1];
+        int count = MoveGenerator.generate(board, moves);
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (!MoveGenerator.isLegal(board, move)) continue;
+            if (depth == 1) {
+                nodes++;
+                continue;
+            }
+            board.makeMove(move);
+            nodes += count(board, depth - 1, buffers);
+            board.unmakeMove(move);
+        }
+        return nodes;
+    }
+
+    public static long count(Board board, int depth) {
+        return depth == 0 ? 1 : count(board, depth, new int[depth][MoveGenerator.MAX_MOVES]);
+    }
+
+    public static void main(String[] args) {
+        int maxDepth = args.length > 0 ? Integer.parseInt(args[0]) : Integer.MAX_VALUE;
+        boolean ok = true;
+        for (Position position : SUITE) {
+            int depth = Math.min(maxDepth, position.getMaxDepth());
+            Board board = Board.fromFen(position.fen);
+            long start = System.nanoTime();
+            long nodes = count(board, depth);
+            long micros = Math.max(1, (System.nanoTime() - start) / 1_000);
+            boolean match = nodes == position.getExpected(depth);
+            ok &= match;
+            System.out.printf("%-11s depth %d  %,12d nodes  %6d ms  %,6d knps  %s%n", position.name, depth, nodes,
+                    micros / 1_000, nodes * 1_000 / micros, match ? "OK" : "FAIL (expected " + position.getExpected(depth) + ")");
+        }
+        if (!ok) System.exit(1);
+    }
+}
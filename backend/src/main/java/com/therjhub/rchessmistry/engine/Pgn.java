@@ -0,0 +1,125 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Minimal PGN reader: tag pairs plus the main line of the movetext.
+ * Comments, variations, NAGs, move numbers and results are skipped.
+ */
+public final class Pgn {
+
+    /** One game: its tag pairs and main-line moves in SAN. */
+    public static class Game {
+        private final Map<String, String> tags;
+        private final List<String> moves;
+
+        public Game(Map<String, String> tags, List<String> moves) {
+            this.tags = tags;
+            this.moves = moves;
+        }
+
+        public Map<String, String> getTags() { return tags; }
+        public List<String> getMoves() { return moves; }
+        public String getTag(String name) { return tags.get(name); }
+
+        /** Starting FEN from the {@code FEN} tag, or the standard start position. */
+        public String getStartFen() {
+            String fen = tags.get("FEN");
+            return fen != null ? fen : Board.START_FEN;
+        }
+    }
+
+    private Pgn() {}
+
+    /** Streams games one at a time so large collections never sit in memory. */
+    public static void forEachGame(BufferedReader reader, Consumer<Game> consumer) throws IOException {
+        Map<String, String> tags = new LinkedHashMap<>();
+        StringBuilder movetext = new StringBuilder();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith("[") && trimmed.endsWith("]")) {
+                if (movetext.length() > 0) {
+                    consumer.accept(new Game(tags, parseMovetext(movetext)));
+                    tags = new LinkedHashMap<>();
+                    movetext.setLength(0);
+                }
+                parseTag(trimmed, tags);
+            } else if (!trimmed.startsWith("%")) {
+                movetext.append(trimmed).append('\n');
+            }
+        }
+        if (movetext.length() > 0 || !tags.isEmpty()) {
+            consumer.accept(new Game(tags, parseMovetext(movetext)));
+        }
+    }
+
+    /** Parses a single game, e.g. the PGN a client saved; text without tags is read as bare movetext. */
+    public static Game parseGame(String pgn) {
+        List<Game> games = new ArrayList<>(1);
+        try {
+            forEachGame(new BufferedReader(new StringReader(pgn == null ? "" : pgn)), games::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return games.isEmpty() ? new Game(new LinkedHashMap<>(), new ArrayList<>()) : games.get(0);
+    }
+
+    /** Main-line SAN moves of a movetext such as {@code 1. e4 e5 2. Nf3 {comment} Nc6 *}. */
+    public static List<String> parseMovetext(CharSequence movetext) {
+        List<String> moves = new ArrayList<>();
+        int depth = 0;
+        int length = movetext.length();
+        int i = 0;
+        while (i < length) {
+            char c = movetext.charAt(i);
+            if (c == '{') {
+                while (i < length && movetext.charAt(i) != '}') i++;
+                i++;
+            } else if (c == ';') {
+                while (i < length && movetext.charAt(i) != '\n') i++;
+            } else if (c == '(') {
+                depth++;
+                i++;
+            } else if (c == ')') {
+                depth--;
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                i++;
+            } else {
+                int start = i;
+                while (i < length && !Character.isWhitespace(movetext.charAt(i))
+                        && "{}();".indexOf(movetext.charAt(i)) < 0) i++;
+                if (depth == 0) addToken(movetext.subSequence(start, i).toString(), moves);
+            }
+        }
+        return moves;
+    }
+
+    private static void addToken(String token, List<String> moves) {
+        if (token.startsWith("$")) return;
+        if (token.equals("*") || token.equals("1-0") || token.equals("0-1") || token.equals("1/2-1/2")) return;
+        // Strip move numbers, including ones glued to the move ("12.Nf3", "12...Nf6")
+        int dot = token.lastIndexOf('.');
+        if (dot >= 0) token = token.substring(dot + 1);
+        if (token.isEmpty()) return;
+        if (!Character.isDigit(token.charAt(0)) || token.startsWith("0-0")) moves.add(token);
+    }
+
+    private static void parseTag(String line, Map<String, String> tags) {
+        int space = line.indexOf(' ');
+        int open = line.indexOf('"');
+        int close = line.lastIndexOf('"');
+        if (space > 1 && open > space && close > open) {
+            tags.put(line.substring(1, space), line.substring(open + 1, close));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Piece and colour constants. A piece index is {@code colour * 6 + type},
+ * so white pieces are 0-5 and black pieces are 6-11.
+ */
+public final class Piece {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int EMPTY = -1;
+
+    private static final String SYMBOLS = "PNBRQKpnbrqk";
+
+    private Piece() {}
+
+    public static int of(int colour, int type) { return colour * 6 + type; }
+    public static int type(int piece) { return piece % 6; }
+    public static int colour(int piece) { return piece < 6 ? WHITE : BLACK; }
+
+    public static char symbol(int piece) { return SYMBOLS.charAt(piece); }
+
+    public static int fromSymbol(char c) {
+        int index = SYMBOLS.indexOf(c);
+        if (index < 0) throw new IllegalArgumentException("Invalid piece symbol: " + c);
+        return index;
+    }
+}
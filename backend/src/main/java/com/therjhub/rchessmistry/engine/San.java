@@ -0,0 +1,28 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Standard algebraic notation (e.g. {@code Nbd7}, {@code exd8=Q+}, {@code O-O})
+ * resolved against the legal moves of a position.
+ */
+public final class San {
+
+    private San() {}
+
+    /** Returns the legal move {@code san} denotes, or throws if it is illegal or ambiguous. */
+    public static int parse(Board board, String san) {
+        if (san == null) throw new IllegalArgumentException("Move is required");
+        String text = san.trim();
+        int move = Notation.parseSan(board, text, 0, text.length(), new int[MoveGenerator.MAX_MOVES]);
+        return switch (move) {
+            case Notation.MALFORMED -> throw new IllegalArgumentException("Invalid move: " + san);
+            case Notation.AMBIGUOUS -> throw new IllegalArgumentException("Ambiguous move: " + san);
+            case Move.NONE -> throw new IllegalArgumentException("Illegal move: " + san);
+            default -> move;
+        };
+    }
+
+    /** Formats a legal move in SAN, including check and mate suffixes. */
+    public static String toSan(Board board, int move) {
+        return Notation.appendSan(board, move, new StringBuilder(8), new int[MoveGenerator.MAX_MOVES]).toString();
+    }
+}
@@ -0,0 +1,336 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Iterative-deepening negamax alpha-beta search under a depth, time and node
+ * budget, with quiescence, check extensions, a shared transposition table
+ * and hash / MVV-LVA / killer / history move ordering. One instance owns its board and scratch buffers,
+ * so a search never allocates and must not be shared between threads; the
+ * table and the stop flag may be.
+ */
+public final class Search {
+
+    public static final int MAX_PLY = 128;
+    public static final int INFINITY = 32001;
+    public static final int MATE = 32000;
+    public static final int MATE_BOUND = MATE - MAX_PLY;
+
+    private static final int SCORE_HASH_MOVE = 2_000_000;
+    private static final int SCORE_CAPTURE = 1_000_000;
+    private static final int SCORE_PROMOTION = 900_000;
+    private static final int SCORE_KILLER_1 = 800_000;
+    private static final int SCORE_KILLER_2 = 790_000;
+    // History scores are halved once one passes this, so quiet moves stay below the killers
+    private static final int HISTORY_MAX = 500_000;
+
+    private final Board board;
+    private final TranspositionTable tt;
+    private Bitbases bitbases;
+    private final int[][] moves = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] moveScores = new int[MAX_PLY][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private final int[][] history = new int[64][64];
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+
+    private static final int STOP_CHECK_MASK = 2047;
+
+    private AtomicBoolean stop;
+    private int depthOffset;
+    private boolean aborted;
+    // Best root move of the last completed iteration, and whether this iteration has searched it yet
+    private int previousBest;
+    private boolean previousBestSearched;
+    private long nodes;
+    private long deadline;
+    private long nodeLimit;
+
+    public Search(Board board) {
+        this(board, null);
+    }
+
+    public Search(Board board, TranspositionTable tt) {
+        this.board = board;
+        this.tt = tt;
+    }
+
+    public Board getBoard() { return board; }
+    public long getNodes() { return nodes; }
+
+    /** Shared flag that makes the search unwind as soon as it is set. */
+    public void setStop(AtomicBoolean stop) { this.stop = stop; }
+
+    /** Helper threads search one ply deeper on odd offsets so threads spread over different depths. */
+    public void setDepthOffset(int depthOffset) { this.depthOffset = depthOffset; }
+
+    /** Endgame tables: drawn positions are cut off, won ones are scored exactly at the horizon. */
+    public void setBitbases(Bitbases bitbases) { this.bitbases = bitbases; }
+
+    /** Searches without a time or node budget, up to {@code depth}. */
+    public SearchResult search(int depth) {
+        return search(SearchLimits.depth(depth));
+    }
+
+    /**
+     * Deepens from 1 towards the depth ceiling (plus the depth offset) until a
+     * budget runs out, then returns the best move found so far.
+     */
+    public SearchResult search(SearchLimits limits) {
+        long start = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
+        long budgetNanos = limits.getTimeMillis() * 1_000_000L;
+        deadline = budgetNanos > 0 ? startNanos + budgetNanos : 0;
+        nodeLimit = limits.getNodes();
+        nodes = 0;
+        aborted = false;
+        clearTables();
+
+        int[] line = new int[0];
+        int score = 0;
+        int completed = 0;
+        int target = limits.getDepth() + depthOffset;
+        for (int d = 1 + depthOffset; d <= target; d++) {
+            previousBest = line.length > 0 ? line[0] : Move.NONE;
+            previousBestSearched = false;
+            int iterationScore = negamax(d, -INFINITY, INFINITY, 0);
+            if (aborted) {
+                // Root moves finish one at a time. The unfinished iteration's best move has only
+                // beaten the previous best once that has been searched to the new depth as well
+                if (pvLength[0] > 0 && pv[0][0] != previousBest
+                        && (previousBest == Move.NONE || previousBestSearched)) {
+                    line = new int[] { pv[0][0] };
+                }
+                break;
+            }
+            line = new int[pvLength[0]];
+            System.arraycopy(pv[0], 0, line, 0, line.length);
+            score = iterationScore;
+            completed = d;
+            // A mate inside the searched horizon cannot get any shorter
+            if (Math.abs(score) >= MATE_BOUND && MATE - Math.abs(score) <= d) break;
+            // The next iteration costs several times this one; don't start what we can't finish
+            if (budgetNanos > 0 && System.nanoTime() - startNanos > budgetNanos / 2) break;
+        }
+        int best = line.length > 0 ? line[0] : firstLegalMove();
+
+        return new SearchResult(best, score, completed, nodes, System.currentTimeMillis() - start, line);
+    }
+
+    private int firstLegalMove() {
+        int[] list = new int[MoveGenerator.MAX_MOVES];
+        return MoveGenerator.legalMoves(board, list) > 0 ? list[0] : Move.NONE;
+    }
+
+    private boolean shouldStop() {
+        if ((nodes & STOP_CHECK_MASK) == 0
+                && ((stop != null && stop.get())
+                || (deadline != 0 && System.nanoTime() - deadline >= 0)
+                || (nodeLimit != 0 && nodes >= nodeLimit))) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private void clearTables() {
+        for (int[] k : killers) { k[0] = Move.NONE; k[1] = Move.NONE; }
+        for (int[] h : history) java.util.Arrays.fill(h, 0);
+    }
+
+    private int negamax(int depth, int alpha, int beta, int ply) {
+        pvLength[ply] = ply;
+        if (ply > 0 && (board.halfmoveClock >= 100 || board.isRepetition()
+                || Evaluator.isInsufficientMaterial(board))) return 0;
+        if (ply >= MAX_PLY - 1) return Evaluator.evaluate(board);
+
+        int us = board.side;
+        boolean inCheck = board.inCheck();
+        if (inCheck) depth++;
+        if (bitbases != null && ply > 0) {
+            int result = bitbases.probe(board);
+            if (result == Bitbases.DRAW) return 0;
+            // Won positions are still searched above the horizon so the mate itself gets found
+            if (result != Bitbases.UNKNOWN && depth <= 0) {
+                int score = Evaluator.evaluateKnownWin(board, result == Bitbases.WIN ? us : us ^ 1);
+                return result == Bitbases.WIN ? score : -score;
+            }
+        }
+        if (depth <= 0) return quiescence(alpha, beta, ply);
+        nodes++;
+        if (shouldStop()) return 0;
+
+        int hashMove = Move.NONE;
+        if (tt != null) {
+            long entry = tt.probe(board.key);
+            if (entry != 0) {
+                hashMove = TranspositionTable.move(entry);
+                if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                    int score = scoreFromTable(TranspositionTable.score(entry), ply);
+                    int bound = TranspositionTable.bound(entry);
+                    if (bound == TranspositionTable.BOUND_EXACT
+                            || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                            || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                        return score;
+                    }
+                }
+            }
+        }
+
+        int[] list = moves[ply];
+        int[] scores = moveScores[ply];
+        int count = MoveGenerator.generate(board, list);
+        scoreMoves(list, scores, count, ply, hashMove);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        int legal = 0;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores, i, count);
+            board.makeMove(move);
+            if (board.isAttacked(board.kingSquare(us), us ^ 1)) {
+                board.unmakeMove(move);
+                continue;
+            }
+            legal++;
+            int score = -negamax(depth - 1, -beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+            if (aborted) return 0;
+            if (ply == 0 && move == previousBest) previousBestSearched = true;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                            storeKiller(ply, move);
+                            if ((history[Move.from(move)][Move.to(move)] += depth * depth) > HISTORY_MAX) {
+                                ageHistory();
+                            }
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+
+        if (legal == 0) return inCheck ? -MATE + ply : 0;
+
+        if (tt != null && !aborted) {
+            int bound = best >= beta ? TranspositionTable.BOUND_LOWER
+                    : best > originalAlpha ? TranspositionTable.BOUND_EXACT
+                    : TranspositionTable.BOUND_UPPER;
+            tt.store(board.key, bestMove, scoreToTable(best, ply), depth, bound);
+        }
+        return best;
+    }
+
+    // Mate scores are stored relative to the node, not the root
+    private static int scoreToTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int scoreFromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    private int quiescence(int alpha, int beta, int ply) {
+        nodes++;
+        pvLength[ply] = ply;
+        if (shouldStop()) return 0;
+        int standPat = Evaluator.evaluate(board);
+        if (ply >= MAX_PLY - 1 || standPat >= beta) return standPat;
+        if (standPat > alpha) alpha = standPat;
+
+        int us = board.side;
+        int[] list = moves[ply];
+        int[] scores = moveScores[ply];
+        int count = MoveGenerator.generateNoisy(board, list);
+        scoreMoves(list, scores, count, ply, Move.NONE);
+
+        int best = standPat;
+        for (int i = 0; i < count; i++) {
+            int move = pickNext(list, scores, i, count);
+            board.makeMove(move);
+            if (board.isAttacked(board.kingSquare(us), us ^ 1)) {
+                board.unmakeMove(move);
+                continue;
+            }
+            int score = -quiescence(-beta, -alpha, ply + 1);
+            board.unmakeMove(move);
+
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) break;
+                }
+            }
+        }
+        return best;
+    }
+
+    private void scoreMoves(int[] list, int[] scores, int count, int ply, int hashMove) {
+        for (int i = 0; i < count; i++) {
+            int move = list[i];
+            if (move == hashMove) {
+                scores[i] = SCORE_HASH_MOVE;
+            } else if (Move.isCapture(move)) {
+                int victim = Move.flags(move) == Move.EN_PASSANT ? Piece.PAWN : Piece.type(board.squares[Move.to(move)]);
+                int attacker = Piece.type(board.squares[Move.from(move)]);
+                scores[i] = SCORE_CAPTURE + Evaluator.PIECE_VALUE[victim] * 10 - attacker;
+            } else if (Move.isPromotion(move)) {
+                scores[i] = SCORE_PROMOTION + Move.promotionType(move);
+            } else if (move == killers[ply][0]) {
+                scores[i] = SCORE_KILLER_1;
+            } else if (move == killers[ply][1]) {
+                scores[i] = SCORE_KILLER_2;
+            } else {
+                scores[i] = history[Move.from(move)][Move.to(move)];
+            }
+        }
+    }
+
+    /** Selection sort step: swaps the best remaining move into slot {@code index} and returns it. */
+    private static int pickNext(int[] list, int[] scores, int index, int count) {
+        int bestIndex = index;
+        for (int j = index + 1; j < count; j++) {
+            if (scores[j] > scores[bestIndex]) bestIndex = j;
+        }
+        int move = list[bestIndex];
+        list[bestIndex] = list[index];
+        list[index] = move;
+        int score = scores[bestIndex];
+        scores[bestIndex] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private void ageHistory() {
+        for (int[] h : history) {
+            for (int i = 0; i < h.length; i++) h[i] >>= 1;
+        }
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int next = ply + 1;
+        int length = pvLength[next];
+        if (length > next) System.arraycopy(pv[next], next, pv[ply], next, length - next);
+        pvLength[ply] = Math.max(length, next);
+    }
+}
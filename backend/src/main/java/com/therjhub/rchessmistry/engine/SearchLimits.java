@@ -0,0 +1,32 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Budget for one search: a depth ceiling plus optional wall-clock and node
+ * budgets (0 = unlimited). Whichever runs out first ends the search.
+ */
+public final class SearchLimits {
+
+    private final int depth;
+    private final long timeMillis;
+    private final long nodes;
+
+    public SearchLimits(int depth, long timeMillis, long nodes) {
+        this.depth = Math.max(1, Math.min(depth, Search.MAX_PLY - 1));
+        this.timeMillis = Math.max(0, timeMillis);
+        this.nodes = Math.max(0, nodes);
+    }
+
+    public static SearchLimits depth(int depth) {
+        return new SearchLimits(depth, 0, 0);
+    }
+
+    public int getDepth() { return depth; }
+    public long getTimeMillis() { return timeMillis; }
+    public long getNodes() { return nodes; }
+
+    @Override
+    public String toString() {
+        return "depth " + depth + ", " + (timeMillis > 0 ? timeMillis + " ms" : "no time limit")
+                + ", " + (nodes > 0 ? nodes + " nodes" : "no node limit");
+    }
+}
@@ -0,0 +1,54 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a search: best move, its score from the side to move's point of
+ * view, and the statistics the bot endpoint reports back.
+ */
+public class SearchResult {
+
+    private final int bestMove;
+    private final int score;
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int[] principalVariation;
+    private final int threads;
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis, int[] principalVariation) {
+        this(bestMove, score, depth, nodes, elapsedMillis, principalVariation, 1);
+    }
+
+    public SearchResult(int bestMove, int score, int depth, long nodes, long elapsedMillis,
+                        int[] principalVariation, int threads) {
+        this.bestMove = bestMove;
+        this.score = score;
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.principalVariation = principalVariation;
+        this.threads = threads;
+    }
+
+    public int getBestMove() { return bestMove; }
+    public int getScore() { return score; }
+    public int getDepth() { return depth; }
+    public long getNodes() { return nodes; }
+    public long getElapsedMillis() { return elapsedMillis; }
+    public int[] getPrincipalVariation() { return principalVariation.clone(); }
+    public int getThreads() { return threads; }
+
+    public long getNodesPerSecond() { return nodes * 1000 / Math.max(1, elapsedMillis); }
+
+    public String getBestMoveUci() { return Move.toUci(bestMove); }
+
+    public List<String> getPrincipalVariationUci() {
+        List<String> line = new ArrayList<>(principalVariation.length);
+        for (int move : principalVariation) line.add(Move.toUci(move));
+        return line;
+    }
+
+    public boolean isMateScore() { return Math.abs(score) >= Search.MATE_BOUND; }
+}
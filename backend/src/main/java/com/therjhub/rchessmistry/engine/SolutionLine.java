@@ -0,0 +1,62 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * A challenge's solution checked once against its start position: the
+ * solver's moves alternate with the opponent's replies, starting with the
+ * side to move. Each ply keeps its 16-bit move and its UCI and SAN text, so
+ * checking an attempt is a string comparison per move with no board work.
+ */
+public final class SolutionLine {
+
+    private final int[] moves;
+    private final String[] uci;
+    private final String[] san;
+
+    private SolutionLine(int[] moves, String[] uci, String[] san) {
+        this.moves = moves;
+        this.uci = uci;
+        this.san = san;
+    }
+
+    /**
+     * Replays space-separated SAN from {@code fen}; throws IllegalArgumentException
+     * naming the first move that is not legal, or if the line is empty or ends on
+     * the opponent's reply.
+     */
+    public static SolutionLine compile(String fen, String solution) {
+        Board board = Board.fromFen(fen);
+        String[] tokens = solution == null ? new String[0] : solution.trim().split("\\s+");
+        if (tokens.length == 0 || tokens[0].isEmpty()) throw new IllegalArgumentException("Empty solution");
+        if (tokens.length % 2 == 0) throw new IllegalArgumentException("Solution ends on the opponent's move");
+
+        int[] scratch = new int[MoveGenerator.MAX_MOVES];
+        int[] moves = new int[tokens.length];
+        String[] uci = new String[tokens.length];
+        String[] san = new String[tokens.length];
+        StringBuilder text = new StringBuilder(8);
+        for (int i = 0; i < tokens.length; i++) {
+            int move = Notation.parseSan(board, tokens[i], 0, tokens[i].length(), scratch);
+            if (move <= Move.NONE) throw new IllegalArgumentException("Illegal move '" + tokens[i] + "' at ply " + (i + 1));
+            moves[i] = move;
+            uci[i] = Move.toUci(move);
+            text.setLength(0);
+            san[i] = Notation.appendSan(board, move, text, scratch).toString();
+            board.makeMove(move);
+        }
+        return new SolutionLine(moves, uci, san);
+    }
+
+    public int length() { return moves.length; }
+
+    /** Moves the solver has to find; the replies in between are given. */
+    public int solverMoves() { return (moves.length + 1) / 2; }
+
+    public int move(int ply) { return moves[ply]; }
+    public String uci(int ply) { return uci[ply]; }
+    public String san(int ply) { return san[ply]; }
+
+    /** Whether the solver's {@code index}-th move (0-based) is {@code uciMove}. */
+    public boolean isSolverMove(int index, String uciMove) {
+        return index >= 0 && index < solverMoves() && uci[2 * index].equals(uciMove);
+    }
+}
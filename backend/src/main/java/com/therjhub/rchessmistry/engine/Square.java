@@ -0,0 +1,27 @@
+package com.therjhub.rchessmistry.engine;
+
+/**
+ * Square helpers. Squares are numbered a1 = 0, h1 = 7 ... h8 = 63.
+ */
+public final class Square {
+
+    public static final int NONE = -1;
+
+    private Square() {}
+
+    public static int file(int sq) { return sq & 7; }
+    public static int rank(int sq) { return sq >>> 3; }
+    public static int of(int file, int rank) { return rank * 8 + file; }
+
+    public static String name(int sq) {
+        return "" + (char) ('a' + file(sq)) + (char) ('1' + rank(sq));
+    }
+
+    public static int parse(String name) {
+        if (name == null || name.length() != 2) throw new IllegalArgumentException("Invalid square: " + name);
+        int file = name.charAt(0) - 'a';
+        int rank = name.charAt(1) - '1';
+        if (file < 0 || file > 7 || rank < 0 || rank > 7) throw new IllegalArgumentException("Invalid square: " + name);
+        return of(file, rank);
+    }
+}
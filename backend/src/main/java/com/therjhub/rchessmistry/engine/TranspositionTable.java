@@ -0,0 +1,168 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size transposition table kept off-heap in direct buffers, so even
+ * multi-GB tables add nothing for the GC to scan.
+ *
+ * <p>Entries are 16 bytes ({@code key ^ data}, {@code data}) grouped into
+ * 64-byte buckets of four. Readers and writers never lock: a torn write
+ * makes the XOR check fail and simply reads as a miss. One table is shared
+ * by every search running in the process.
+ *
+ * <p>Data word layout: move (16) | score (16) | depth (8) | bound (2) | generation (6).
+ */
+public final class TranspositionTable {
+
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int ENTRY_BYTES = 16;
+    private static final int BUCKET_ENTRIES = 4;
+    private static final int BUCKET_BYTES = ENTRY_BYTES * BUCKET_ENTRIES;
+    private static final int CHUNK_SHIFT = 30 - 6; // 1 GB chunks of 64-byte buckets
+
+    private final ByteBuffer[] chunks;
+    private final long bucketCount;
+    private final long bucketMask;
+    private final int bucketsPerChunkMask;
+
+    private volatile int generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+    private final LongAdder stores = new LongAdder();
+
+    public TranspositionTable(long sizeBytes) {
+        long buckets = Long.highestOneBit(Math.max(1L, sizeBytes / BUCKET_BYTES));
+        this.bucketCount = buckets;
+        this.bucketMask = buckets - 1;
+
+        long bucketsPerChunk = Math.min(buckets, 1L << CHUNK_SHIFT);
+        this.bucketsPerChunkMask = (int) (bucketsPerChunk - 1);
+        int chunkCount = (int) (buckets / bucketsPerChunk);
+        this.chunks = new ByteBuffer[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            chunks[i] = ByteBuffer.allocateDirect((int) (bucketsPerChunk * BUCKET_BYTES)).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    public static TranspositionTable ofMegabytes(int megabytes) {
+        return new TranspositionTable((long) megabytes << 20);
+    }
+
+    // ========== ENTRY FIELDS ==========
+    public static int move(long data) { return (int) (data & 0xFFFF); }
+    public static int score(long data) { return (short) (data >>> 16); }
+    public static int depth(long data) { return (int) ((data >>> 32) & 0xFF); }
+    public static int bound(long data) { return (int) ((data >>> 40) & 3); }
+    private static int generation(long data) { return (int) ((data >>> 42) & 63); }
+
+    /** Starts a new search generation so entries from older searches are replaced first. */
+    public void newSearch() {
+        generation = (generation + 1) & 63;
+    }
+
+    /** Returns the entry data for {@code key}, or 0 when the position is not stored. */
+    public long probe(long key) {
+        long bucket = key & bucketMask;
+        ByteBuffer chunk = chunks[(int) (bucket >>> CHUNK_SHIFT)];
+        int base = (int) (bucket & bucketsPerChunkMask) * BUCKET_BYTES;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = chunk.getLong(offset + 8);
+            if (data != 0 && (chunk.getLong(offset) ^ data) == key) {
+                hits.increment();
+                return data;
+            }
+        }
+        misses.increment();
+        return 0L;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        long bucket = key & bucketMask;
+        ByteBuffer chunk = chunks[(int) (bucket >>> CHUNK_SHIFT)];
+        int base = (int) (bucket & bucketsPerChunkMask) * BUCKET_BYTES;
+        int currentGeneration = generation;
+
+        int target = -1;
+        int empty = -1;
+        int weakest = base;
+        int weakestWorth = Integer.MAX_VALUE;
+        for (int i = 0; i < BUCKET_ENTRIES; i++) {
+            int offset = base + i * ENTRY_BYTES;
+            long data = chunk.getLong(offset + 8);
+            if (data == 0) {
+                if (empty < 0) empty = offset;
+                continue;
+            }
+            if ((chunk.getLong(offset) ^ data) == key) {
+                // Same position: keep the old best move if we have none to offer
+                if (move == Move.NONE) move = move(data);
+                target = offset;
+                break;
+            }
+            int age = (currentGeneration - generation(data)) & 63;
+            int worth = depth(data) - 8 * age;
+            if (worth < weakestWorth) {
+                weakest = offset;
+                weakestWorth = worth;
+            }
+        }
+        boolean evicts = false;
+        if (target < 0) {
+            evicts = empty < 0;
+            target = evicts ? weakest : empty;
+        }
+
+        long data = (move & 0xFFFFL)
+                | ((score & 0xFFFFL) << 16)
+                | ((long) Math.min(depth, 255) << 32)
+                | ((long) bound << 40)
+                | ((long) currentGeneration << 42);
+        chunk.putLong(target, key ^ data);
+        chunk.putLong(target + 8, data);
+        stores.increment();
+        if (evicts) collisions.increment();
+    }
+
+    public void clear() {
+        for (ByteBuffer chunk : chunks) {
+            for (int offset = 0; offset < chunk.capacity(); offset += 8) chunk.putLong(offset, 0L);
+        }
+        hits.reset();
+        misses.reset();
+        collisions.reset();
+        stores.reset();
+    }
+
+    // ========== STATS ==========
+    public long getSizeBytes() { return bucketCount * BUCKET_BYTES; }
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    /** Stores that had to evict an entry belonging to a different position. */
+    public long getCollisions() { return collisions.sum(); }
+    public long getStores() { return stores.sum(); }
+
+    public double getHitRate() {
+        long h = hits.sum(), total = h + misses.sum();
+        return total == 0 ? 0.0 : (double) h / total;
+    }
+
+    /** Fraction of slots in use, sampled from the first buckets (per mille). */
+    public int getUsagePermille() {
+        ByteBuffer chunk = chunks[0];
+        int sampleBuckets = (int) Math.min(bucketCount, 250);
+        int used = 0;
+        for (int offset = 8; offset < sampleBuckets * BUCKET_BYTES; offset += ENTRY_BYTES) {
+            if (chunk.getLong(offset) != 0) used++;
+        }
+        return used * 1000 / (sampleBuckets * BUCKET_ENTRIES);
+    }
+}
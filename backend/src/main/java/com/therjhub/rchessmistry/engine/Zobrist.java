@@ -0,0 +1,41 @@
+package com.therjhub.rchessmistry.engine;
+
+import java.util.SplittableRandom;
+
+/**
+ * Zobrist keys. The generator is seeded with a constant so keys are stable
+ * across restarts and can be written to disk (opening book, bitbases).
+ */
+public final class Zobrist {
+
+    static final long[][] PIECE_SQUARE = new long[12][64];
+    static final long[] CASTLING = new long[16];
+    static final long[] EN_PASSANT_FILE = new long[8];
+    static final long SIDE;
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x5EEDC0FFEE2024L);
+        for (long[] squares : PIECE_SQUARE) {
+            for (int sq = 0; sq < 64; sq++) squares[sq] = random.nextLong();
+        }
+        for (int i = 0; i < 16; i++) CASTLING[i] = random.nextLong();
+        CASTLING[0] = 0L;
+        for (int i = 0; i < 8; i++) EN_PASSANT_FILE[i] = random.nextLong();
+        SIDE = random.nextLong();
+    }
+
+    private Zobrist() {}
+
+    /** Computes the key of a position from scratch; {@link Board} keeps it up to date incrementally. */
+    public static long compute(Board board) {
+        long key = 0L;
+        for (int sq = 0; sq < 64; sq++) {
+            int piece = board.squares[sq];
+            if (piece != Piece.EMPTY) key ^= PIECE_SQUARE[piece][sq];
+        }
+        key ^= CASTLING[board.castling];
+        key ^= board.enPassantKey(board.side);
+        if (board.side == Piece.BLACK) key ^= SIDE;
+        return key;
+    }
+}
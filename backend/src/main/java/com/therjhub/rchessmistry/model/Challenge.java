@@ -1,5 +1,6 @@
 package com.therjhub.rchessmistry.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 
 @Entity
@@ -19,6 +20,8 @@ public class Challenge {
     @Column(nullable = false)
     private String fen;
 
+    // Checked server-side through /attempt, so clients never see the answer
+    @JsonIgnore
     @Column(name = "solution_moves")
     private String solutionMoves;
 
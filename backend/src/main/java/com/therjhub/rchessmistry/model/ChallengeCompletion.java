@@ -0,0 +1,53 @@
+package com.therjhub.rchessmistry.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/** A user's first solve of a challenge; the unique key makes awarding its points idempotent. */
+@Entity
+@Table(name = "challenge_completions", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_challenge_completions_user_challenge", columnNames = {"user_id", "challenge_id"})
+})
+public class ChallengeCompletion {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "challenge_id", nullable = false)
+    private Long challengeId;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    public ChallengeCompletion() {}
+
+    public ChallengeCompletion(Long userId, Long challengeId, int points) {
+        this.userId = userId;
+        this.challengeId = challengeId;
+        this.points = points;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        completedAt = LocalDateTime.now();
+    }
+
+    public Long getId() { return id; }
+    public Long getUserId() { return userId; }
+    public Long getChallengeId() { return challengeId; }
+    public int getPoints() { return points; }
+    public LocalDateTime getCompletedAt() { return completedAt; }
+
+    public void setId(Long id) { this.id = id; }
+    public void setUserId(Long userId) { this.userId = userId; }
+    public void setChallengeId(Long challengeId) { this.challengeId = challengeId; }
+    public void setPoints(int points) { this.points = points; }
+    public void setCompletedAt(LocalDateTime completedAt) { this.completedAt = completedAt; }
+}
@@ -1,10 +1,13 @@
 package com.therjhub.rchessmistry.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "game_records")
+@Table(name = "game_records", indexes = {
+        @Index(name = "idx_game_records_user_played", columnList = "user_id, played_at, id")
+})
 public class GameRecord {
 
     @Id
@@ -23,25 +26,57 @@ public class GameRecord {
     @Enumerated(EnumType.STRING)
     private GameMode gameMode;
 
+    // From the owner's side
     @Column(name = "result")
     @Enumerated(EnumType.STRING)
     private GameResult result;
 
+    // The owner's colour; null is White, as in every bot and over-the-board game
+    @Column(name = "player_color")
+    @Enumerated(EnumType.STRING)
+    private PlayerColor playerColor;
+
+    // The other player's username in online games
+    @Column(name = "opponent_name", length = 30)
+    private String opponentName;
+
+    // The opponent's rating when an online game ended; only the game server sets these
+    @Column(name = "opponent_rating")
+    private Double opponentRating;
+
+    @Column(name = "opponent_deviation")
+    private Double opponentDeviation;
+
     @Column(name = "total_moves")
     private int totalMoves;
 
     @Column(name = "duration_seconds")
     private int durationSeconds;
 
+    // Only kept for games whose PGN could not be encoded; PGN is otherwise rebuilt from moves
+    @JsonIgnore
     @Column(name = "pgn", columnDefinition = "TEXT")
     private String pgn;
 
+    // GameCodec encoding: ~2 bytes per move
+    @JsonIgnore
+    @Column(name = "moves", length = 4096)
+    private byte[] moves;
+
     @Column(name = "blunder_count")
     private int blunderCount;
 
     @Column(name = "accuracy_score")
     private double accuracyScore;
 
+    @Column(name = "analysis_status")
+    @Enumerated(EnumType.STRING)
+    private AnalysisStatus analysisStatus;
+
+    // Centipawns lost by each ply, comma-separated
+    @Column(name = "move_losses", columnDefinition = "TEXT")
+    private String moveLosses;
+
     @Column(name = "played_at")
     private LocalDateTime playedAt;
 
@@ -51,8 +86,10 @@ public class GameRecord {
     }
 
     public enum OpponentType { HUMAN, BOT }
-    public enum GameMode { MANUAL, EASY, HARD, UNBEATABLE, CLASSIC, CHALLENGE }
+    public enum GameMode { MANUAL, EASY, HARD, UNBEATABLE, CLASSIC, CHALLENGE, ONLINE }
     public enum GameResult { WIN, LOSS, DRAW }
+    public enum PlayerColor { WHITE, BLACK }
+    public enum AnalysisStatus { PENDING, RUNNING, DONE, FAILED }
 
     // ========== GETTERS ==========
     public Long getId() { return id; }
@@ -60,11 +97,18 @@ public class GameRecord {
     public OpponentType getOpponentType() { return opponentType; }
     public GameMode getGameMode() { return gameMode; }
     public GameResult getResult() { return result; }
+    public PlayerColor getPlayerColor() { return playerColor; }
+    public String getOpponentName() { return opponentName; }
+    public Double getOpponentRating() { return opponentRating; }
+    public Double getOpponentDeviation() { return opponentDeviation; }
     public int getTotalMoves() { return totalMoves; }
     public int getDurationSeconds() { return durationSeconds; }
     public String getPgn() { return pgn; }
+    public byte[] getMoves() { return moves; }
     public int getBlunderCount() { return blunderCount; }
     public double getAccuracyScore() { return accuracyScore; }
+    public AnalysisStatus getAnalysisStatus() { return analysisStatus; }
+    public String getMoveLosses() { return moveLosses; }
     public LocalDateTime getPlayedAt() { return playedAt; }
 
     // ========== SETTERS ==========
@@ -73,10 +117,17 @@ public class GameRecord {
     public void setOpponentType(OpponentType opponentType) { this.opponentType = opponentType; }
     public void setGameMode(GameMode gameMode) { this.gameMode = gameMode; }
     public void setResult(GameResult result) { this.result = result; }
+    public void setPlayerColor(PlayerColor playerColor) { this.playerColor = playerColor; }
+    public void setOpponentName(String opponentName) { this.opponentName = opponentName; }
+    public void setOpponentRating(Double opponentRating) { this.opponentRating = opponentRating; }
+    public void setOpponentDeviation(Double opponentDeviation) { this.opponentDeviation = opponentDeviation; }
     public void setTotalMoves(int totalMoves) { this.totalMoves = totalMoves; }
     public void setDurationSeconds(int durationSeconds) { this.durationSeconds = durationSeconds; }
     public void setPgn(String pgn) { this.pgn = pgn; }
+    public void setMoves(byte[] moves) { this.moves = moves; }
     public void setBlunderCount(int blunderCount) { this.blunderCount = blunderCount; }
     public void setAccuracyScore(double accuracyScore) { this.accuracyScore = accuracyScore; }
+    public void setAnalysisStatus(AnalysisStatus analysisStatus) { this.analysisStatus = analysisStatus; }
+    public void setMoveLosses(String moveLosses) { this.moveLosses = moveLosses; }
     public void setPlayedAt(LocalDateTime playedAt) { this.playedAt = playedAt; }
 }
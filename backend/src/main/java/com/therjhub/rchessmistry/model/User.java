@@ -1,6 +1,7 @@
 package com.therjhub.rchessmistry.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import java.time.LocalDateTime;
 
 @Entity
@@ -20,28 +21,35 @@ public class User {
     @Column(name = "display_name", length = 50)
     private String displayName;
 
-    @Column(name = "profile_photo_url")
+    // Both photo columns are set through UserRepository's photo queries only, so a
+    // thumbnail finished in the background is never overwritten by a stale save
+    @Column(name = "profile_photo_url", updatable = false)
     private String profilePhotoUrl;
 
-    @Column(name = "wins")
+    @Column(name = "profile_thumbnail_url", updatable = false)
+    private String profileThumbnailUrl;
+
+    // Game counters only change through UserRepository.addGameResult, so saving a
+    // stale User (theme, name, login) can never roll back a concurrent game
+    @Column(name = "wins", updatable = false)
     private int wins = 0;
 
-    @Column(name = "losses")
+    @Column(name = "losses", updatable = false)
     private int losses = 0;
 
-    @Column(name = "draws")
+    @Column(name = "draws", updatable = false)
     private int draws = 0;
 
-    @Column(name = "games_played")
+    @Column(name = "games_played", updatable = false)
     private int gamesPlayed = 0;
 
-    @Column(name = "total_moves")
+    @Column(name = "total_moves", updatable = false)
     private int totalMoves = 0;
 
-    @Column(name = "best_streak")
+    @Column(name = "best_streak", updatable = false)
     private int bestStreak = 0;
 
-    @Column(name = "current_streak")
+    @Column(name = "current_streak", updatable = false)
     private int currentStreak = 0;
 
     @Column(name = "device_id")
@@ -59,7 +67,30 @@ public class User {
     @Column(name = "last_login")
     private LocalDateTime lastLogin;
 
-    @Column(name = "synced_to_sheet")
+    // Glicko-2 rating, written only by RatingService's update queries so saving a
+    // stale User never rolls it back; column defaults let ddl-auto add these to an existing table
+    @ColumnDefault("1500")
+    @Column(name = "rating", nullable = false, updatable = false)
+    private double rating = 1500;
+
+    @ColumnDefault("350")
+    @Column(name = "rating_deviation", nullable = false, updatable = false)
+    private double ratingDeviation = 350;
+
+    @ColumnDefault("0.06")
+    @Column(name = "rating_volatility", nullable = false, updatable = false)
+    private double ratingVolatility = 0.06;
+
+    @ColumnDefault("0")
+    @Column(name = "rated_games", nullable = false, updatable = false)
+    private int ratedGames = 0;
+
+    @ColumnDefault("0")
+    @Column(name = "challenge_points", nullable = false, updatable = false)
+    private int challengePoints = 0;
+
+    // Cleared through GoogleSheetsService's queries only, like the rating columns
+    @Column(name = "synced_to_sheet", updatable = false)
     private boolean syncedToSheet = false;
 
     @PrePersist
@@ -79,6 +110,7 @@ public class User {
     public String getPassword() { return password; }
     public String getDisplayName() { return displayName; }
     public String getProfilePhotoUrl() { return profilePhotoUrl; }
+    public String getProfileThumbnailUrl() { return profileThumbnailUrl; }
     public int getWins() { return wins; }
     public int getLosses() { return losses; }
     public int getDraws() { return draws; }
@@ -92,6 +124,11 @@ public class User {
     public LocalDateTime getJoinedAt() { return joinedAt; }
     public LocalDateTime getLastLogin() { return lastLogin; }
     public boolean isSyncedToSheet() { return syncedToSheet; }
+    public double getRating() { return rating; }
+    public double getRatingDeviation() { return ratingDeviation; }
+    public double getRatingVolatility() { return ratingVolatility; }
+    public int getRatedGames() { return ratedGames; }
+    public int getChallengePoints() { return challengePoints; }
 
     // ========== SETTERS ==========
     public void setId(Long id) { this.id = id; }
@@ -99,6 +136,7 @@ public class User {
     public void setPassword(String password) { this.password = password; }
     public void setDisplayName(String displayName) { this.displayName = displayName; }
     public void setProfilePhotoUrl(String profilePhotoUrl) { this.profilePhotoUrl = profilePhotoUrl; }
+    public void setProfileThumbnailUrl(String profileThumbnailUrl) { this.profileThumbnailUrl = profileThumbnailUrl; }
     public void setWins(int wins) { this.wins = wins; }
     public void setLosses(int losses) { this.losses = losses; }
     public void setDraws(int draws) { this.draws = draws; }
@@ -112,4 +150,9 @@ public class User {
     public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
     public void setLastLogin(LocalDateTime lastLogin) { this.lastLogin = lastLogin; }
     public void setSyncedToSheet(boolean syncedToSheet) { this.syncedToSheet = syncedToSheet; }
+    public void setRating(double rating) { this.rating = rating; }
+    public void setRatingDeviation(double ratingDeviation) { this.ratingDeviation = ratingDeviation; }
+    public void setRatingVolatility(double ratingVolatility) { this.ratingVolatility = ratingVolatility; }
+    public void setRatedGames(int ratedGames) { this.ratedGames = ratedGames; }
+    public void setChallengePoints(int challengePoints) { this.challengePoints = challengePoints; }
 }
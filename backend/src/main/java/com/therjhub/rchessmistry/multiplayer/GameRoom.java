@@ -0,0 +1,111 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.therjhub.rchessmistry.engine.Board;
+import com.therjhub.rchessmistry.engine.Evaluator;
+import com.therjhub.rchessmistry.engine.Move;
+import com.therjhub.rchessmistry.engine.MoveGenerator;
+import com.therjhub.rchessmistry.engine.Notation;
+import com.therjhub.rchessmistry.engine.Piece;
+
+import java.util.Arrays;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * One game between two players. A room is only ever touched from its own
+ * event loop, so none of this needs locking; the chess rules are the
+ * engine's, with draws by repetition, the fifty-move rule and dead positions
+ * applied automatically.
+ */
+final class GameRoom {
+
+    enum Status { WAITING, PLAYING, FINISHED }
+
+    // Real games end long before; this stops one that never would
+    static final int MAX_PLIES = 1000;
+
+    final long id;
+    final ScheduledExecutorService loop;
+    final Board board = Board.startPosition();
+    final PlayerConnection[] seats = new PlayerConnection[2];
+    final String[] usernames = new String[2];
+    final ScheduledFuture<?>[] forfeits = new ScheduledFuture<?>[2];
+    // The connection whose open-room count this room holds while WAITING
+    PlayerConnection opener;
+    // Read by other loops to tell whether a player is busy
+    volatile Status status = Status.WAITING;
+    int drawOfferedBy = -1;
+    long startedAt;
+
+    private final int[] scratch = new int[MoveGenerator.MAX_MOVES];
+    private final StringBuilder text = new StringBuilder(8);
+    private int[] moves = new int[64];
+    // Position keys before the first move and after each ply, for threefold repetition
+    private long[] keys = new long[65];
+    private int ply;
+
+    GameRoom(long id, ScheduledExecutorService loop) {
+        this.id = id;
+        this.loop = loop;
+        keys[0] = board.key();
+    }
+
+    /** The seat (Piece.WHITE or Piece.BLACK) held by this user, or -1. */
+    int seatOf(String username) {
+        if (username.equals(usernames[Piece.WHITE])) return Piece.WHITE;
+        if (username.equals(usernames[Piece.BLACK])) return Piece.BLACK;
+        return -1;
+    }
+
+    /** The legal move written in UCI, or {@link Move#NONE}. */
+    int parse(String uci) {
+        if (uci == null) return Move.NONE;
+        return Notation.parseUci(board, uci, 0, uci.length(), scratch);
+    }
+
+    /** Plays a legal move and returns its SAN. */
+    String play(int move) {
+        text.setLength(0);
+        String san = Notation.appendSan(board, move, text, scratch).toString();
+        board.makeMove(move);
+        if (ply == moves.length) {
+            moves = Arrays.copyOf(moves, ply * 2);
+            keys = Arrays.copyOf(keys, ply * 2 + 1);
+        }
+        moves[ply++] = move;
+        keys[ply] = board.key();
+        return san;
+    }
+
+    int ply() { return ply; }
+
+    int[] moves() { return Arrays.copyOf(moves, ply); }
+
+    /** Why the game is over after the last move, or null if it goes on. */
+    String endReason() {
+        if (!hasLegalMove()) return board.inCheck() ? "checkmate" : "stalemate";
+        if (board.halfmoveClock() >= 100) return "fifty-move rule";
+        if (isThreefold()) return "threefold repetition";
+        if (Evaluator.isInsufficientMaterial(board)) return "insufficient material";
+        if (ply >= MAX_PLIES) return "move limit";
+        return null;
+    }
+
+    private boolean hasLegalMove() {
+        int count = MoveGenerator.generate(board, scratch);
+        for (int i = 0; i < count; i++) {
+            if (MoveGenerator.isLegal(board, scratch[i])) return true;
+        }
+        return false;
+    }
+
+    private boolean isThreefold() {
+        long key = keys[ply];
+        int seen = 1;
+        int limit = Math.max(0, ply - board.halfmoveClock());
+        for (int i = ply - 2; i >= limit && seen < 3; i -= 2) {
+            if (keys[i] == key) seen++;
+        }
+        return seen >= 3;
+    }
+}
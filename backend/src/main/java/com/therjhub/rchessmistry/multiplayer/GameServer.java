@@ -0,0 +1,480 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.engine.Board;
+import com.therjhub.rchessmistry.engine.GameCodec;
+import com.therjhub.rchessmistry.engine.Move;
+import com.therjhub.rchessmistry.engine.Piece;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.rating.Rating;
+import com.therjhub.rchessmistry.service.UserService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Real-time games between two people over the {@code /ws/game} socket.
+ * Rooms live in memory and are sharded by game id across single-threaded
+ * event loops: everything that touches a room runs on its loop, so moves are
+ * validated and broadcast without locks, and one busy game never delays games
+ * on other loops. Finished games are written through
+ * {@link UserService#saveGame} on a separate pool so the loops never wait on
+ * the database.
+ *
+ * <p>Client messages are JSON objects with a {@code type}: {@code create},
+ * {@code join} (also used to reconnect), {@code move} (UCI), {@code resign},
+ * {@code offerDraw}, {@code acceptDraw} and {@code ping}. Other parts of the
+ * package add their own types with {@link #handle}, as matchmaking does.
+ * A socket may have only {@code app.multiplayer.max-open-rooms} created rooms
+ * waiting for an opponent at once, and cannot start another game while it is
+ * playing one.
+ */
+@Service
+public class GameServer {
+
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+    static final String IN_GAME = "Finish your current game first";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.multiplayer.event-loops}")
+    private int eventLoops;
+
+    @Value("${app.multiplayer.reconnect-grace-ms}")
+    private long reconnectGraceMs;
+
+    @Value("${app.multiplayer.persist-threads}")
+    private int persistThreads;
+
+    @Value("${app.multiplayer.max-open-rooms}")
+    private int maxOpenRooms;
+
+    private ScheduledExecutorService[] loops;
+    private ExecutorService persistence;
+    private final Map<Long, GameRoom> rooms = new ConcurrentHashMap<>();
+    private final AtomicLong nextGameId = new AtomicLong();
+    private final Map<String, BiConsumer<PlayerConnection, JsonNode>> handlers = new ConcurrentHashMap<>();
+    private final List<Consumer<PlayerConnection>> disconnectListeners = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger connections = new AtomicInteger();
+    private final LongAdder gamesStarted = new LongAdder();
+    private final LongAdder gamesFinished = new LongAdder();
+    private final LongAdder movesPlayed = new LongAdder();
+    private final LongAdder moveNanos = new LongAdder();
+    private final LongAccumulator maxMoveNanos = new LongAccumulator(Math::max, 0);
+
+    @PostConstruct
+    public void start() {
+        int count = eventLoops > 0 ? eventLoops : Runtime.getRuntime().availableProcessors();
+        loops = new ScheduledExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            String name = "game-loop-" + (i + 1);
+            loops[i] = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, name);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        AtomicInteger counter = new AtomicInteger();
+        persistence = Executors.newFixedThreadPool(persistThreads, runnable -> {
+            Thread thread = new Thread(runnable, "game-persist-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (ScheduledExecutorService loop : loops) loop.shutdownNow();
+        persistence.shutdown();
+    }
+
+    private ScheduledExecutorService loopFor(long gameId) {
+        return loops[(int) Math.floorMod(gameId, (long) loops.length)];
+    }
+
+    // ========== CONNECTIONS ==========
+
+    /** Routes messages of another type to {@code handler}, on the socket's own thread. */
+    void handle(String type, BiConsumer<PlayerConnection, JsonNode> handler) {
+        handlers.put(type, handler);
+    }
+
+    void onDisconnect(Consumer<PlayerConnection> listener) {
+        disconnectListeners.add(listener);
+    }
+
+    void connected(PlayerConnection connection) {
+        connections.incrementAndGet();
+    }
+
+    void disconnected(PlayerConnection connection) {
+        connections.decrementAndGet();
+        for (Consumer<PlayerConnection> listener : disconnectListeners) listener.accept(connection);
+        for (Long gameId : connection.getGameIds()) {
+            GameRoom room = rooms.get(gameId);
+            if (room != null) room.loop.execute(() -> leave(room, connection));
+        }
+    }
+
+    void received(PlayerConnection connection, String text) {
+        long receivedAt = System.nanoTime();
+        JsonNode message;
+        try {
+            message = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            connection.send(error(null, "Malformed message"));
+            return;
+        }
+        String type = message.path("type").asText();
+        if (type.equals("ping")) {
+            connection.send(json(fields("type", "pong")));
+            return;
+        }
+        if (type.equals("create")) {
+            create(connection);
+            return;
+        }
+        BiConsumer<PlayerConnection, JsonNode> handler = handlers.get(type);
+        if (handler != null) {
+            handler.accept(connection, message);
+            return;
+        }
+
+        long gameId = message.path("gameId").asLong(-1);
+        GameRoom room = rooms.get(gameId);
+        if (room == null) {
+            connection.send(error(gameId, "Game not found"));
+            return;
+        }
+        room.loop.execute(() -> {
+            switch (type) {
+                case "join" -> join(room, connection);
+                case "move" -> move(room, connection, message.path("move").asText(null), receivedAt);
+                case "resign" -> resign(room, connection);
+                case "offerDraw" -> offerDraw(room, connection);
+                case "acceptDraw" -> acceptDraw(room, connection);
+                default -> connection.send(error(room.id, "Unknown message type"));
+            }
+        });
+    }
+
+    // ========== ROOMS (each runs on the room's loop) ==========
+
+    private void create(PlayerConnection creator) {
+        if (inGame(creator)) {
+            creator.send(error(null, IN_GAME));
+            return;
+        }
+        if (creator.getOpenRooms().incrementAndGet() > maxOpenRooms) {
+            creator.getOpenRooms().decrementAndGet();
+            creator.send(error(null, "You already have a game waiting for an opponent"));
+            return;
+        }
+        long id = nextGameId.incrementAndGet();
+        GameRoom room = new GameRoom(id, loopFor(id));
+        room.opener = creator;
+        room.seats[Piece.WHITE] = creator;
+        room.usernames[Piece.WHITE] = creator.getUsername();
+        creator.getGameIds().add(id);
+        rooms.put(id, room);
+        room.loop.execute(() -> creator.send(json(fields("type", "created", "gameId", id, "color", "white"))));
+    }
+
+    /** True while this socket holds a seat in a game being played; safe from any thread. */
+    boolean inGame(PlayerConnection connection) {
+        for (Long gameId : connection.getGameIds()) {
+            GameRoom room = rooms.get(gameId);
+            if (room != null && room.status == GameRoom.Status.PLAYING) return true;
+        }
+        return false;
+    }
+
+    /** Starts a game between two already-paired players; white is the first argument. */
+    long startGame(PlayerConnection white, PlayerConnection black) {
+        long id = nextGameId.incrementAndGet();
+        GameRoom room = new GameRoom(id, loopFor(id));
+        room.seats[Piece.WHITE] = white;
+        room.usernames[Piece.WHITE] = white.getUsername();
+        white.getGameIds().add(id);
+        rooms.put(id, room);
+        room.loop.execute(() -> {
+            join(room, black);
+            // A socket that closed just before it was seated missed its disconnect; this starts the forfeit clock
+            if (!white.isOpen()) leave(room, white);
+            if (!black.isOpen()) leave(room, black);
+        });
+        return id;
+    }
+
+    private void join(GameRoom room, PlayerConnection player) {
+        int seat = room.seatOf(player.getUsername());
+        if (seat >= 0) {
+            reconnect(room, seat, player);
+            return;
+        }
+        if (room.status != GameRoom.Status.WAITING) {
+            player.send(error(room.id, "This game already has two players"));
+            return;
+        }
+        if (inGame(player)) {
+            player.send(error(room.id, IN_GAME));
+            return;
+        }
+        room.seats[Piece.BLACK] = player;
+        room.usernames[Piece.BLACK] = player.getUsername();
+        player.getGameIds().add(room.id);
+        closeWaiting(room);
+        room.status = GameRoom.Status.PLAYING;
+        room.startedAt = System.currentTimeMillis();
+        gamesStarted.increment();
+        broadcast(room, json(fields("type", "start", "gameId", room.id,
+                "white", room.usernames[Piece.WHITE], "black", room.usernames[Piece.BLACK],
+                "fen", room.board.toFen())));
+    }
+
+    private void reconnect(GameRoom room, int seat, PlayerConnection player) {
+        room.seats[seat] = player;
+        player.getGameIds().add(room.id);
+        if (room.forfeits[seat] != null) {
+            room.forfeits[seat].cancel(false);
+            room.forfeits[seat] = null;
+        }
+        String[] uci = new String[room.ply()];
+        int[] moves = room.moves();
+        for (int i = 0; i < moves.length; i++) uci[i] = Move.toUci(moves[i]);
+        player.send(json(fields("type", "state", "gameId", room.id,
+                "white", room.usernames[Piece.WHITE], "black", room.usernames[Piece.BLACK],
+                "color", seat == Piece.WHITE ? "white" : "black", "status", room.status.name(),
+                "moves", uci, "fen", room.board.toFen())));
+        PlayerConnection opponent = room.seats[seat ^ 1];
+        if (opponent != null) opponent.send(json(fields("type", "opponentReconnected", "gameId", room.id)));
+    }
+
+    private void leave(GameRoom room, PlayerConnection connection) {
+        int seat = room.seatOf(connection.getUsername());
+        // A newer connection for the same player has already taken the seat
+        if (seat < 0 || room.seats[seat] != connection) return;
+        room.seats[seat] = null;
+        if (room.status == GameRoom.Status.WAITING) {
+            closeWaiting(room);
+            rooms.remove(room.id);
+            return;
+        }
+        if (room.status != GameRoom.Status.PLAYING) return;
+        if (room.seats[seat ^ 1] == null) {
+            // Both players are gone; nobody is left to award the game to
+            finish(room, -1, "abandoned", false);
+            return;
+        }
+        room.seats[seat ^ 1].send(json(fields("type", "opponentDisconnected", "gameId", room.id,
+                "graceMs", reconnectGraceMs)));
+        room.forfeits[seat] = room.loop.schedule(() -> {
+            if (room.status == GameRoom.Status.PLAYING && room.seats[seat] == null) {
+                finish(room, seat ^ 1, "abandonment", true);
+            }
+        }, reconnectGraceMs, TimeUnit.MILLISECONDS);
+    }
+
+    // The room is no longer waiting for an opponent, so its creator may open another
+    private static void closeWaiting(GameRoom room) {
+        if (room.opener == null) return;
+        room.opener.getOpenRooms().decrementAndGet();
+        room.opener = null;
+    }
+
+    private void move(GameRoom room, PlayerConnection player, String uci, long receivedAt) {
+        int seat = playing(room, player);
+        if (seat < 0) return;
+        if (room.board.sideToMove() != seat) {
+            player.send(error(room.id, "Not your turn"));
+            return;
+        }
+        int move = room.parse(uci);
+        if (move == Move.NONE) {
+            player.send(error(room.id, "Illegal move"));
+            return;
+        }
+        String san = room.play(move);
+        room.drawOfferedBy = -1;
+        broadcast(room, json(fields("type", "move", "gameId", room.id, "ply", room.ply(),
+                "move", Move.toUci(move), "san", san, "fen", room.board.toFen())));
+        movesPlayed.increment();
+        long elapsed = System.nanoTime() - receivedAt;
+        moveNanos.add(elapsed);
+        maxMoveNanos.accumulate(elapsed);
+
+        String reason = room.endReason();
+        if (reason == null) return;
+        // Checkmate is the only decisive ending here; the side to move is the one mated
+        int winner = reason.equals("checkmate") ? room.board.sideToMove() ^ 1 : -1;
+        finish(room, winner, reason, true);
+    }
+
+    private void resign(GameRoom room, PlayerConnection player) {
+        int seat = playing(room, player);
+        if (seat >= 0) finish(room, seat ^ 1, "resignation", true);
+    }
+
+    private void offerDraw(GameRoom room, PlayerConnection player) {
+        int seat = playing(room, player);
+        if (seat < 0) return;
+        room.drawOfferedBy = seat;
+        PlayerConnection opponent = room.seats[seat ^ 1];
+        if (opponent != null) opponent.send(json(fields("type", "drawOffered", "gameId", room.id)));
+    }
+
+    private void acceptDraw(GameRoom room, PlayerConnection player) {
+        int seat = playing(room, player);
+        if (seat < 0) return;
+        if (room.drawOfferedBy != (seat ^ 1)) {
+            player.send(error(room.id, "There is no draw offer to accept"));
+            return;
+        }
+        finish(room, -1, "agreement", true);
+    }
+
+    // The player's seat if they are in this game and it is in progress, otherwise -1 after telling them why
+    private int playing(GameRoom room, PlayerConnection player) {
+        int seat = room.seatOf(player.getUsername());
+        if (seat < 0) {
+            player.send(error(room.id, "You are not playing in this game"));
+        } else if (room.status != GameRoom.Status.PLAYING) {
+            player.send(error(room.id, "Game is not in progress"));
+            seat = -1;
+        }
+        return seat;
+    }
+
+    /** Ends the game; {@code winner} is a seat, or -1 for a draw (or an abandoned game). */
+    private void finish(GameRoom room, int winner, String reason, boolean save) {
+        room.status = GameRoom.Status.FINISHED;
+        rooms.remove(room.id);
+        for (int seat = 0; seat < 2; seat++) {
+            if (room.forfeits[seat] != null) room.forfeits[seat].cancel(false);
+            if (room.seats[seat] != null) room.seats[seat].getGameIds().remove(room.id);
+        }
+        String result = winner == Piece.WHITE ? "1-0" : winner == Piece.BLACK ? "0-1" : "1/2-1/2";
+        broadcast(room, json(fields("type", "end", "gameId", room.id, "result", result, "reason", reason)));
+        gamesFinished.increment();
+        if (!save) return;
+
+        int[] moves = room.moves();
+        int durationSeconds = (int) ((System.currentTimeMillis() - room.startedAt) / 1000);
+        String white = room.usernames[Piece.WHITE], black = room.usernames[Piece.BLACK];
+        persistence.execute(() -> {
+            Map<String, String> tags = new LinkedHashMap<>();
+            tags.put("Event", "rChessMistry online game");
+            tags.put("Site", "rChessMistry");
+            tags.put("Date", LocalDate.now().format(PGN_DATE));
+            tags.put("White", white);
+            tags.put("Black", black);
+            tags.put("Result", result);
+            String pgn = GameCodec.toPgn(GameCodec.encode(Board.START_FEN, moves, moves.length), tags);
+            // Both are read before either save, so each player is rated against the other's pre-game rating
+            Rating whiteRating = rating(white), blackRating = rating(black);
+            save(white, GameRecord.PlayerColor.WHITE, black, blackRating,
+                    winner == Piece.WHITE ? "WIN" : winner == Piece.BLACK ? "LOSS" : "DRAW",
+                    moves.length, durationSeconds, pgn);
+            save(black, GameRecord.PlayerColor.BLACK, white, whiteRating,
+                    winner == Piece.BLACK ? "WIN" : winner == Piece.WHITE ? "LOSS" : "DRAW",
+                    moves.length, durationSeconds, pgn);
+        });
+    }
+
+    private void save(String username, GameRecord.PlayerColor color, String opponent, Rating opponentRating,
+                      String result, int plies, int durationSeconds, String pgn) {
+        SaveGameRequest request = new SaveGameRequest();
+        request.setOpponentType(GameRecord.OpponentType.HUMAN.name());
+        request.setGameMode(GameRecord.GameMode.ONLINE.name());
+        request.setResult(result);
+        request.setPlayerColor(color.name());
+        request.setOpponentName(opponent);
+        request.setTotalMoves(plies);
+        request.setDurationSeconds(durationSeconds);
+        request.setPgn(pgn);
+        try {
+            userService.saveGame(username, request, opponentRating);
+        } catch (RuntimeException e) {
+            System.out.println("⚠️  Could not save online game for " + username + ": " + e.getMessage());
+        }
+    }
+
+    // Null leaves the game unrated, e.g. if the account is gone
+    private Rating rating(String username) {
+        try {
+            User user = userService.getProfile(username);
+            return new Rating(user.getRating(), user.getRatingDeviation(), user.getRatingVolatility());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // ========== MESSAGES ==========
+
+    private static void broadcast(GameRoom room, String text) {
+        for (PlayerConnection seat : room.seats) {
+            if (seat != null) seat.send(text);
+        }
+    }
+
+    String error(Long gameId, String message) {
+        return json(fields("type", "error", "gameId", gameId, "message", message));
+    }
+
+    static Map<String, Object> fields(Object... keyValues) {
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) map.put((String) keyValues[i], keyValues[i + 1]);
+        return map;
+    }
+
+    String json(Map<String, Object> fields) {
+        try {
+            return objectMapper.writeValueAsString(fields);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long moves = movesPlayed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("eventLoops", loops.length);
+        stats.put("connections", connections.get());
+        stats.put("activeGames", rooms.size());
+        stats.put("gamesStarted", gamesStarted.sum());
+        stats.put("gamesFinished", gamesFinished.sum());
+        stats.put("movesPlayed", moves);
+        stats.put("moveAvgMs", moves == 0 ? 0 : moveNanos.sum() / moves / 1_000_000.0);
+        stats.put("moveMaxMs", maxMoveNanos.get() / 1_000_000.0);
+        return stats;
+    }
+}
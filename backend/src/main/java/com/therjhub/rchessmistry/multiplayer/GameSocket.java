@@ -0,0 +1,117 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.therjhub.rchessmistry.config.JwtUtil;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.HandshakeResponse;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.HandshakeRequest;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The {@code /ws/game} endpoint. The handshake is authenticated with the
+ * usual JWT, from an {@code Authorization: Bearer} header or, for clients
+ * that cannot set headers on a socket, a {@code token} query parameter.
+ */
+@Component
+public class GameSocket extends Endpoint {
+
+    public static final String PATH = "/ws/game";
+
+    private static final String AUTHORIZATION = "authorization";
+    private static final String CONNECTION = "connection";
+
+    @Autowired
+    private GameServer gameServer;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.multiplayer.idle-timeout-ms}")
+    private long idleTimeoutMs;
+
+    @Value("${app.multiplayer.max-message-bytes}")
+    private int maxMessageBytes;
+
+    /** Endpoint config that hands every session this bean and keeps its handshake header. */
+    public ServerEndpointConfig config() {
+        GameSocket endpoint = this;
+        return ServerEndpointConfig.Builder.create(GameSocket.class, PATH)
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(endpoint);
+                    }
+
+                    // The properties are per session, so the header stays with its own connection
+                    @Override
+                    public void modifyHandshake(ServerEndpointConfig sec, HandshakeRequest request,
+                                                HandshakeResponse response) {
+                        List<String> header = request.getHeaders().get("Authorization");
+                        if (header != null && !header.isEmpty()) sec.getUserProperties().put(AUTHORIZATION, header.get(0));
+                    }
+                })
+                .build();
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {
+        String username = authenticate(session, config.getUserProperties());
+        Optional<User> user = username == null ? Optional.empty() : userRepository.findByUsername(username);
+        if (user.isEmpty()) {
+            close(session, "Authentication required");
+            return;
+        }
+        session.setMaxIdleTimeout(idleTimeoutMs);
+        session.setMaxTextMessageBufferSize(maxMessageBytes);
+        PlayerConnection connection = new PlayerConnection(session, user.get().getId(), user.get().getUsername());
+        session.getUserProperties().put(CONNECTION, connection);
+        session.addMessageHandler(String.class,
+                (MessageHandler.Whole<String>) text -> gameServer.received(connection, text));
+        gameServer.connected(connection);
+    }
+
+    @Override
+    public void onClose(Session session, CloseReason closeReason) {
+        Object connection = session.getUserProperties().get(CONNECTION);
+        if (connection != null) gameServer.disconnected((PlayerConnection) connection);
+    }
+
+    @Override
+    public void onError(Session session, Throwable error) {
+        // The container closes the session afterwards, which runs onClose
+    }
+
+    private String authenticate(Session session, Map<String, Object> properties) {
+        String token = null;
+        Object header = properties.get(AUTHORIZATION);
+        if (header instanceof String value && value.startsWith("Bearer ")) token = value.substring(7);
+        List<String> query = session.getRequestParameterMap().get("token");
+        if (token == null && query != null && !query.isEmpty()) token = query.get(0);
+        Claims claims = token == null ? null : jwtUtil.parseToken(token);
+        return claims == null ? null : claims.getSubject();
+    }
+
+    private static void close(Session session, String reason) {
+        try {
+            session.close(new CloseReason(CloseReason.CloseCodes.VIOLATED_POLICY, reason));
+        } catch (java.io.IOException ignored) {
+            // Already gone
+        }
+    }
+}
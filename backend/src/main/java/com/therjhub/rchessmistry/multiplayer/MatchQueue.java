@@ -0,0 +1,150 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Players waiting for an opponent in one pool, held in lock-free queues per
+ * rating bucket. A player is tried against the queue the moment they arrive
+ * and again on every tick. The rating window searched around them widens
+ * with their wait and is lifted at the target wait, so nobody waits much
+ * past it while anyone else is in the pool.
+ *
+ * <p>Tickets are claimed by compare-and-set, so arrivals on many threads,
+ * the tick and cancellations never pair a player twice. Claimed tickets are
+ * dropped from the queues lazily, on the next tick. Time is passed in rather
+ * than read, so a simulation can run the queue on its own clock.
+ */
+final class MatchQueue<P> {
+
+    // Ratings above this share the top bucket
+    private static final double MAX_RATING = 4000;
+
+    private static final int WAITING = 0;
+    // Being tried against the queue; a cancel waits for the outcome
+    private static final int CLAIMED = 1;
+    private static final int TAKEN = 2;
+
+    /** One player's place in the queue. */
+    static final class Ticket<P> {
+        final P player;
+        final double rating;
+        final long enqueuedAt;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        Ticket(P player, double rating, long enqueuedAt) {
+            this.player = player;
+            this.rating = rating;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        boolean isTaken() { return state.get() == TAKEN; }
+    }
+
+    /** Receives each pair; both tickets are already out of the queue. */
+    interface Pairing<P> {
+        void paired(Ticket<P> first, Ticket<P> second, long now);
+    }
+
+    private final double bucketWidth;
+    private final double initialWindow;
+    private final double maxWindow;
+    private final long targetWaitMs;
+    private final Pairing<P> pairing;
+
+    private final ConcurrentLinkedQueue<Ticket<P>>[] buckets;
+    // Every waiting ticket in arrival order, so a tick serves the longest waits first
+    private final ConcurrentLinkedQueue<Ticket<P>> arrivals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    @SuppressWarnings("unchecked")
+    MatchQueue(double bucketWidth, double initialWindow, double maxWindow, long targetWaitMs, Pairing<P> pairing) {
+        this.bucketWidth = bucketWidth;
+        this.initialWindow = initialWindow;
+        this.maxWindow = maxWindow;
+        this.targetWaitMs = targetWaitMs;
+        this.pairing = pairing;
+        buckets = new ConcurrentLinkedQueue[(int) Math.ceil(MAX_RATING / bucketWidth)];
+        for (int i = 0; i < buckets.length; i++) buckets[i] = new ConcurrentLinkedQueue<>();
+    }
+
+    int size() { return waiting.get(); }
+
+    /** Pairs a new ticket right away if someone suitable is waiting, otherwise queues it. */
+    void offer(Ticket<P> ticket, long now) {
+        waiting.incrementAndGet();
+        if (!ticket.state.compareAndSet(WAITING, CLAIMED)) return;
+        if (match(ticket, now)) return;
+        buckets[bucket(ticket.rating)].add(ticket);
+        arrivals.add(ticket);
+        ticket.state.set(WAITING);
+    }
+
+    /** Withdraws a ticket; false if it has already been paired. */
+    boolean cancel(Ticket<P> ticket) {
+        while (true) {
+            if (ticket.state.compareAndSet(WAITING, TAKEN)) {
+                waiting.decrementAndGet();
+                return true;
+            }
+            if (ticket.state.get() == TAKEN) return false;
+            Thread.onSpinWait();
+        }
+    }
+
+    /** Retries everyone still waiting with their widened windows. Call from one thread at a time. */
+    void tick(long now) {
+        for (Ticket<P> ticket : arrivals) {
+            if (!ticket.state.compareAndSet(WAITING, CLAIMED)) continue;
+            if (!match(ticket, now)) ticket.state.set(WAITING);
+        }
+        arrivals.removeIf(Ticket::isTaken);
+        for (ConcurrentLinkedQueue<Ticket<P>> bucket : buckets) bucket.removeIf(Ticket::isTaken);
+    }
+
+    // The ticket is CLAIMED by the caller; on a match both end up TAKEN
+    private boolean match(Ticket<P> ticket, long now) {
+        Ticket<P> opponent = claimOpponent(ticket, now);
+        if (opponent == null) return false;
+        ticket.state.set(TAKEN);
+        waiting.addAndGet(-2);
+        pairing.paired(opponent, ticket, now);
+        return true;
+    }
+
+    // Nearest buckets first, oldest ticket first within a bucket
+    private Ticket<P> claimOpponent(Ticket<P> ticket, long now) {
+        double window = window(ticket, now);
+        int center = bucket(ticket.rating);
+        int reach = Double.isInfinite(window) ? buckets.length : (int) Math.ceil(window / bucketWidth);
+        for (int distance = 0; distance <= reach; distance++) {
+            if (center - distance < 0 && center + distance >= buckets.length) break;
+            Ticket<P> opponent = claimIn(center - distance, ticket, window, now);
+            if (opponent == null && distance > 0) opponent = claimIn(center + distance, ticket, window, now);
+            if (opponent != null) return opponent;
+        }
+        return null;
+    }
+
+    private Ticket<P> claimIn(int index, Ticket<P> ticket, double window, long now) {
+        if (index < 0 || index >= buckets.length) return null;
+        for (Ticket<P> candidate : buckets[index]) {
+            if (candidate.state.get() != WAITING) continue;
+            // The longer wait of the two decides how far apart they may be
+            double gap = Math.abs(candidate.rating - ticket.rating);
+            if (gap > Math.max(window, window(candidate, now))) continue;
+            if (candidate.state.compareAndSet(WAITING, TAKEN)) return candidate;
+        }
+        return null;
+    }
+
+    private double window(Ticket<P> ticket, long now) {
+        long waited = now - ticket.enqueuedAt;
+        if (waited >= targetWaitMs) return Double.POSITIVE_INFINITY;
+        return initialWindow + (maxWindow - initialWindow) * Math.max(0, waited) / targetWaitMs;
+    }
+
+    private int bucket(double rating) {
+        return Math.max(0, Math.min(buckets.length - 1, (int) (rating / bucketWidth)));
+    }
+}
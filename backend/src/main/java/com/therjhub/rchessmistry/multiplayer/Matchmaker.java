@@ -0,0 +1,193 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.rating.Rating;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pairs players who ask for an opponent over the game socket. Each
+ * configured {@link GameRecord.GameMode} has its own {@link MatchQueue}
+ * keyed by the player's current rating; a pair is handed straight to
+ * {@link GameServer#startGame} with colours drawn at random.
+ *
+ * <p>Adds the socket messages {@code seek} (optional {@code mode}, default
+ * ONLINE) and {@code cancelSeek}. A player can wait in one queue at a time,
+ * and leaves it when their socket closes. A player in a game cannot seek, and
+ * if one of a pair has closed their socket or started a game meanwhile, the
+ * other goes back in the queue.
+ */
+@Service
+public class Matchmaker {
+
+    @Autowired
+    private GameServer gameServer;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.matchmaking.modes}")
+    private String modes;
+
+    @Value("${app.matchmaking.bucket-width}")
+    private double bucketWidth;
+
+    @Value("${app.matchmaking.initial-window}")
+    private double initialWindow;
+
+    @Value("${app.matchmaking.max-window}")
+    private double maxWindow;
+
+    @Value("${app.matchmaking.target-wait-ms}")
+    private long targetWaitMs;
+
+    private final Map<GameRecord.GameMode, MatchQueue<PlayerConnection>> pools = new EnumMap<>(GameRecord.GameMode.class);
+    // By username, so a second tab cannot queue the same player twice (or against themselves)
+    private final Map<String, Seek> seeking = new ConcurrentHashMap<>();
+
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder waitMillis = new LongAdder();
+    private final LongAccumulator maxWaitMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder overTarget = new LongAdder();
+    private final LongAdder ratingGap = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        for (String mode : modes.split(",")) {
+            pools.put(GameRecord.GameMode.valueOf(mode.trim()),
+                    new MatchQueue<>(bucketWidth, initialWindow, maxWindow, targetWaitMs, this::paired));
+        }
+        gameServer.handle("seek", this::seek);
+        gameServer.handle("cancelSeek", (connection, message) -> cancel(connection, true));
+        gameServer.onDisconnect(connection -> cancel(connection, false));
+    }
+
+    private void seek(PlayerConnection connection, JsonNode message) {
+        MatchQueue<PlayerConnection> pool = null;
+        String mode = message.path("mode").asText(GameRecord.GameMode.ONLINE.name()).toUpperCase();
+        try {
+            pool = pools.get(GameRecord.GameMode.valueOf(mode));
+        } catch (IllegalArgumentException e) {
+            // Not a game mode at all; answered below like a mode without matchmaking
+        }
+        if (pool == null) {
+            connection.send(gameServer.error(null, "Matchmaking is not available for that game mode"));
+            return;
+        }
+        if (gameServer.inGame(connection)) {
+            connection.send(gameServer.error(null, GameServer.IN_GAME));
+            return;
+        }
+        Rating rating = userRepository.findRating(connection.getUserId());
+        double value = rating != null ? rating.getRating() : Rating.INITIAL.getRating();
+        MatchQueue.Ticket<PlayerConnection> ticket = new MatchQueue.Ticket<>(connection, value, System.currentTimeMillis());
+        Seek seek = new Seek(pool, ticket);
+        if (seeking.putIfAbsent(connection.getUsername(), seek) != null) {
+            connection.send(gameServer.error(null, "You are already looking for a game"));
+            return;
+        }
+        connection.send(gameServer.json(GameServer.fields("type", "seeking", "mode", mode,
+                "rating", Math.round(value))));
+        pool.offer(ticket, ticket.enqueuedAt);
+    }
+
+    private void cancel(PlayerConnection connection, boolean reply) {
+        Seek seek = seeking.get(connection.getUsername());
+        // Only the connection that queued can withdraw it
+        if (seek == null || seek.ticket.player != connection) return;
+        if (seek.pool.cancel(seek.ticket)) {
+            seeking.remove(connection.getUsername(), seek);
+            if (reply) connection.send(gameServer.json(GameServer.fields("type", "seekCancelled")));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.matchmaking.tick-ms}")
+    public void tick() {
+        long now = System.currentTimeMillis();
+        for (MatchQueue<PlayerConnection> pool : pools.values()) pool.tick(now);
+    }
+
+    private void paired(MatchQueue.Ticket<PlayerConnection> first, MatchQueue.Ticket<PlayerConnection> second, long now) {
+        // A socket that closed while its ticket was being paired could no longer withdraw it,
+        // and one that sat down in a game since it queued cannot play a second
+        if (!available(first.player) || !available(second.player)) {
+            requeue(first);
+            requeue(second);
+            return;
+        }
+        try {
+            left(first, now);
+            left(second, now);
+            matches.increment();
+            ratingGap.add(Math.round(Math.abs(first.rating - second.rating)));
+            boolean swap = ThreadLocalRandom.current().nextBoolean();
+            gameServer.startGame(swap ? second.player : first.player, swap ? first.player : second.player);
+        } catch (RuntimeException e) {
+            System.out.println("⚠️  Could not start a matched game: " + e.getMessage());
+        }
+    }
+
+    private boolean available(PlayerConnection connection) {
+        return connection.isOpen() && !gameServer.inGame(connection);
+    }
+
+    // Puts an available player back in their pool, keeping their place by wait; drops anyone else
+    private void requeue(MatchQueue.Ticket<PlayerConnection> ticket) {
+        String username = ticket.player.getUsername();
+        Seek seek = seeking.get(username);
+        if (seek == null || seek.ticket != ticket) return;
+        if (!available(ticket.player)) {
+            seeking.remove(username, seek);
+            ticket.player.send(gameServer.json(GameServer.fields("type", "seekCancelled")));
+            return;
+        }
+        MatchQueue.Ticket<PlayerConnection> again = new MatchQueue.Ticket<>(ticket.player, ticket.rating, ticket.enqueuedAt);
+        if (!seeking.replace(username, seek, new Seek(seek.pool, again))) return;
+        seek.pool.offer(again, System.currentTimeMillis());
+    }
+
+    private void left(MatchQueue.Ticket<PlayerConnection> ticket, long now) {
+        seeking.computeIfPresent(ticket.player.getUsername(), (username, seek) -> seek.ticket == ticket ? null : seek);
+        long waited = Math.max(0, now - ticket.enqueuedAt);
+        waitMillis.add(waited);
+        maxWaitMillis.accumulate(waited);
+        if (waited > targetWaitMs) overTarget.increment();
+    }
+
+    public Map<String, Object> getStats() {
+        long made = matches.sum();
+        int queued = 0;
+        for (MatchQueue<PlayerConnection> pool : pools.values()) queued += pool.size();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("matchQueued", queued);
+        stats.put("matchesMade", made);
+        stats.put("matchWaitAvgMs", made == 0 ? 0 : waitMillis.sum() / (2 * made));
+        stats.put("matchWaitMaxMs", maxWaitMillis.get());
+        stats.put("matchOverTargetWait", overTarget.sum());
+        stats.put("matchRatingGapAvg", made == 0 ? 0 : ratingGap.sum() / made);
+        return stats;
+    }
+
+    private static final class Seek {
+        final MatchQueue<PlayerConnection> pool;
+        final MatchQueue.Ticket<PlayerConnection> ticket;
+
+        Seek(MatchQueue<PlayerConnection> pool, MatchQueue.Ticket<PlayerConnection> ticket) {
+            this.pool = pool;
+            this.ticket = ticket;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.Session;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One player's socket. Tomcat allows a single outstanding async send per
+ * session, so frames queue here and each completed send starts the next.
+ * A client that lets too much back up is disconnected rather than buffered.
+ */
+final class PlayerConnection {
+
+    private static final int MAX_QUEUED = 256;
+
+    private final Session session;
+    private final Long userId;
+    private final String username;
+    // Games this connection holds a seat in, so a disconnect only visits those rooms
+    private final Set<Long> gameIds = ConcurrentHashMap.newKeySet();
+    // Rooms this connection created that are still waiting for an opponent
+    private final AtomicInteger openRooms = new AtomicInteger();
+
+    private final ArrayDeque<String> outbox = new ArrayDeque<>();
+    private boolean sending;
+
+    PlayerConnection(Session session, Long userId, String username) {
+        this.session = session;
+        this.userId = userId;
+        this.username = username;
+    }
+
+    Long getUserId() { return userId; }
+    String getUsername() { return username; }
+    Set<Long> getGameIds() { return gameIds; }
+    AtomicInteger getOpenRooms() { return openRooms; }
+    boolean isOpen() { return session.isOpen(); }
+
+    void send(String text) {
+        synchronized (this) {
+            if (!session.isOpen()) return;
+            if (!sending) {
+                sending = true;
+            } else if (outbox.size() < MAX_QUEUED) {
+                outbox.add(text);
+                return;
+            } else {
+                outbox.clear();
+                text = null;
+            }
+        }
+        if (text == null) close(CloseReason.CloseCodes.TRY_AGAIN_LATER, "Too far behind");
+        else write(text);
+    }
+
+    private void write(String text) {
+        session.getAsyncRemote().sendText(text, result -> {
+            if (!result.isOK()) {
+                close(CloseReason.CloseCodes.UNEXPECTED_CONDITION, "Send failed");
+                return;
+            }
+            String next;
+            synchronized (this) {
+                next = outbox.poll();
+                if (next == null) {
+                    sending = false;
+                    return;
+                }
+            }
+            write(next);
+        });
+    }
+
+    void close(CloseReason.CloseCode code, String reason) {
+        try {
+            session.close(new CloseReason(code, reason));
+        } catch (IOException ignored) {
+            // Already gone
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.therjhub.rchessmistry.rating;
+
+/**
+ * Glicko-2 rating updates (Glickman, "Example of the Glicko-2 system").
+ * One call applies one rating period: every game a player finished in the
+ * period, scored against the opponents' ratings as they stood when the
+ * period began. Instances are immutable and thread-safe.
+ */
+public final class Glicko2 {
+
+    private static final double SCALE = 173.7178;
+    private static final double EPSILON = 1e-6;
+
+    private final double tau;
+
+    /** {@code tau} limits how fast volatility can change; 0.3 to 1.2 are sensible. */
+    public Glicko2(double tau) {
+        this.tau = tau;
+    }
+
+    /** A period without games: only the deviation grows. */
+    public Rating idle(Rating player) {
+        double phi = player.getDeviation() / SCALE;
+        double grown = Math.sqrt(phi * phi + player.getVolatility() * player.getVolatility());
+        return new Rating(player.getRating(), cap(grown) * SCALE, player.getVolatility());
+    }
+
+    /**
+     * Rates the first {@code count} games of a period; {@code scores} are 1,
+     * 0.5 or 0 from the player's side.
+     */
+    public Rating update(Rating player, double[] opponentRatings, double[] opponentDeviations,
+                         double[] scores, int count) {
+        if (count == 0) return idle(player);
+        double mu = (player.getRating() - 1500) / SCALE;
+        double phi = player.getDeviation() / SCALE;
+
+        double inverseV = 0, improvement = 0;
+        for (int i = 0; i < count; i++) {
+            double g = g(opponentDeviations[i] / SCALE);
+            double e = 1 / (1 + Math.exp(-g * (mu - (opponentRatings[i] - 1500) / SCALE)));
+            inverseV += g * g * e * (1 - e);
+            improvement += g * (scores[i] - e);
+        }
+        double v = 1 / inverseV;
+        double delta = v * improvement;
+
+        double sigma = volatility(phi, player.getVolatility(), v, delta);
+        double preRating = Math.sqrt(phi * phi + sigma * sigma);
+        double newPhi = 1 / Math.sqrt(1 / (preRating * preRating) + 1 / v);
+        double newMu = mu + newPhi * newPhi * improvement;
+        return new Rating(1500 + newMu * SCALE, cap(newPhi) * SCALE, sigma);
+    }
+
+    // Step 5: Illinois-method root of f(x) for x = ln(sigma'^2)
+    private double volatility(double phi, double sigma, double v, double delta) {
+        double a = Math.log(sigma * sigma);
+        double phiSq = phi * phi, deltaSq = delta * delta;
+        double bigA = a, bigB;
+        if (deltaSq > phiSq + v) {
+            bigB = Math.log(deltaSq - phiSq - v);
+        } else {
+            int k = 1;
+            while (f(a - k * tau, a, phiSq, v, deltaSq) < 0) k++;
+            bigB = a - k * tau;
+        }
+        double fA = f(bigA, a, phiSq, v, deltaSq), fB = f(bigB, a, phiSq, v, deltaSq);
+        while (Math.abs(bigB - bigA) > EPSILON) {
+            double bigC = bigA + (bigA - bigB) * fA / (fB - fA);
+            double fC = f(bigC, a, phiSq, v, deltaSq);
+            if (fC * fB <= 0) {
+                bigA = bigB;
+                fA = fB;
+            } else {
+                fA /= 2;
+            }
+            bigB = bigC;
+            fB = fC;
+        }
+        return Math.exp(bigA / 2);
+    }
+
+    private double f(double x, double a, double phiSq, double v, double deltaSq) {
+        double ex = Math.exp(x);
+        double d = phiSq + v + ex;
+        return ex * (deltaSq - phiSq - v - ex) / (2 * d * d) - (x - a) / (tau * tau);
+    }
+
+    private static double g(double phi) {
+        return 1 / Math.sqrt(1 + 3 * phi * phi / (Math.PI * Math.PI));
+    }
+
+    // Never less certain than a brand-new player
+    private static double cap(double phi) {
+        return Math.min(phi, Rating.INITIAL.getDeviation() / SCALE);
+    }
+}
@@ -0,0 +1,27 @@
+package com.therjhub.rchessmistry.rating;
+
+/** An immutable Glicko-2 rating on the familiar 1500-centred scale. */
+public final class Rating {
+
+    public static final Rating INITIAL = new Rating(1500, 350, 0.06);
+
+    private final double rating;
+    private final double deviation;
+    private final double volatility;
+
+    // Also used by JPQL constructor expressions
+    public Rating(double rating, double deviation, double volatility) {
+        this.rating = rating;
+        this.deviation = deviation;
+        this.volatility = volatility;
+    }
+
+    public double getRating() { return rating; }
+    public double getDeviation() { return deviation; }
+    public double getVolatility() { return volatility; }
+
+    @Override
+    public String toString() {
+        return Math.round(rating) + " ±" + Math.round(deviation);
+    }
+}
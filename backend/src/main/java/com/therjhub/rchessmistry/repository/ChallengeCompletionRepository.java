@@ -0,0 +1,10 @@
+package com.therjhub.rchessmistry.repository;
+
+import com.therjhub.rchessmistry.model.ChallengeCompletion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChallengeCompletionRepository extends JpaRepository<ChallengeCompletion, Long> {
+    boolean existsByUserIdAndChallengeId(Long userId, Long challengeId);
+}
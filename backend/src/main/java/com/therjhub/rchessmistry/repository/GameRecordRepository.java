@@ -1,9 +1,18 @@
 package com.therjhub.rchessmistry.repository;
 
+import com.therjhub.rchessmistry.dto.GameSummary;
+import com.therjhub.rchessmistry.dto.RatedGame;
 import com.therjhub.rchessmistry.model.GameRecord;
 import com.therjhub.rchessmistry.model.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -11,4 +20,56 @@ public interface GameRecordRepository extends JpaRepository<GameRecord, Long> {
     List<GameRecord> findByUserOrderByPlayedAtDesc(User user);
     List<GameRecord> findByUserIdOrderByPlayedAtDesc(Long userId);
     int countByUser(User user);
+
+    String SUMMARY = "SELECT new com.therjhub.rchessmistry.dto.GameSummary(g.id, g.opponentType, g.gameMode, "
+            + "g.result, g.playerColor, g.opponentName, g.totalMoves, g.durationSeconds, g.blunderCount, g.accuracyScore, g.analysisStatus, "
+            + "g.playedAt) FROM GameRecord g WHERE g.user.id = :userId ";
+
+    // Keyset pages over idx_game_records_user_played: newest first, id breaks playedAt ties
+    @Query(SUMMARY + "ORDER BY g.playedAt DESC, g.id DESC")
+    List<GameSummary> findHistory(@Param("userId") Long userId, Pageable pageable);
+
+    @Query(SUMMARY + "AND (g.playedAt < :playedAt OR (g.playedAt = :playedAt AND g.id < :id)) "
+            + "ORDER BY g.playedAt DESC, g.id DESC")
+    List<GameSummary> findHistoryBefore(@Param("userId") Long userId, @Param("playedAt") LocalDateTime playedAt,
+                                        @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(g.id), 0) FROM GameRecord g")
+    Long findMaxId();
+
+    // Bot games in the anchored modes, plus online games recorded with the opponent's rating
+    String RATED = "SELECT new com.therjhub.rchessmistry.dto.RatedGame(g.id, g.user.id, g.gameMode, g.result, "
+            + "g.playedAt, g.opponentRating, g.opponentDeviation) FROM GameRecord g "
+            + "WHERE ((g.opponentType = :type AND g.gameMode IN :modes) OR g.opponentRating IS NOT NULL) "
+            + "AND g.id <= :maxId ";
+
+    // Rating replay order: each user's games in sequence, keyset-paged like the history
+    @Query(RATED + "ORDER BY g.user.id, g.playedAt, g.id")
+    List<RatedGame> findRatedGames(@Param("type") GameRecord.OpponentType type,
+                                   @Param("modes") Collection<GameRecord.GameMode> modes,
+                                   @Param("maxId") Long maxId, Pageable pageable);
+
+    @Query(RATED + "AND (g.user.id > :userId OR (g.user.id = :userId AND (g.playedAt > :playedAt "
+            + "OR (g.playedAt = :playedAt AND g.id > :id)))) ORDER BY g.user.id, g.playedAt, g.id")
+    List<RatedGame> findRatedGamesAfter(@Param("type") GameRecord.OpponentType type,
+                                        @Param("modes") Collection<GameRecord.GameMode> modes,
+                                        @Param("maxId") Long maxId, @Param("userId") Long userId,
+                                        @Param("playedAt") LocalDateTime playedAt, @Param("id") Long id,
+                                        Pageable pageable);
+
+    @Query("SELECT g.id FROM GameRecord g WHERE g.analysisStatus IN :statuses ORDER BY g.id")
+    List<Long> findIdsByAnalysisStatusIn(@Param("statuses") Collection<GameRecord.AnalysisStatus> statuses, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GameRecord g SET g.analysisStatus = :status WHERE g.id IN :ids")
+    int updateAnalysisStatus(@Param("ids") Collection<Long> ids, @Param("status") GameRecord.AnalysisStatus status);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE GameRecord g SET g.analysisStatus = :status, g.blunderCount = :blunders, "
+            + "g.accuracyScore = :accuracy, g.moveLosses = :losses WHERE g.id = :id")
+    int updateAnalysis(@Param("id") Long id, @Param("status") GameRecord.AnalysisStatus status,
+                       @Param("blunders") int blunders, @Param("accuracy") double accuracy,
+                       @Param("losses") String losses);
 }
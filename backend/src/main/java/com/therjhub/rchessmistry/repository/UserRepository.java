@@ -1,8 +1,17 @@
 package com.therjhub.rchessmistry.repository;
 
+import com.therjhub.rchessmistry.dto.LeaderboardEntry;
+import com.therjhub.rchessmistry.model.GameRecord;
 import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.rating.Rating;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
@@ -10,6 +19,80 @@ import java.util.List;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     boolean existsByUsername(String username);
+
+    @Query("SELECT u.username FROM User u")
+    List<String> findUsernames(Pageable pageable);
     List<User> findByOrderByWinsDesc();
-    List<User> findBySyncedToSheetFalse();
+
+    @Query("SELECT new com.therjhub.rchessmistry.dto.LeaderboardEntry(u.id, u.username, u.displayName, "
+            + "u.profilePhotoUrl, u.profileThumbnailUrl, u.wins, u.losses, u.draws, u.gamesPlayed, u.rating, u.ratingDeviation) FROM User u")
+    List<LeaderboardEntry> findLeaderboardEntries();
+
+    @Query("SELECT new com.therjhub.rchessmistry.rating.Rating(u.rating, u.ratingDeviation, u.ratingVolatility) "
+            + "FROM User u WHERE u.id = :id")
+    Rating findRating(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.rating = :rating, u.ratingDeviation = :deviation, u.ratingVolatility = :volatility, "
+            + "u.ratedGames = u.ratedGames + :games WHERE u.id = :id")
+    int addRatedGames(@Param("id") Long id, @Param("rating") double rating, @Param("deviation") double deviation,
+                      @Param("volatility") double volatility, @Param("games") int games);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.rating = :rating, u.ratingDeviation = :deviation, u.ratingVolatility = :volatility, "
+            + "u.ratedGames = :games WHERE u.id = :id")
+    int setRating(@Param("id") Long id, @Param("rating") double rating, @Param("deviation") double deviation,
+                  @Param("volatility") double volatility, @Param("games") int games);
+
+    // Users with no rated game up to maxId, i.e. the ones a rating recompute has nothing to write for
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.rating = :rating, u.ratingDeviation = :deviation, u.ratingVolatility = :volatility, "
+            + "u.ratedGames = 0 WHERE NOT EXISTS (SELECT g.id FROM GameRecord g WHERE g.user.id = u.id "
+            + "AND ((g.opponentType = :type AND g.gameMode IN :modes) OR g.opponentRating IS NOT NULL) "
+            + "AND g.id <= :maxId)")
+    int resetRatingsWithoutGames(@Param("rating") double rating, @Param("deviation") double deviation,
+                                 @Param("volatility") double volatility, @Param("type") GameRecord.OpponentType type,
+                                 @Param("modes") Collection<GameRecord.GameMode> modes, @Param("maxId") long maxId);
+    List<User> findBySyncedToSheetFalse(Pageable pageable);
+    List<User> findByProfilePhotoUrlIsNotNullAndProfileThumbnailUrlIsNull(Pageable pageable);
+
+    // Only lands if the photo is still the one the upload replaces
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profilePhotoUrl = :photoUrl, u.profileThumbnailUrl = NULL WHERE u.id = :id "
+            + "AND COALESCE(u.profilePhotoUrl, '') = COALESCE(:previousUrl, '')")
+    int updateProfilePhoto(@Param("id") Long id, @Param("previousUrl") String previousUrl,
+                           @Param("photoUrl") String photoUrl);
+
+    // Only lands if the photo is still the one the thumbnail was made from
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.profileThumbnailUrl = :thumbnailUrl WHERE u.id = :id AND u.profilePhotoUrl = :photoUrl")
+    int updateProfileThumbnail(@Param("id") Long id, @Param("photoUrl") String photoUrl,
+                               @Param("thumbnailUrl") String thumbnailUrl);
+
+    // SET expressions all read the pre-update row, so bestStreak sees the old currentStreak.
+    // Clears the persistence context so the next read of this user sees the new counters.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE User u SET u.gamesPlayed = u.gamesPlayed + 1, u.totalMoves = u.totalMoves + :moves, "
+            + "u.wins = u.wins + :win, u.losses = u.losses + :loss, u.draws = u.draws + :draw, "
+            + "u.currentStreak = CASE WHEN :win = 1 THEN u.currentStreak + 1 WHEN :loss = 1 THEN 0 ELSE u.currentStreak END, "
+            + "u.bestStreak = CASE WHEN :win = 1 AND u.currentStreak + 1 > u.bestStreak THEN u.currentStreak + 1 "
+            + "ELSE u.bestStreak END WHERE u.id = :id")
+    int addGameResult(@Param("id") Long id, @Param("moves") int moves, @Param("win") int win,
+                      @Param("loss") int loss, @Param("draw") int draw);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.challengePoints = u.challengePoints + :points WHERE u.id = :id")
+    int addChallengePoints(@Param("id") Long id, @Param("points") int points);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.syncedToSheet = :synced WHERE u.id IN :ids")
+    int updateSyncedToSheet(@Param("ids") Collection<Long> ids, @Param("synced") boolean synced);
 }
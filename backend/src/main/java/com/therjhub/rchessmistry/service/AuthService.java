@@ -7,7 +7,6 @@ import com.therjhub.rchessmistry.dto.RegisterRequest;
 import com.therjhub.rchessmistry.model.User;
 import com.therjhub.rchessmistry.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -17,7 +16,7 @@ public class AuthService {
     private UserRepository userRepository;
 
     @Autowired
-    private PasswordEncoder passwordEncoder;
+    private PasswordHasher passwordHasher;
 
     @Autowired
     private JwtUtil jwtUtil;
@@ -25,23 +24,32 @@ public class AuthService {
     @Autowired
     private GoogleSheetsService sheetsService;
 
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private UsernameIndex usernameIndex;
+
     public boolean usernameExists(String username) {
-        return userRepository.existsByUsername(username);
+        return usernameIndex.exists(username);
     }
 
     public AuthResponse register(RegisterRequest req) {
-        if (userRepository.existsByUsername(req.getUsername())) {
+        String username = req.getUsername().toLowerCase().trim();
+        if (usernameIndex.exists(username)) {
             throw new RuntimeException("Username '" + req.getUsername() + "' is already taken. Please choose another.");
         }
 
         User user = new User();
-        user.setUsername(req.getUsername().toLowerCase().trim());
-        user.setPassword(passwordEncoder.encode(req.getPassword()));
+        user.setUsername(username);
+        user.setPassword(passwordHasher.encode(req.getPassword()));
         user.setDisplayName(req.getDisplayName() != null ? req.getDisplayName() : req.getUsername());
         user.setDeviceId(req.getDeviceId());
         user.setDeviceName(req.getDeviceName());
 
         User saved = userRepository.save(user);
+        usernameIndex.add(saved.getUsername());
+        leaderboardService.update(saved);
 
         // Sync new user to Google Sheets
         sheetsService.syncUser(saved);
@@ -53,6 +61,7 @@ public class AuthService {
                 saved.getUsername(),
                 saved.getDisplayName(),
                 saved.getProfilePhotoUrl(),
+                saved.getProfileThumbnailUrl(),
                 saved.getWins(),
                 saved.getLosses(),
                 saved.getDraws(),
@@ -66,7 +75,7 @@ public class AuthService {
         User user = userRepository.findByUsername(req.getUsername().toLowerCase().trim())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password."));
 
-        if (!passwordEncoder.matches(req.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(req.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid username or password.");
         }
 
@@ -84,6 +93,7 @@ public class AuthService {
                 user.getUsername(),
                 user.getDisplayName(),
                 user.getProfilePhotoUrl(),
+                user.getProfileThumbnailUrl(),
                 user.getWins(),
                 user.getLosses(),
                 user.getDraws(),
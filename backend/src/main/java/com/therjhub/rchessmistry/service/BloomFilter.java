@@ -0,0 +1,69 @@
+package com.therjhub.rchessmistry.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Bloom filter over strings: {@link #mightContain} is never wrong about a
+ * string that was added, and wrong about an absent one with roughly the
+ * false-positive rate it was sized for. The k bit positions come from two
+ * halves of one 64-bit hash (Kirsch-Mitzenmacher). Not thread-safe.
+ */
+final class BloomFilter {
+
+    private final long[] bits;
+    private final long bitCount;
+    private final int hashes;
+    private final int capacity;
+    private int size;
+
+    BloomFilter(int capacity, double falsePositiveRate) {
+        this.capacity = Math.max(1, capacity);
+        double ln2 = Math.log(2);
+        long m = (long) Math.ceil(-this.capacity * Math.log(falsePositiveRate) / (ln2 * ln2));
+        bits = new long[(int) Math.max(1, (m + 63) >>> 6)];
+        bitCount = (long) bits.length << 6;
+        hashes = Math.max(1, (int) Math.round((double) bitCount / this.capacity * ln2));
+    }
+
+    void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+        size++;
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash, h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + (long) i * h2, bitCount);
+            if ((bits[(int) (bit >>> 6)] & 1L << bit) == 0) return false;
+        }
+        return true;
+    }
+
+    /** Strings added so far; past {@link #capacity} the false-positive rate climbs. */
+    int size() { return size; }
+
+    int capacity() { return capacity; }
+
+    long sizeInBytes() { return (long) bits.length * Long.BYTES; }
+
+    // FNV-1a over the UTF-8 bytes, then a 64-bit finalizer to spread it over both halves
+    private static long hash(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
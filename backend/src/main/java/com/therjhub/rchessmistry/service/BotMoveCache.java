@@ -0,0 +1,152 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.BotMoveResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU cache of bot replies keyed by normalized FEN + mode, with a
+ * TTL per entry. Concurrent misses on the same key share one search.
+ */
+@Component
+public class BotMoveCache {
+
+    private static class Entry {
+        final BotMoveResponse response;
+        final long expiresAt;
+
+        Entry(BotMoveResponse response, long expiresAt) {
+            this.response = response;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> entries;
+    private final ConcurrentHashMap<String, CompletableFuture<BotMoveResponse>> inFlight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    public BotMoveCache(@Value("${app.bot-cache.max-entries}") int maxEntries,
+                        @Value("${app.bot-cache.ttl-seconds}") long ttlSeconds) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(ttlSeconds);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > BotMoveCache.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public static String key(String normalizedFen, String mode) {
+        return normalizedFen + '|' + mode;
+    }
+
+    /** Returns the cached reply, joins an identical search in progress, or runs {@code loader}. */
+    public BotMoveResponse get(String key, Supplier<BotMoveResponse> loader) {
+        BotMoveResponse cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        CompletableFuture<BotMoveResponse> mine = new CompletableFuture<>();
+        CompletableFuture<BotMoveResponse> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+
+        try {
+            // Another request may have finished this key between our lookup and claiming it
+            BotMoveResponse response = lookup(key);
+            if (response != null) {
+                hits.increment();
+            } else {
+                misses.increment();
+                response = loader.get();
+                put(key, response);
+            }
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private BotMoveResponse lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry == null) return null;
+            if (System.nanoTime() - entry.expiresAt >= 0) {
+                entries.remove(key);
+                expirations.increment();
+                return null;
+            }
+            return entry.response;
+        }
+    }
+
+    private void put(String key, BotMoveResponse response) {
+        synchronized (entries) {
+            entries.put(key, new Entry(response, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    private static BotMoveResponse await(CompletableFuture<BotMoveResponse> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // ========== STATS ==========
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long getHits() { return hits.sum(); }
+    public long getMisses() { return misses.sum(); }
+    public long getCoalesced() { return coalesced.sum(); }
+    public long getEvictions() { return evictions.sum(); }
+    public long getExpirations() { return expirations.sum(); }
+
+    /** Share of requests answered without running a search of their own. */
+    public double getHitRate() {
+        long saved = hits.sum() + coalesced.sum();
+        long total = saved + misses.sum();
+        return total == 0 ? 0.0 : (double) saved / total;
+    }
+}
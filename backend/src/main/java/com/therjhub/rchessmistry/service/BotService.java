@@ -0,0 +1,177 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.BotMoveResponse;
+import com.therjhub.rchessmistry.engine.Bitbases;
+import com.therjhub.rchessmistry.engine.Board;
+import com.therjhub.rchessmistry.engine.EnginePool;
+import com.therjhub.rchessmistry.engine.LazySmpSearch;
+import com.therjhub.rchessmistry.engine.Move;
+import com.therjhub.rchessmistry.engine.MoveGenerator;
+import com.therjhub.rchessmistry.engine.OpeningBook;
+import com.therjhub.rchessmistry.engine.Piece;
+import com.therjhub.rchessmistry.engine.SearchLimits;
+import com.therjhub.rchessmistry.engine.SearchResult;
+import com.therjhub.rchessmistry.engine.TranspositionTable;
+import com.therjhub.rchessmistry.model.GameRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+@Service
+public class BotService {
+
+    // Depth ceilings are the levels the app used to send to the external engine;
+    // the time and node budgets are each mode's latency SLO
+    private static final Map<GameRecord.GameMode, SearchLimits> DIFFICULTY_LIMITS = new EnumMap<>(GameRecord.GameMode.class);
+
+    static {
+        DIFFICULTY_LIMITS.put(GameRecord.GameMode.EASY, new SearchLimits(1, 50, 20_000));
+        DIFFICULTY_LIMITS.put(GameRecord.GameMode.CLASSIC, new SearchLimits(5, 300, 500_000));
+        DIFFICULTY_LIMITS.put(GameRecord.GameMode.HARD, new SearchLimits(12, 1_000, 3_000_000));
+        DIFFICULTY_LIMITS.put(GameRecord.GameMode.UNBEATABLE, new SearchLimits(20, 2_500, 10_000_000));
+    }
+
+    // Threads a search asks for; helpers are only granted while the pool has spare capacity
+    private static final Map<GameRecord.GameMode, Integer> DIFFICULTY_THREADS = new EnumMap<>(GameRecord.GameMode.class);
+
+    static {
+        DIFFICULTY_THREADS.put(GameRecord.GameMode.EASY, 1);
+        DIFFICULTY_THREADS.put(GameRecord.GameMode.CLASSIC, 1);
+        DIFFICULTY_THREADS.put(GameRecord.GameMode.HARD, 2);
+        DIFFICULTY_THREADS.put(GameRecord.GameMode.UNBEATABLE, Integer.MAX_VALUE);
+    }
+
+    @Autowired
+    private TranspositionTable transpositionTable;
+
+    @Autowired
+    private EnginePool enginePool;
+
+    @Autowired
+    private BotMoveCache botMoveCache;
+
+    @Autowired
+    private OpeningBook openingBook;
+
+    @Autowired
+    private Bitbases bitbases;
+
+    @Autowired
+    private GameAnalysisService gameAnalysisService;
+
+    @Value("${app.engine.queue-timeout-ms}")
+    private long queueTimeoutMs;
+
+    public BotMoveResponse getBestMove(String fen, String mode) {
+        GameRecord.GameMode gameMode = parseMode(mode);
+        Board board = Board.fromFen(fen);
+        if (!MoveGenerator.hasLegalMove(board)) {
+            throw new RuntimeException("No legal moves in this position.");
+        }
+
+        // Book moves are picked at random by weight, so they bypass the cache
+        int bookMove = openingBook.pick(board, ThreadLocalRandom.current());
+        if (bookMove != Move.NONE) {
+            return new BotMoveResponse(Move.toUci(bookMove), gameMode.name(), 0, 0, 0, 0,
+                    List.of(Move.toUci(bookMove)), 0, 0, "book");
+        }
+
+        return botMoveCache.get(BotMoveCache.key(normalizeFen(board), gameMode.name()),
+                () -> search(board, gameMode));
+    }
+
+    private BotMoveResponse search(Board board, GameRecord.GameMode gameMode) {
+        SearchResult result;
+        try (EnginePool.Lease lease = acquire(DIFFICULTY_THREADS.get(gameMode))) {
+            result = LazySmpSearch.search(board, transpositionTable, bitbases, DIFFICULTY_LIMITS.get(gameMode), lease);
+        }
+
+        return new BotMoveResponse(
+                Move.toUci(result.getBestMove()),
+                gameMode.name(),
+                result.getScore(),
+                result.getDepth(),
+                result.getNodes(),
+                result.getElapsedMillis(),
+                result.getPrincipalVariationUci(),
+                result.getThreads(),
+                result.getNodesPerSecond(),
+                "search"
+        );
+    }
+
+    /** Exact result of a three-man endgame for the side to move, straight from the bitbases. */
+    public Map<String, Object> probeEndgame(String fen) {
+        Board board = Board.fromFen(fen);
+        int result = bitbases.probe(board);
+        if (result == Bitbases.UNKNOWN) {
+            throw new RuntimeException("No endgame table covers this position.");
+        }
+        Map<String, Object> verdict = new LinkedHashMap<>();
+        verdict.put("fen", board.toFen());
+        verdict.put("sideToMove", board.sideToMove() == Piece.WHITE ? "WHITE" : "BLACK");
+        verdict.put("result", result == Bitbases.WIN ? "WIN" : result == Bitbases.LOSS ? "LOSS" : "DRAW");
+        return verdict;
+    }
+
+    // Move counters don't change the best move, so positions that differ only there share a cache entry
+    private static String normalizeFen(Board board) {
+        String fen = board.toFen();
+        int counters = fen.lastIndexOf(' ', fen.lastIndexOf(' ') - 1);
+        return fen.substring(0, counters);
+    }
+
+    private EnginePool.Lease acquire(int threads) {
+        try {
+            EnginePool.Lease lease = enginePool.acquire(threads, queueTimeoutMs);
+            if (lease == null) throw new RuntimeException("The engine is busy. Please try again.");
+            return lease;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the engine.");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashSizeMb", transpositionTable.getSizeBytes() >> 20);
+        stats.put("hashHits", transpositionTable.getHits());
+        stats.put("hashMisses", transpositionTable.getMisses());
+        stats.put("hashCollisions", transpositionTable.getCollisions());
+        stats.put("hashHitRate", transpositionTable.getHitRate());
+        stats.put("hashUsagePermille", transpositionTable.getUsagePermille());
+        stats.put("bookEntries", openingBook.size());
+        stats.put("bitbases", bitbases.getTables());
+        stats.put("cacheSize", botMoveCache.getSize());
+        stats.put("cacheHits", botMoveCache.getHits());
+        stats.put("cacheMisses", botMoveCache.getMisses());
+        stats.put("cacheCoalesced", botMoveCache.getCoalesced());
+        stats.put("cacheEvictions", botMoveCache.getEvictions());
+        stats.put("cacheExpirations", botMoveCache.getExpirations());
+        stats.put("cacheHitRate", botMoveCache.getHitRate());
+        stats.put("engineThreads", enginePool.getThreads());
+        stats.put("engineThreadsFree", enginePool.getAvailable());
+        stats.put("engineQueueLength", enginePool.getQueueLength());
+        stats.putAll(gameAnalysisService.getStats());
+        return stats;
+    }
+
+    private GameRecord.GameMode parseMode(String mode) {
+        GameRecord.GameMode gameMode;
+        try {
+            gameMode = GameRecord.GameMode.valueOf(mode.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new RuntimeException("Unknown game mode: " + mode);
+        }
+        if (!DIFFICULTY_LIMITS.containsKey(gameMode)) {
+            throw new RuntimeException("No bot available for mode " + gameMode);
+        }
+        return gameMode;
+    }
+}
@@ -0,0 +1,158 @@
+package com.therjhub.rchessmistry.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.therjhub.rchessmistry.engine.SolutionLine;
+import com.therjhub.rchessmistry.model.Challenge;
+import com.therjhub.rchessmistry.repository.ChallengeRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The active challenges as an immutable snapshot, so listing them never
+ * queries the database. Each view (all, or one difficulty) is serialized once
+ * per snapshot and carries a strong ETag derived from its bytes, which lets
+ * clients revalidate with a 304. Each solution is compiled into a
+ * {@link SolutionLine} at the same time, so attempts are checked without
+ * parsing SAN. Writes go through {@link #saveAll}, which swaps in a new
+ * snapshot once they are stored.
+ */
+@Service
+public class ChallengeCatalog {
+
+    /** Pre-serialized JSON for one view of the catalog. */
+    public static final class View {
+        private final byte[] json;
+        private final String etag;
+
+        View(byte[] json, String etag) {
+            this.json = json;
+            this.etag = etag;
+        }
+
+        public byte[] getJson() { return json; }
+        public String getEtag() { return etag; }
+    }
+
+    /** A challenge with its solution line, or a null line if the solution does not replay. */
+    public static final class Compiled {
+        private final Challenge challenge;
+        private final SolutionLine line;
+
+        Compiled(Challenge challenge, SolutionLine line) {
+            this.challenge = challenge;
+            this.line = line;
+        }
+
+        public Challenge getChallenge() { return challenge; }
+        public SolutionLine getLine() { return line; }
+    }
+
+    private static final class Snapshot {
+        final long version;
+        final List<Challenge> challenges;
+        final Map<Long, Compiled> compiled;
+        final View all;
+        final Map<String, View> byDifficulty;
+        final View none;
+
+        Snapshot(long version, List<Challenge> challenges, Map<Long, Compiled> compiled, View all,
+                 Map<String, View> byDifficulty, View none) {
+            this.version = version;
+            this.challenges = challenges;
+            this.compiled = compiled;
+            this.all = all;
+            this.byDifficulty = byDifficulty;
+            this.none = none;
+        }
+    }
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void load() {
+        refresh();
+    }
+
+    public View getAll() {
+        return snapshot.all;
+    }
+
+    public View getByDifficulty(String difficulty) {
+        Snapshot current = snapshot;
+        return current.byDifficulty.getOrDefault(difficulty, current.none);
+    }
+
+    /** The active challenge with this id, or null. */
+    public Compiled getCompiled(Long id) {
+        return snapshot.compiled.get(id);
+    }
+
+    public List<Challenge> getChallenges() {
+        return snapshot.challenges;
+    }
+
+    public long getVersion() {
+        return snapshot.version;
+    }
+
+    /** Stores new or changed challenges and publishes the catalog that includes them. */
+    public List<Challenge> saveAll(List<Challenge> challenges) {
+        List<Challenge> saved = challengeRepository.saveAll(challenges);
+        refresh();
+        return saved;
+    }
+
+    /** Rebuilds the snapshot from the database; concurrent refreshes publish in order. */
+    public synchronized void refresh() {
+        List<Challenge> active = List.copyOf(challengeRepository.findByActiveTrue());
+        Map<Long, Compiled> compiled = new HashMap<>();
+        Map<String, List<Challenge>> grouped = new LinkedHashMap<>();
+        for (Challenge challenge : active) {
+            compiled.put(challenge.getId(), new Compiled(challenge, compile(challenge)));
+            if (challenge.getDifficulty() == null) continue;
+            grouped.computeIfAbsent(challenge.getDifficulty(), key -> new ArrayList<>()).add(challenge);
+        }
+        Map<String, View> byDifficulty = new HashMap<>();
+        grouped.forEach((difficulty, list) -> byDifficulty.put(difficulty, view(list)));
+
+        long version = snapshot == null ? 1 : snapshot.version + 1;
+        snapshot = new Snapshot(version, active, Map.copyOf(compiled), view(active), Map.copyOf(byDifficulty),
+                view(List.of()));
+    }
+
+    private static SolutionLine compile(Challenge challenge) {
+        try {
+            return SolutionLine.compile(challenge.getFen(), challenge.getSolutionMoves());
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠️  Challenge '" + challenge.getTitle() + "' can't be verified: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private View view(List<Challenge> challenges) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(challenges);
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+            return new View(json, "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"");
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not serialize the challenge catalog", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.ChallengeAttemptResult;
+import com.therjhub.rchessmistry.engine.SolutionLine;
+import com.therjhub.rchessmistry.model.Challenge;
+import com.therjhub.rchessmistry.model.ChallengeCompletion;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.ChallengeCompletionRepository;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Checks challenge attempts against the catalog's precompiled solution lines.
+ * Attempts are stateless: the client sends all of its moves so far, each one
+ * is compared with the line's UCI text, and the reply comes from the line, so
+ * no position is parsed or replayed per request.
+ */
+@Service
+public class ChallengeService {
+
+    @Autowired
+    private ChallengeCatalog challengeCatalog;
+
+    @Autowired
+    private ChallengeCompletionRepository completionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public ChallengeAttemptResult attempt(String username, Long challengeId, List<String> moves) {
+        ChallengeCatalog.Compiled compiled = challengeCatalog.getCompiled(challengeId);
+        if (compiled == null) throw new RuntimeException("Challenge not found");
+        SolutionLine line = compiled.getLine();
+        if (line == null) throw new RuntimeException("This challenge can't be checked right now.");
+        if (moves == null || moves.isEmpty() || moves.size() > line.solverMoves()) {
+            throw new RuntimeException("Send between 1 and " + line.solverMoves() + " moves.");
+        }
+
+        for (int i = 0; i < moves.size(); i++) {
+            if (!line.isSolverMove(i, moves.get(i))) return new ChallengeAttemptResult(false, false, null, null, 0, 0);
+        }
+        int movesLeft = line.solverMoves() - moves.size();
+        if (movesLeft > 0) {
+            int reply = 2 * moves.size() - 1;
+            return new ChallengeAttemptResult(true, false, line.uci(reply), line.san(reply), movesLeft, 0);
+        }
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+        return new ChallengeAttemptResult(true, true, null, null, 0, award(user, compiled.getChallenge()));
+    }
+
+    // Points only for the first solve; the unique key settles two solves racing each other
+    private int award(User user, Challenge challenge) {
+        if (completionRepository.existsByUserIdAndChallengeId(user.getId(), challenge.getId())) return 0;
+        try {
+            return transactionTemplate.execute(status -> {
+                completionRepository.saveAndFlush(
+                        new ChallengeCompletion(user.getId(), challenge.getId(), challenge.getPoints()));
+                userRepository.addChallengePoints(user.getId(), challenge.getPoints());
+                return challenge.getPoints();
+            });
+        } catch (DataIntegrityViolationException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.engine.GameAnalyzer;
+import com.therjhub.rchessmistry.engine.GameCodec;
+import com.therjhub.rchessmistry.engine.Pgn;
+import com.therjhub.rchessmistry.engine.SearchLimits;
+import com.therjhub.rchessmistry.engine.TranspositionTable;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.repository.GameRecordRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Background engine analysis of saved games. Saving a game only offers its id
+ * to a bounded queue; worker threads drain it in batches and write back the
+ * per-move losses, blunder count and accuracy. When the queue is full the game
+ * simply stays PENDING and the periodic sweep picks it up later, so save-game
+ * never waits on the engine.
+ *
+ * Workers run at minimum priority on their own threads and hash tables
+ * rather than the bot's {@code EnginePool}, so analysis never makes an
+ * interactive bot move wait.
+ */
+@Service
+public class GameAnalysisService {
+
+    // Node budget is the real limit; the ceiling only stops trivial positions deepening forever
+    private static final int MAX_DEPTH = 16;
+
+    private static final List<GameRecord.AnalysisStatus> UNFINISHED =
+            List.of(GameRecord.AnalysisStatus.PENDING, GameRecord.AnalysisStatus.RUNNING);
+
+    @Autowired
+    private GameRecordRepository gameRecordRepository;
+
+    @Value("${app.analysis.threads}")
+    private int threads;
+
+    @Value("${app.analysis.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.analysis.batch-size}")
+    private int batchSize;
+
+    @Value("${app.analysis.nodes-per-position}")
+    private long nodesPerPosition;
+
+    @Value("${app.analysis.hash-size-mb}")
+    private int hashSizeMb;
+
+    private BlockingQueue<Long> queue;
+    // Ids waiting or being analysed, so neither a resubmit nor the sweep queues a game twice
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+    private ExecutorService workers;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deferred = new LongAdder();
+    private final LongAdder analyzed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder analysisMillis = new LongAdder();
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicInteger counter = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "game-analysis-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        for (int i = 0; i < threads; i++) workers.submit(this::work);
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /** Queues a saved game without blocking; returns false if it was left for the sweep. */
+    public boolean submit(Long gameId) {
+        if (!queued.add(gameId)) return true;
+        if (queue.offer(gameId)) {
+            submitted.increment();
+            return true;
+        }
+        queued.remove(gameId);
+        deferred.increment();
+        return false;
+    }
+
+    // Re-queues games that were deferred by a full queue or interrupted by a restart
+    @Scheduled(initialDelayString = "${app.analysis.sweep-interval-ms}",
+               fixedDelayString = "${app.analysis.sweep-interval-ms}")
+    public void sweep() {
+        int room = queue.remainingCapacity();
+        if (room == 0) return;
+        for (Long id : gameRecordRepository.findIdsByAnalysisStatusIn(UNFINISHED, PageRequest.of(0, room))) {
+            if (!submit(id)) break;
+        }
+    }
+
+    private void work() {
+        GameAnalyzer analyzer = new GameAnalyzer(TranspositionTable.ofMegabytes(hashSizeMb),
+                new SearchLimits(MAX_DEPTH, 0, nodesPerPosition));
+        List<Long> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+                queue.drainTo(batch, batchSize - 1);
+                analyzeBatch(analyzer, batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                System.out.println("⚠️  Game analysis batch failed: " + e.getMessage());
+            } finally {
+                batch.forEach(queued::remove);
+                batch.clear();
+            }
+        }
+    }
+
+    private void analyzeBatch(GameAnalyzer analyzer, List<Long> ids) {
+        gameRecordRepository.updateAnalysisStatus(ids, GameRecord.AnalysisStatus.RUNNING);
+        for (GameRecord record : gameRecordRepository.findAllById(ids)) {
+            long start = System.currentTimeMillis();
+            try {
+                // Only the owner's moves count, except over the board where the owner played both sides
+                boolean overTheBoard = record.getOpponentType() == GameRecord.OpponentType.HUMAN
+                        && record.getGameMode() != GameRecord.GameMode.ONLINE;
+                boolean black = record.getPlayerColor() == GameRecord.PlayerColor.BLACK;
+                boolean rateWhite = overTheBoard || !black, rateBlack = overTheBoard || black;
+                GameAnalyzer.Result result;
+                if (record.getMoves() != null) {
+                    GameCodec.Decoded game = GameCodec.decode(record.getMoves());
+                    result = analyzer.analyze(game.getStartFen(), game.getMoves(), rateWhite, rateBlack);
+                } else {
+                    Pgn.Game game = Pgn.parseGame(record.getPgn());
+                    result = analyzer.analyze(game.getStartFen(), game.getMoves(), rateWhite, rateBlack);
+                }
+                gameRecordRepository.updateAnalysis(record.getId(), GameRecord.AnalysisStatus.DONE,
+                        result.getBlunders(), result.getAccuracy(), join(result.getLosses()));
+                analyzed.increment();
+            } catch (RuntimeException e) {
+                gameRecordRepository.updateAnalysisStatus(List.of(record.getId()), GameRecord.AnalysisStatus.FAILED);
+                failed.increment();
+            }
+            analysisMillis.add(System.currentTimeMillis() - start);
+        }
+    }
+
+    private static String join(int[] losses) {
+        StringJoiner joiner = new StringJoiner(",");
+        for (int loss : losses) joiner.add(Integer.toString(loss));
+        return joiner.toString();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long done = analyzed.sum() + failed.sum();
+        stats.put("analysisQueued", queue.size());
+        stats.put("analysisSubmitted", submitted.sum());
+        stats.put("analysisDeferred", deferred.sum());
+        stats.put("analysisDone", analyzed.sum());
+        stats.put("analysisFailed", failed.sum());
+        stats.put("analysisAvgMs", done == 0 ? 0 : analysisMillis.sum() / done);
+        return stats;
+    }
+}
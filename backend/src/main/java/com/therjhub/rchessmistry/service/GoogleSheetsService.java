@@ -1,25 +1,62 @@
 package com.therjhub.rchessmistry.service;
 
 import com.google.api.client.googleapis.javanet.GoogleNetHttpTransport;
+import com.google.api.client.http.HttpRequestInitializer;
 import com.google.api.client.json.jackson2.JacksonFactory;
 import com.google.api.services.sheets.v4.Sheets;
+import com.google.api.services.sheets.v4.model.AppendDimensionRequest;
+import com.google.api.services.sheets.v4.model.BatchClearValuesRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateSpreadsheetRequest;
+import com.google.api.services.sheets.v4.model.BatchUpdateValuesRequest;
+import com.google.api.services.sheets.v4.model.Request;
+import com.google.api.services.sheets.v4.model.Sheet;
+import com.google.api.services.sheets.v4.model.SheetProperties;
 import com.google.api.services.sheets.v4.model.ValueRange;
 import com.google.auth.http.HttpCredentialsAdapter;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Mirrors users into a Google Sheet, one row per user under the header. The
+ * row is found by the ID column, read once into an index, so a sync
+ * overwrites that user's row instead of appending another. New users take
+ * blank rows first and then rows past the end, and the grid is extended when
+ * they run out. Extra rows for an ID, left by the old append-per-save sync,
+ * are cleared when the index is read.
+ *
+ * Writes are behind the request: {@link #syncUser} only marks the user dirty,
+ * and a scheduled flush sends every dirty user's current row in one
+ * {@code values.batchUpdate}, so several changes to a user between flushes
+ * cost one row write. {@code User.syncedToSheet} records what still has to
+ * go out across restarts; a failed flush is retried with exponential backoff.
+ */
 @Service
 public class GoogleSheetsService {
 
+    private static final String LAST_COLUMN = "O";
+
+    @Autowired
+    private UserRepository userRepository;
+
     @Value("${google.sheets.spreadsheet-id}")
     private String spreadsheetId;
 
@@ -29,9 +66,34 @@ public class GoogleSheetsService {
     @Value("${google.sheets.sheet-name}")
     private String sheetName;
 
+    @Value("${google.sheets.root-url}")
+    private String rootUrl;
+
+    @Value("${google.sheets.batch-size}")
+    private int batchSize;
+
+    @Value("${google.sheets.retry-initial-ms}")
+    private long retryInitialMs;
+
+    @Value("${google.sheets.retry-max-ms}")
+    private long retryMaxMs;
+
     private Sheets sheetsService;
     private boolean enabled = false;
 
+    // Users changed since the last flush; the flag in the database covers restarts
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private volatile boolean backlog = true;
+    private long retryDelayMs;
+    private long nextAttemptAt;
+
+    // Sheet layout, read on the first flush and again after any failure; only the flush touches it
+    private Map<Long, Integer> rowsById;
+    private final TreeSet<Integer> freeRows = new TreeSet<>();
+    private int nextRow;
+    private int rowCount;
+    private Integer sheetId;
+
     @PostConstruct
     public void init() {
         try {
@@ -40,18 +102,14 @@ public class GoogleSheetsService {
                 return;
             }
 
-            InputStream credentialsStream = credentialsResource.getInputStream();
-            GoogleCredentials credentials = GoogleCredentials
-                    .fromStream(credentialsStream)
-                    .createScoped(Collections.singletonList(
-                            "https://www.googleapis.com/auth/spreadsheets"));
-
-            sheetsService = new Sheets.Builder(
+            Sheets.Builder builder = new Sheets.Builder(
                     GoogleNetHttpTransport.newTrustedTransport(),
                     JacksonFactory.getDefaultInstance(),
-                    new HttpCredentialsAdapter(credentials))
-                    .setApplicationName("rChessMistry-TheRJHub")
-                    .build();
+                    credentials())
+                    .setApplicationName("rChessMistry-TheRJHub");
+            // A local stand-in for the Sheets API, e.g. in tests
+            if (!rootUrl.isBlank()) builder.setRootUrl(rootUrl.endsWith("/") ? rootUrl : rootUrl + "/");
+            sheetsService = builder.build();
 
             ensureHeaderRow();
             enabled = true;
@@ -62,6 +120,18 @@ public class GoogleSheetsService {
         }
     }
 
+    // A stand-in at a custom root URL may run without credentials
+    private HttpRequestInitializer credentials() throws Exception {
+        if (!rootUrl.isBlank() && !credentialsResource.exists()) return request -> { };
+        try (InputStream credentialsStream = credentialsResource.getInputStream()) {
+            GoogleCredentials credentials = GoogleCredentials
+                    .fromStream(credentialsStream)
+                    .createScoped(Collections.singletonList(
+                            "https://www.googleapis.com/auth/spreadsheets"));
+            return new HttpCredentialsAdapter(credentials);
+        }
+    }
+
     private void ensureHeaderRow() {
         try {
             List<Object> headers = new ArrayList<>();
@@ -76,7 +146,7 @@ public class GoogleSheetsService {
 
             ValueRange headerRow = new ValueRange().setValues(rows);
             sheetsService.spreadsheets().values()
-                    .update(spreadsheetId, sheetName + "!A1:O1", headerRow)
+                    .update(spreadsheetId, sheetName + "!A1:" + LAST_COLUMN + "1", headerRow)
                     .setValueInputOption("RAW")
                     .execute();
         } catch (Exception e) {
@@ -84,37 +154,140 @@ public class GoogleSheetsService {
         }
     }
 
+    /** Queues the user's row for the next flush; never blocks on the Sheets API. */
     public void syncUser(User user) {
-        if (!enabled) return;
-        try {
-            List<Object> row = new ArrayList<>();
-            row.add(String.valueOf(user.getId()));
-            row.add(user.getUsername());
-            row.add(user.getDisplayName() != null ? user.getDisplayName() : user.getUsername());
-            row.add(String.valueOf(user.getWins()));
-            row.add(String.valueOf(user.getLosses()));
-            row.add(String.valueOf(user.getDraws()));
-            row.add(String.valueOf(user.getGamesPlayed()));
-            row.add(String.valueOf(user.getBestStreak()));
-            row.add(user.getDeviceId() != null ? user.getDeviceId() : "");
-            row.add(user.getDeviceName() != null ? user.getDeviceName() : "");
-            row.add(user.getThemePreference());
-            row.add(user.getJoinedAt() != null ? user.getJoinedAt().toString() : "");
-            row.add(user.getLastLogin() != null ? user.getLastLogin().toString() : "");
-            row.add(user.getProfilePhotoUrl() != null ? user.getProfilePhotoUrl() : "");
-            row.add(String.valueOf(user.getTotalMoves()));
+        if (user.getId() == null) return;
+        dirty.add(user.getId());
+        if (user.isSyncedToSheet()) {
+            userRepository.updateSyncedToSheet(List.of(user.getId()), false);
+            user.setSyncedToSheet(false);
+        }
+    }
 
-            List<List<Object>> rows = new ArrayList<>();
-            rows.add(row);
+    @Scheduled(initialDelayString = "${google.sheets.flush-interval-ms}",
+               fixedDelayString = "${google.sheets.flush-interval-ms}")
+    public void flush() {
+        if (!enabled || (dirty.isEmpty() && !backlog)) return;
+        if (System.currentTimeMillis() < nextAttemptAt) return;
+
+        // Drain before reading so a change made during the flush stays queued for the next one
+        List<Long> ids = new ArrayList<>(dirty);
+        if (ids.size() > batchSize) ids = ids.subList(0, batchSize);
+        dirty.removeAll(ids);
+
+        Map<Long, User> users = new LinkedHashMap<>();
+        userRepository.findAllById(ids).forEach(user -> users.put(user.getId(), user));
+        int room = batchSize - users.size();
+        if (room > 0) {
+            List<User> unsynced = userRepository.findBySyncedToSheetFalse(PageRequest.of(0, room));
+            unsynced.forEach(user -> users.putIfAbsent(user.getId(), user));
+            backlog = unsynced.size() == room;
+        }
+        if (users.isEmpty()) return;
 
-            ValueRange body = new ValueRange().setValues(rows);
+        try {
+            if (rowsById == null) loadIndex();
+            List<ValueRange> data = new ArrayList<>(users.size());
+            for (User user : users.values()) {
+                int row = rowsById.computeIfAbsent(user.getId(), id -> freeRows.isEmpty() ? nextRow++ : freeRows.pollFirst());
+                data.add(new ValueRange()
+                        .setRange(sheetName + "!A" + row + ":" + LAST_COLUMN + row)
+                        .setValues(List.of(toRow(user))));
+            }
+            if (nextRow - 1 > rowCount) extendGrid(Math.max(nextRow - 1 - rowCount, batchSize));
             sheetsService.spreadsheets().values()
-                    .append(spreadsheetId, sheetName + "!A:O", body)
-                    .setValueInputOption("RAW")
-                    .setInsertDataOption("INSERT_ROWS")
+                    .batchUpdate(spreadsheetId, new BatchUpdateValuesRequest()
+                            .setValueInputOption("RAW")
+                            .setData(data))
                     .execute();
+
+            List<Long> synced = new ArrayList<>(users.size());
+            for (Long id : users.keySet()) {
+                if (!dirty.contains(id)) synced.add(id);
+            }
+            if (!synced.isEmpty()) userRepository.updateSyncedToSheet(synced, true);
+            retryDelayMs = 0;
+            nextAttemptAt = 0;
         } catch (Exception e) {
-            System.out.println("Sheet sync failed for user " + user.getUsername() + ": " + e.getMessage());
+            dirty.addAll(users.keySet());
+            // The sheet may have been edited by hand; read it again rather than retry the same rows
+            rowsById = null;
+            retryDelayMs = retryDelayMs == 0 ? retryInitialMs : Math.min(retryMaxMs, retryDelayMs * 2);
+            nextAttemptAt = System.currentTimeMillis() + retryDelayMs;
+            System.out.println("⚠️  Sheet sync of " + users.size() + " users failed, retrying in "
+                    + retryDelayMs + " ms: " + e.getMessage());
+        }
+    }
+
+    // Maps each ID in column A to its row; blank rows and repeats of an ID become free rows
+    private void loadIndex() throws Exception {
+        SheetProperties properties = null;
+        for (Sheet sheet : sheetsService.spreadsheets().get(spreadsheetId).setFields("sheets.properties")
+                .execute().getSheets()) {
+            if (sheetName.equals(sheet.getProperties().getTitle())) properties = sheet.getProperties();
         }
+        if (properties == null) throw new IllegalStateException("No sheet named " + sheetName);
+
+        List<List<Object>> ids = sheetsService.spreadsheets().values()
+                .get(spreadsheetId, sheetName + "!A2:A").execute().getValues();
+        Map<Long, Integer> index = new HashMap<>();
+        List<String> repeats = new ArrayList<>();
+        freeRows.clear();
+        int count = ids == null ? 0 : ids.size();
+        for (int i = 0; i < count; i++) {
+            int row = i + 2;
+            String cell = ids.get(i).isEmpty() ? "" : String.valueOf(ids.get(i).get(0)).trim();
+            if (cell.isEmpty()) {
+                freeRows.add(row);
+                continue;
+            }
+            try {
+                if (index.putIfAbsent(Long.parseLong(cell), row) != null) {
+                    repeats.add(sheetName + "!A" + row + ":" + LAST_COLUMN + row);
+                    freeRows.add(row);
+                }
+            } catch (NumberFormatException e) {
+                // Not one of ours; leave it alone
+            }
+        }
+        if (!repeats.isEmpty()) {
+            sheetsService.spreadsheets().values()
+                    .batchClear(spreadsheetId, new BatchClearValuesRequest().setRanges(repeats))
+                    .execute();
+            System.out.println("🧹 Cleared " + repeats.size() + " duplicate user rows from the sheet");
+        }
+        sheetId = properties.getSheetId();
+        rowCount = properties.getGridProperties().getRowCount();
+        nextRow = count + 2;
+        rowsById = index;
+    }
+
+    private void extendGrid(int rows) throws Exception {
+        sheetsService.spreadsheets()
+                .batchUpdate(spreadsheetId, new BatchUpdateSpreadsheetRequest().setRequests(List.of(
+                        new Request().setAppendDimension(new AppendDimensionRequest()
+                                .setSheetId(sheetId).setDimension("ROWS").setLength(rows)))))
+                .execute();
+        rowCount += rows;
+    }
+
+    private static List<Object> toRow(User user) {
+        List<Object> row = new ArrayList<>();
+        row.add(String.valueOf(user.getId()));
+        row.add(user.getUsername());
+        row.add(user.getDisplayName() != null ? user.getDisplayName() : user.getUsername());
+        row.add(String.valueOf(user.getWins()));
+        row.add(String.valueOf(user.getLosses()));
+        row.add(String.valueOf(user.getDraws()));
+        row.add(String.valueOf(user.getGamesPlayed()));
+        row.add(String.valueOf(user.getBestStreak()));
+        row.add(user.getDeviceId() != null ? user.getDeviceId() : "");
+        row.add(user.getDeviceName() != null ? user.getDeviceName() : "");
+        row.add(user.getThemePreference());
+        row.add(user.getJoinedAt() != null ? user.getJoinedAt().toString() : "");
+        row.add(user.getLastLogin() != null ? user.getLastLogin().toString() : "");
+        row.add(user.getProfilePhotoUrl() != null ? user.getProfilePhotoUrl() : "");
+        row.add(String.valueOf(user.getTotalMoves()));
+        return row;
     }
 }
@@ -0,0 +1,160 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.LeaderboardEntry;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Player ranking kept in memory so top-N pages and "my rank" are O(log N)
+ * instead of sorting the users table per request. Loaded at startup, updated
+ * as users change, and reconciled with the database periodically in case an
+ * update was missed.
+ */
+@Service
+public class LeaderboardService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Highest rating first, then most wins; the user id keeps the order total
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator
+            .comparingInt(LeaderboardEntry::getRating).reversed()
+            .thenComparing(Comparator.comparingInt(LeaderboardEntry::getWins).reversed())
+            .thenComparing(LeaderboardEntry::getId);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final RankingTree<LeaderboardEntry> ranking = new RankingTree<>(ORDER);
+    private final Map<Long, LeaderboardEntry> byUserId = new HashMap<>();
+    private final Map<String, Long> idsByUsername = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void load() {
+        reconcile();
+    }
+
+    /** Applies a user's latest stats. */
+    public void update(User user) {
+        put(new LeaderboardEntry(user.getId(), user.getUsername(), user.getDisplayName(), user.getProfilePhotoUrl(),
+                user.getProfileThumbnailUrl(),
+                user.getWins(), user.getLosses(), user.getDraws(), user.getGamesPlayed(),
+                user.getRating(), user.getRatingDeviation()));
+    }
+
+    /** Up to {@code limit} players from 0-based position {@code offset}, best first. */
+    public List<LeaderboardEntry> getTop(int offset, int limit) {
+        int from = Math.max(0, offset);
+        int count = Math.max(1, Math.min(MAX_PAGE_SIZE, limit));
+        lock.readLock().lock();
+        try {
+            List<LeaderboardEntry> page = ranking.range(from, count);
+            List<LeaderboardEntry> ranked = new ArrayList<>(page.size());
+            for (int i = 0; i < page.size(); i++) ranked.add(page.get(i).withRank(from + i + 1));
+            return ranked;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** The user's entry with its 1-based rank, or null if they are not ranked yet. */
+    public LeaderboardEntry getStanding(String username) {
+        lock.readLock().lock();
+        try {
+            Long id = idsByUsername.get(username);
+            LeaderboardEntry entry = id == null ? null : byUserId.get(id);
+            return entry == null ? null : entry.withRank(ranking.rank(entry) + 1);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getTotalPlayers() {
+        lock.readLock().lock();
+        try {
+            return ranking.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Brings the ranking in line with the database. games_played only grows,
+     * so a row that is behind the in-memory entry was read before a newer
+     * update landed and is skipped rather than rolling that update back.
+     */
+    @Scheduled(initialDelayString = "${app.leaderboard.reconcile-interval-ms}",
+               fixedDelayString = "${app.leaderboard.reconcile-interval-ms}")
+    public void reconcile() {
+        List<LeaderboardEntry> rows = userRepository.findLeaderboardEntries();
+        Set<Long> present = new HashSet<>(rows.size() * 2);
+        int changed = 0;
+        lock.writeLock().lock();
+        try {
+            for (LeaderboardEntry row : rows) {
+                present.add(row.getId());
+                LeaderboardEntry current = byUserId.get(row.getId());
+                if (current != null && (current.getGamesPlayed() > row.getGamesPlayed() || same(current, row))) continue;
+                replace(current, row);
+                changed++;
+            }
+            for (LeaderboardEntry stale : new ArrayList<>(byUserId.values())) {
+                if (present.contains(stale.getId())) continue;
+                ranking.remove(stale);
+                byUserId.remove(stale.getId());
+                idsByUsername.remove(stale.getUsername());
+                changed++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (changed > 0) System.out.println("🏆 Leaderboard reconciled: " + changed + " of " + rows.size() + " players updated");
+    }
+
+    // As in reconcile, a save that finishes late must not roll back a newer one
+    private void put(LeaderboardEntry entry) {
+        lock.writeLock().lock();
+        try {
+            LeaderboardEntry current = byUserId.get(entry.getId());
+            if (current != null && current.getGamesPlayed() > entry.getGamesPlayed()) return;
+            replace(current, entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void replace(LeaderboardEntry current, LeaderboardEntry entry) {
+        if (current != null) {
+            ranking.remove(current);
+            idsByUsername.remove(current.getUsername());
+        }
+        ranking.insert(entry);
+        byUserId.put(entry.getId(), entry);
+        idsByUsername.put(entry.getUsername(), entry.getId());
+    }
+
+    private static boolean same(LeaderboardEntry a, LeaderboardEntry b) {
+        return a.getWins() == b.getWins() && a.getLosses() == b.getLosses() && a.getDraws() == b.getDraws()
+                && a.getGamesPlayed() == b.getGamesPlayed() && a.getRating() == b.getRating()
+                && a.getRatingDeviation() == b.getRatingDeviation() && a.getUsername().equals(b.getUsername())
+                && Objects.equals(a.getDisplayName(), b.getDisplayName())
+                && Objects.equals(a.getProfilePhotoUrl(), b.getProfilePhotoUrl())
+                && Objects.equals(a.getProfileThumbnailUrl(), b.getProfileThumbnailUrl());
+    }
+}
@@ -0,0 +1,133 @@
+package com.therjhub.rchessmistry.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bulkhead for bcrypt. Hashing runs on a few dedicated threads behind a short
+ * queue. When both are full a request is turned away at once instead of
+ * waiting, so a login burst can tie up at most threads + queue request
+ * threads and every other endpoint keeps its share of Tomcat.
+ */
+@Service
+public class PasswordHasher {
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Value("${app.auth.hash-threads}")
+    private int threads;
+
+    @Value("${app.auth.hash-queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${app.auth.hash-timeout-ms}")
+    private long timeoutMs;
+
+    private ThreadPoolExecutor executor;
+
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder hashNanos = new LongAdder();
+    private final LongAdder waitNanos = new LongAdder();
+    private final AtomicInteger peakQueue = new AtomicInteger();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /** Throws RejectedExecutionException when the bulkhead is full or the hash took too long. */
+    public String encode(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    private <T> T run(Callable<T> work) {
+        long queuedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                waitNanos.add(start - queuedAt);
+                try {
+                    return work.call();
+                } finally {
+                    hashNanos.add(System.nanoTime() - start);
+                    completed.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw busy();
+        }
+        peakQueue.accumulateAndGet(executor.getQueue().size(), Math::max);
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOut.increment();
+            throw busy();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw busy();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    private static RejectedExecutionException busy() {
+        return new RejectedExecutionException("Too many sign-ins right now. Please try again in a moment.");
+    }
+
+    public Map<String, Object> getStats() {
+        long done = completed.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hashThreads", threads);
+        stats.put("hashActive", executor.getActiveCount());
+        stats.put("hashQueued", executor.getQueue().size());
+        stats.put("hashQueuePeak", peakQueue.get());
+        stats.put("hashQueueCapacity", queueCapacity);
+        stats.put("hashCompleted", done);
+        stats.put("hashRejected", rejected.sum());
+        stats.put("hashTimedOut", timedOut.sum());
+        stats.put("hashAvgMs", done == 0 ? 0 : hashNanos.sum() / done / 1_000_000.0);
+        stats.put("hashAvgWaitMs", done == 0 ? 0 : waitNanos.sum() / done / 1_000_000.0);
+        return stats;
+    }
+}
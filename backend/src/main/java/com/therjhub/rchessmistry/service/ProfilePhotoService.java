@@ -0,0 +1,272 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Profile photos on disk. An upload is checked by its leading bytes and then
+ * moved into place from the multipart temp file, so it never sits on the heap.
+ * A square JPEG thumbnail is made in the background for avatars; until it is
+ * ready the user's thumbnail URL stays null. Like game analysis, a full queue
+ * only defers the work to the periodic sweep.
+ */
+@Service
+public class ProfilePhotoService {
+
+    public static final String URL_PREFIX = "/uploads/profiles/";
+
+    private static final String THUMBNAIL_SUFFIX = "_thumb.jpg";
+    private static final float THUMBNAIL_QUALITY = 0.85f;
+
+    private enum ImageType {
+        JPEG("jpg", 0xFF, 0xD8, 0xFF),
+        PNG("png", 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A),
+        GIF("gif", 'G', 'I', 'F', '8');
+
+        final String extension;
+        final int[] magic;
+
+        ImageType(String extension, int... magic) {
+            this.extension = extension;
+            this.magic = magic;
+        }
+
+        static ImageType detect(byte[] head) {
+            for (ImageType type : values()) {
+                if (head.length < type.magic.length) continue;
+                boolean match = true;
+                for (int i = 0; i < type.magic.length && match; i++) match = (head[i] & 0xFF) == type.magic[i];
+                if (match) return type;
+            }
+            return null;
+        }
+    }
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Value("${app.upload.dir}")
+    private String uploadDir;
+
+    @Value("${app.upload.thumbnail-size}")
+    private int thumbnailSize;
+
+    @Value("${app.upload.thumbnail-threads}")
+    private int threads;
+
+    @Value("${app.upload.thumbnail-queue-capacity}")
+    private int queueCapacity;
+
+    private Path directory;
+    private ThreadPoolExecutor workers;
+    // Photos waiting or being thumbnailed, so the sweep does not queue one twice
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() throws IOException {
+        directory = Paths.get(uploadDir).toAbsolutePath();
+        Files.createDirectories(directory);
+        AtomicInteger counter = new AtomicInteger();
+        workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "photo-thumbnail-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    /** Moves an uploaded image into the photo directory and returns its URL path. */
+    public String store(Long userId, MultipartFile file) throws IOException {
+        ImageType type;
+        try (InputStream in = file.getInputStream()) {
+            type = ImageType.detect(in.readNBytes(8));
+        }
+        if (type == null) throw new RuntimeException("Only JPEG, PNG or GIF photos are supported.");
+
+        // Named by id: a username may hold characters the photo filter will not serve
+        String filename = userId + "_" + UUID.randomUUID().toString().substring(0, 8) + "." + type.extension;
+        // An absolute target lets the container rename its temp file instead of copying through memory
+        file.transferTo(directory.resolve(filename).toFile());
+        return URL_PREFIX + filename;
+    }
+
+    /** Queues a thumbnail for the user's current photo; returns false if it was left for the sweep. */
+    public boolean submit(Long userId, String photoUrl) {
+        if (!queued.add(photoUrl)) return true;
+        try {
+            workers.execute(() -> {
+                try {
+                    makeThumbnail(userId, photoUrl);
+                } finally {
+                    queued.remove(photoUrl);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            queued.remove(photoUrl);
+            return false;
+        }
+    }
+
+    // Picks up photos deferred by a full queue or interrupted by a restart
+    @Scheduled(initialDelayString = "${app.upload.thumbnail-sweep-interval-ms}",
+               fixedDelayString = "${app.upload.thumbnail-sweep-interval-ms}")
+    public void sweep() {
+        int room = workers.getQueue().remainingCapacity();
+        if (room == 0) return;
+        for (User user : userRepository.findByProfilePhotoUrlIsNotNullAndProfileThumbnailUrlIsNull(
+                PageRequest.of(0, room))) {
+            if (!submit(user.getId(), user.getProfilePhotoUrl())) break;
+        }
+    }
+
+    private void makeThumbnail(Long userId, String photoUrl) {
+        Path photo = resolve(photoUrl);
+        if (photo == null) return;
+        String thumbnailUrl = photoUrl.substring(0, photoUrl.lastIndexOf('.')) + THUMBNAIL_SUFFIX;
+        Path thumbnail = resolve(thumbnailUrl);
+        try {
+            if (!Files.exists(photo)) {
+                // Nothing to shrink; pointing at the photo itself stops the sweep retrying it
+                userRepository.updateProfileThumbnail(userId, photoUrl, photoUrl);
+                return;
+            }
+            Path partial = thumbnail.resolveSibling(thumbnail.getFileName() + ".part");
+            try {
+                writeJpeg(scaleToSquare(readSubsampled(photo)), partial);
+                Files.move(partial, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(partial);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.out.println("⚠️  Thumbnail for " + photoUrl + " failed, using the photo: " + e.getMessage());
+            thumbnailUrl = photoUrl;
+        }
+
+        if (userRepository.updateProfileThumbnail(userId, photoUrl, thumbnailUrl) == 0) {
+            // A newer photo replaced this one while the thumbnail was being made
+            if (!thumbnailUrl.equals(photoUrl)) delete(thumbnailUrl);
+            return;
+        }
+        userRepository.findById(userId).ifPresent(leaderboardService::update);
+    }
+
+    // Decodes at most about twice the thumbnail size, so a large photo never expands fully in memory
+    private BufferedImage readSubsampled(Path photo) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(photo.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) throw new IOException("Unreadable image");
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int side = Math.min(reader.getWidth(0), reader.getHeight(0));
+                int step = Math.max(1, side / (2 * thumbnailSize));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Centre crop to a square, scaled in halving steps so the downscale stays smooth
+    private BufferedImage scaleToSquare(BufferedImage source) {
+        int side = Math.min(source.getWidth(), source.getHeight());
+        BufferedImage current = source.getSubimage((source.getWidth() - side) / 2,
+                (source.getHeight() - side) / 2, side, side);
+        int size = side;
+        do {
+            size = Math.max(thumbnailSize, size / 2);
+            BufferedImage next = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = next.createGraphics();
+            try {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, size, size);
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.drawImage(current, 0, 0, size, size, null);
+            } finally {
+                g.dispose();
+            }
+            current = next;
+        } while (size > thumbnailSize);
+        return current;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(THUMBNAIL_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /** Removes a photo or thumbnail that is no longer referenced; failures are ignored. */
+    public void delete(String... urls) {
+        Arrays.stream(urls).map(this::resolve).filter(path -> path != null).forEach(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                System.out.println("⚠️  Could not delete " + path + ": " + e.getMessage());
+            }
+        });
+    }
+
+    // Maps a URL path back to its file, refusing anything outside the photo directory
+    private Path resolve(String url) {
+        if (url == null || !url.startsWith(URL_PREFIX)) return null;
+        Path path = directory.resolve(url.substring(URL_PREFIX.length())).normalize();
+        return path.getParent() != null && path.getParent().equals(directory) ? path : null;
+    }
+}
@@ -0,0 +1,132 @@
+package com.therjhub.rchessmistry.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order-statistic treap: insert, remove and rank in O(log n), and a window of
+ * {@code count} entries from any rank in O(log n + count). Not thread-safe.
+ */
+final class RankingTree<T> {
+
+    private static final class Node<T> {
+        final T value;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        int size = 1;
+        Node<T> left, right;
+
+        Node(T value) { this.value = value; }
+    }
+
+    private final Comparator<? super T> order;
+    private Node<T> root;
+
+    RankingTree(Comparator<? super T> order) {
+        this.order = order;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    void insert(T value) {
+        root = insert(root, new Node<>(value));
+    }
+
+    boolean remove(T value) {
+        int before = size(root);
+        root = remove(root, value);
+        return size(root) < before;
+    }
+
+    /** Number of entries ordered before {@code value}, i.e. its 0-based rank. */
+    int rank(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (order.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /** Up to {@code count} entries starting at 0-based rank {@code from}. */
+    List<T> range(int from, int count) {
+        List<T> out = new ArrayList<>(Math.max(0, Math.min(count, size(root) - from)));
+        collect(root, from, count, out);
+        return out;
+    }
+
+    private void collect(Node<T> node, int from, int count, List<T> out) {
+        if (node == null || out.size() >= count) return;
+        int leftSize = size(node.left);
+        if (from < leftSize) collect(node.left, from, count, out);
+        if (out.size() >= count) return;
+        if (from <= leftSize) out.add(node.value);
+        if (from + count > leftSize + 1) collect(node.right, Math.max(0, from - leftSize - 1), count, out);
+    }
+
+    private Node<T> insert(Node<T> node, Node<T> fresh) {
+        if (node == null) return fresh;
+        if (fresh.priority > node.priority) {
+            Node<T>[] parts = split(node, fresh.value);
+            fresh.left = parts[0];
+            fresh.right = parts[1];
+            return update(fresh);
+        }
+        if (order.compare(fresh.value, node.value) < 0) node.left = insert(node.left, fresh);
+        else node.right = insert(node.right, fresh);
+        return update(node);
+    }
+
+    // Splits a subtree into entries ordered before value and the rest
+    @SuppressWarnings("unchecked")
+    private Node<T>[] split(Node<T> node, T value) {
+        if (node == null) return new Node[2];
+        if (order.compare(node.value, value) < 0) {
+            Node<T>[] parts = split(node.right, value);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, value);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    private Node<T> remove(Node<T> node, T value) {
+        if (node == null) return null;
+        int cmp = order.compare(value, node.value);
+        if (cmp == 0) return merge(node.left, node.right);
+        if (cmp < 0) node.left = remove(node.left, value);
+        else node.right = remove(node.right, value);
+        return update(node);
+    }
+
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) return right;
+        if (right == null) return left;
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static <T> Node<T> update(Node<T> node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+}
@@ -0,0 +1,376 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.RatedGame;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.rating.Glicko2;
+import com.therjhub.rchessmistry.rating.Rating;
+import com.therjhub.rchessmistry.repository.GameRecordRepository;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Glicko-2 ratings from saved bot and online games. Each bot difficulty is a
+ * fixed anchor rating. An online game is saved once per player with the other
+ * player's rating from just before it was recorded, and that value is the
+ * opponent's rating for good, so both players move against each other's
+ * pre-game rating. A saved game updates its player right away as a one-game
+ * rating period.
+ *
+ * {@link #recompute()} rebuilds every rating from the game records, e.g. after
+ * changing the parameters. It reads games in keyset pages ordered by user and
+ * time. Against those fixed values no two players' ratings depend on each other,
+ * so each page's users are replayed in parallel on a fork-join pool. The new
+ * ratings are written back a chunk of users per transaction. Games saved while
+ * it runs are queued and applied once the new ratings are written; live
+ * updates only wait for the brief switch into and out of that mode.
+ */
+@Service
+public class RatingService {
+
+    private static final int PAGE_SIZE = 50_000;
+    // Below this many users a fork-join task replays them itself
+    private static final int USERS_PER_TASK = 64;
+    // The deviation is capped long before this many idle periods
+    private static final int MAX_IDLE_PERIODS = 1_000;
+    // Users written back per transaction by a recompute
+    private static final int WRITE_BATCH = 1_000;
+    // Power of two; a user's live updates are serialised on one of these
+    private static final int USER_LOCKS = 64;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GameRecordRepository gameRecordRepository;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.rating.tau}")
+    private double tau;
+
+    @Value("${app.rating.bot-ratings}")
+    private String botRatings;
+
+    @Value("${app.rating.bot-deviation}")
+    private double botDeviation;
+
+    @Value("${app.rating.period-hours}")
+    private int periodHours;
+
+    @Value("${app.rating.recompute-threads}")
+    private int recomputeThreads;
+
+    @Value("${app.rating.recompute-on-startup}")
+    private boolean recomputeOnStartup;
+
+    private Glicko2 glicko;
+    private final Map<GameRecord.GameMode, Double> anchors = new EnumMap<>(GameRecord.GameMode.class);
+
+    // Live updates hold the read side; a recompute takes the write side only to switch modes
+    private final ReadWriteLock mode = new ReentrantReadWriteLock();
+    private final Object[] userLocks = new Object[USER_LOCKS];
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile boolean recomputing;
+    private volatile long recomputeMaxId;
+    private final Queue<RatedGame> pending = new ConcurrentLinkedQueue<>();
+
+    @PostConstruct
+    public void init() {
+        glicko = new Glicko2(tau);
+        for (int i = 0; i < userLocks.length; i++) userLocks[i] = new Object();
+        for (String pair : botRatings.split(",")) {
+            String[] parts = pair.trim().split(":");
+            anchors.put(GameRecord.GameMode.valueOf(parts[0].trim()), Double.parseDouble(parts[1].trim()));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recomputeOnStartup() {
+        if (!recomputeOnStartup) return;
+        Thread thread = new Thread(this::recompute, "rating-recompute");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public boolean isRated(GameRecord record) {
+        if (record.getOpponentRating() != null) return true;
+        return record.getOpponentType() == GameRecord.OpponentType.BOT && anchors.containsKey(record.getGameMode());
+    }
+
+    /**
+     * Runs the transaction that inserts a game. Ids are handed out before
+     * commit, so without this a recompute could snapshot a higher id while the
+     * game is still invisible, and then neither replay nor rate it.
+     */
+    public <T> T inserting(Supplier<T> insert) {
+        mode.readLock().lock();
+        try {
+            return insert.get();
+        } finally {
+            mode.readLock().unlock();
+        }
+    }
+
+    /** Rates a just-saved game and mirrors the new rating onto the (in-memory) user. */
+    public void recordGame(User user, GameRecord record) {
+        if (!isRated(record)) return;
+        RatedGame game = new RatedGame(record.getId(), user.getId(), record.getGameMode(), record.getResult(),
+                record.getPlayedAt(), record.getOpponentRating(), record.getOpponentDeviation());
+        Rating rating;
+        mode.readLock().lock();
+        try {
+            if (recomputing) {
+                // Games up to the recompute's snapshot are already part of it
+                if (game.getId() > recomputeMaxId) pending.add(game);
+                return;
+            }
+            rating = apply(game);
+        } finally {
+            mode.readLock().unlock();
+        }
+        user.setRating(rating.getRating());
+        user.setRatingDeviation(rating.getDeviation());
+        user.setRatingVolatility(rating.getVolatility());
+        user.setRatedGames(user.getRatedGames() + 1);
+    }
+
+    // Read and write back under the user's lock, so two saves for one user never rate from the same old value
+    private Rating apply(RatedGame game) {
+        synchronized (userLocks[(int) (game.getUserId() & (USER_LOCKS - 1))]) {
+            Rating current = userRepository.findRating(game.getUserId());
+            Rating next = glicko.update(current, new double[] { opponent(game) },
+                    new double[] { opponentDeviation(game) }, new double[] { score(game) }, 1);
+            userRepository.addRatedGames(game.getUserId(), next.getRating(), next.getDeviation(),
+                    next.getVolatility(), 1);
+            return next;
+        }
+    }
+
+    @Scheduled(cron = "${app.rating.recompute-cron}")
+    public void scheduledRecompute() {
+        recompute();
+    }
+
+    /** Rebuilds every rating from the game records; returns false if a rebuild is already running. */
+    public boolean recompute() {
+        if (!running.compareAndSet(false, true)) return false;
+        // Waits for inserts and live updates in flight, so every game up to the snapshot is committed and
+        // either applied or replayed, not both
+        mode.writeLock().lock();
+        try {
+            recomputeMaxId = gameRecordRepository.findMaxId();
+            recomputing = true;
+        } finally {
+            mode.writeLock().unlock();
+        }
+        long start = System.currentTimeMillis();
+        int threads = recomputeThreads > 0 ? recomputeThreads : Runtime.getRuntime().availableProcessors();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int catchUp = 0;
+        try {
+            Map<Long, Replayed> results = replayAll(pool);
+            writeBack(results);
+            long games = results.values().stream().mapToLong(replayed -> replayed.games).sum();
+            System.out.println("📈 Ratings recomputed: " + games + " games, " + results.size() + " players in "
+                    + (System.currentTimeMillis() - start) + " ms on " + threads + " threads");
+        } catch (RuntimeException e) {
+            System.out.println("⚠️  Rating recompute failed: " + e.getMessage());
+        } finally {
+            pool.shutdown();
+            try {
+                // The backlog so far is applied while saves keep queueing; what arrives meanwhile under the write lock
+                catchUp += drainPending(pending.size());
+                mode.writeLock().lock();
+                try {
+                    catchUp += drainPending(Integer.MAX_VALUE);
+                } finally {
+                    recomputing = false;
+                    mode.writeLock().unlock();
+                }
+            } finally {
+                pending.clear();
+                running.set(false);
+            }
+        }
+        if (catchUp > 0) System.out.println("📈 Applied " + catchUp + " games saved during the recompute");
+        leaderboardService.reconcile();
+        return true;
+    }
+
+    // Users with no replayed games go back to the initial rating; the rest are overwritten a chunk at a time
+    private void writeBack(Map<Long, Replayed> results) {
+        userRepository.resetRatingsWithoutGames(Rating.INITIAL.getRating(), Rating.INITIAL.getDeviation(),
+                Rating.INITIAL.getVolatility(), GameRecord.OpponentType.BOT, new ArrayList<>(anchors.keySet()),
+                recomputeMaxId);
+        List<Map.Entry<Long, Replayed>> entries = new ArrayList<>(results.entrySet());
+        for (int from = 0; from < entries.size(); from += WRITE_BATCH) {
+            List<Map.Entry<Long, Replayed>> chunk = entries.subList(from, Math.min(entries.size(), from + WRITE_BATCH));
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(entry ->
+                    userRepository.setRating(entry.getKey(), entry.getValue().rating.getRating(),
+                            entry.getValue().rating.getDeviation(), entry.getValue().rating.getVolatility(),
+                            entry.getValue().games)));
+        }
+    }
+
+    private int drainPending(int limit) {
+        int applied = 0;
+        for (RatedGame game; applied < limit && (game = pending.poll()) != null; applied++) apply(game);
+        return applied;
+    }
+
+    private Map<Long, Replayed> replayAll(ForkJoinPool pool) {
+        Map<Long, Replayed> results = new HashMap<>();
+        List<GameRecord.GameMode> modes = new ArrayList<>(anchors.keySet());
+        List<RatedGame> carry = new ArrayList<>();
+        RatedGame last = null;
+        while (true) {
+            PageRequest page = PageRequest.of(0, PAGE_SIZE);
+            List<RatedGame> rows = last == null
+                    ? gameRecordRepository.findRatedGames(GameRecord.OpponentType.BOT, modes, recomputeMaxId, page)
+                    : gameRecordRepository.findRatedGamesAfter(GameRecord.OpponentType.BOT, modes, recomputeMaxId,
+                            last.getUserId(), last.getPlayedAt(), last.getId(), page);
+            if (rows.isEmpty()) break;
+            last = rows.get(rows.size() - 1);
+            List<RatedGame> batch = new ArrayList<>(carry.size() + rows.size());
+            batch.addAll(carry);
+            batch.addAll(rows);
+            carry = new ArrayList<>();
+            if (rows.size() == PAGE_SIZE) {
+                // The last user's games may continue on the next page
+                int cut = batch.size();
+                while (cut > 0 && batch.get(cut - 1).getUserId().equals(last.getUserId())) cut--;
+                carry.addAll(batch.subList(cut, batch.size()));
+                batch = batch.subList(0, cut);
+            }
+            replay(pool, batch, results);
+            if (rows.size() < PAGE_SIZE) break;
+        }
+        replay(pool, carry, results);
+        return results;
+    }
+
+    private void replay(ForkJoinPool pool, List<RatedGame> games, Map<Long, Replayed> results) {
+        if (games.isEmpty()) return;
+        List<Integer> starts = new ArrayList<>();
+        for (int i = 0; i < games.size(); i++) {
+            if (i == 0 || !games.get(i).getUserId().equals(games.get(i - 1).getUserId())) starts.add(i);
+        }
+        starts.add(games.size());
+        Replayed[] out = new Replayed[starts.size() - 1];
+        pool.invoke(new ReplayTask(games, starts, 0, out.length, out));
+        for (int u = 0; u < out.length; u++) results.put(games.get(starts.get(u)).getUserId(), out[u]);
+    }
+
+    private final class ReplayTask extends RecursiveAction {
+        private final List<RatedGame> games;
+        private final List<Integer> starts;
+        private final int fromUser, toUser;
+        private final Replayed[] out;
+
+        ReplayTask(List<RatedGame> games, List<Integer> starts, int fromUser, int toUser, Replayed[] out) {
+            this.games = games;
+            this.starts = starts;
+            this.fromUser = fromUser;
+            this.toUser = toUser;
+            this.out = out;
+        }
+
+        @Override
+        protected void compute() {
+            if (toUser - fromUser <= USERS_PER_TASK) {
+                for (int u = fromUser; u < toUser; u++) out[u] = replayUser(games, starts.get(u), starts.get(u + 1));
+                return;
+            }
+            int mid = (fromUser + toUser) >>> 1;
+            invokeAll(new ReplayTask(games, starts, fromUser, mid, out),
+                      new ReplayTask(games, starts, mid, toUser, out));
+        }
+    }
+
+    // One player's games in order; with period-hours 0 every game is its own period, as live updates do
+    private Replayed replayUser(List<RatedGame> games, int from, int to) {
+        double[] opponents = new double[to - from];
+        double[] deviations = new double[to - from];
+        double[] scores = new double[to - from];
+        Rating rating = Rating.INITIAL;
+        long previousPeriod = Long.MIN_VALUE;
+        int i = from;
+        while (i < to) {
+            long period = period(games.get(i), i);
+            if (previousPeriod != Long.MIN_VALUE) {
+                long idle = Math.min(MAX_IDLE_PERIODS, period - previousPeriod - 1);
+                for (long k = 0; k < idle; k++) rating = glicko.idle(rating);
+            }
+            int count = 0;
+            while (i < to && period(games.get(i), i) == period) {
+                RatedGame game = games.get(i++);
+                opponents[count] = opponent(game);
+                deviations[count] = opponentDeviation(game);
+                scores[count++] = score(game);
+            }
+            rating = glicko.update(rating, opponents, deviations, scores, count);
+            previousPeriod = period;
+        }
+        return new Replayed(rating, to - from);
+    }
+
+    private long period(RatedGame game, int index) {
+        if (periodHours <= 0) return index;
+        return game.getPlayedAt().toEpochSecond(ZoneOffset.UTC) / (3600L * periodHours);
+    }
+
+    private double opponent(RatedGame game) {
+        return game.getOpponentRating() != null ? game.getOpponentRating() : anchors.get(game.getGameMode());
+    }
+
+    private double opponentDeviation(RatedGame game) {
+        return game.getOpponentDeviation() != null ? game.getOpponentDeviation() : botDeviation;
+    }
+
+    private static double score(RatedGame game) {
+        // Results are recorded from the owner's side
+        return switch (game.getResult()) {
+            case WIN -> 1.0;
+            case DRAW -> 0.5;
+            case LOSS -> 0.0;
+        };
+    }
+
+    private static final class Replayed {
+        final Rating rating;
+        final int games;
+
+        Replayed(Rating rating, int games) {
+            this.rating = rating;
+            this.games = games;
+        }
+    }
+}
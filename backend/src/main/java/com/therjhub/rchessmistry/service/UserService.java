@@ -4,23 +4,38 @@ import com.therjhub.rchessmistry.model.User;
 import com.therjhub.rchessmistry.model.GameRecord;
 import com.therjhub.rchessmistry.repository.UserRepository;
 import com.therjhub.rchessmistry.repository.GameRecordRepository;
+import com.therjhub.rchessmistry.dto.GameDetail;
+import com.therjhub.rchessmistry.dto.GameHistoryPage;
+import com.therjhub.rchessmistry.dto.GameSummary;
+import com.therjhub.rchessmistry.dto.LeaderboardEntry;
 import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.engine.GameCodec;
+import com.therjhub.rchessmistry.engine.Pgn;
+import com.therjhub.rchessmistry.rating.Rating;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 
 @Service
 public class UserService {
 
+    // Matches the moves column length
+    private static final int MAX_ENCODED_MOVES = 4096;
+    private static final int MAX_HISTORY_PAGE = 100;
+    private static final DateTimeFormatter PGN_DATE = DateTimeFormatter.ofPattern("yyyy.MM.dd");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -30,8 +45,20 @@ public class UserService {
     @Autowired
     private GoogleSheetsService sheetsService;
 
-    @Value("${app.upload.dir}")
-    private String uploadDir;
+    @Autowired
+    private GameAnalysisService gameAnalysisService;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ProfilePhotoService profilePhotoService;
 
     public User getProfile(String username) {
         return userRepository.findByUsername(username)
@@ -47,31 +74,40 @@ public class UserService {
     public User updateDisplayName(String username, String displayName) {
         User user = getProfile(username);
         user.setDisplayName(displayName);
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        leaderboardService.update(saved);
+        return saved;
     }
 
     public String uploadProfilePhoto(String username, MultipartFile file) throws IOException {
         User user = getProfile(username);
+        String previousPhoto = user.getProfilePhotoUrl();
+        String previousThumbnail = user.getProfileThumbnailUrl();
 
-        // Create upload directory
-        Path uploadPath = Paths.get(uploadDir);
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
+        String photoUrl = profilePhotoService.store(user.getId(), file);
+        if (userRepository.updateProfilePhoto(user.getId(), previousPhoto, photoUrl) == 0) {
+            // Another upload replaced the photo first; nothing will ever point at this file
+            profilePhotoService.delete(photoUrl);
+            throw new RuntimeException("Your photo was changed by another upload. Please try again.");
         }
-
-        String extension = getFileExtension(file.getOriginalFilename());
-        String filename = username + "_" + UUID.randomUUID().toString().substring(0, 8) + "." + extension;
-        Path filePath = uploadPath.resolve(filename);
-        Files.write(filePath, file.getBytes());
-
-        String photoUrl = "/uploads/profiles/" + filename;
         user.setProfilePhotoUrl(photoUrl);
-        userRepository.save(user);
+        user.setProfileThumbnailUrl(null);
+        leaderboardService.update(user);
+        profilePhotoService.submit(user.getId(), photoUrl);
+        profilePhotoService.delete(previousPhoto, previousThumbnail);
 
         return photoUrl;
     }
 
     public GameRecord saveGame(String username, SaveGameRequest req) {
+        return saveGame(username, req, null);
+    }
+
+    /**
+     * As above for a game the server refereed. With {@code opponent}, the other
+     * player's rating before the game, it is rated against that rating.
+     */
+    public GameRecord saveGame(String username, SaveGameRequest req, Rating opponent) {
         User user = getProfile(username);
 
         GameRecord record = new GameRecord();
@@ -79,50 +115,145 @@ public class UserService {
         record.setOpponentType(GameRecord.OpponentType.valueOf(req.getOpponentType()));
         record.setGameMode(GameRecord.GameMode.valueOf(req.getGameMode()));
         record.setResult(GameRecord.GameResult.valueOf(req.getResult()));
+        if (req.getPlayerColor() != null) record.setPlayerColor(GameRecord.PlayerColor.valueOf(req.getPlayerColor()));
+        record.setOpponentName(req.getOpponentName());
+        if (opponent != null) {
+            record.setOpponentRating(opponent.getRating());
+            record.setOpponentDeviation(opponent.getDeviation());
+        }
         record.setTotalMoves(req.getTotalMoves());
         record.setDurationSeconds(req.getDurationSeconds());
-        record.setPgn(req.getPgn());
+        encodeMoves(record, req.getPgn());
         record.setBlunderCount(req.getBlunderCount());
         record.setAccuracyScore(req.getAccuracyScore());
+        record.setAnalysisStatus(GameRecord.AnalysisStatus.PENDING);
 
-        // Update user stats
-        user.setGamesPlayed(user.getGamesPlayed() + 1);
-        user.setTotalMoves(user.getTotalMoves() + req.getTotalMoves());
-
-        switch (req.getResult()) {
-            case "WIN" -> {
-                user.setWins(user.getWins() + 1);
-                user.setCurrentStreak(user.getCurrentStreak() + 1);
-                if (user.getCurrentStreak() > user.getBestStreak()) {
-                    user.setBestStreak(user.getCurrentStreak());
-                }
-            }
-            case "LOSS" -> {
-                user.setLosses(user.getLosses() + 1);
-                user.setCurrentStreak(0);
-            }
-            case "DRAW" -> {
-                user.setDraws(user.getDraws() + 1);
-            }
+        int win = req.getResult().equals("WIN") ? 1 : 0;
+        int loss = req.getResult().equals("LOSS") ? 1 : 0;
+        int draw = req.getResult().equals("DRAW") ? 1 : 0;
+
+        // Insert and counters commit together; the counters are bumped in SQL so parallel saves never lose one
+        GameRecord saved = ratingService.inserting(() -> transactionTemplate.execute(status -> {
+            GameRecord inserted = gameRecordRepository.save(record);
+            userRepository.addGameResult(user.getId(), req.getTotalMoves(), win, loss, draw);
+            return inserted;
+        }));
+        User updated = userRepository.findById(user.getId()).orElseThrow(() -> new RuntimeException("User not found"));
+
+        sheetsService.syncUser(updated);
+        ratingService.recordGame(updated, saved);
+        leaderboardService.update(updated);
+        gameAnalysisService.submit(saved.getId());
+        return saved;
+    }
+
+    /** One page of the user's games, newest first, after {@code cursor} (null for the first page). */
+    public GameHistoryPage getGameHistory(String username, String cursor, int limit) {
+        Long userId = getProfile(username).getId();
+        int size = Math.max(1, Math.min(MAX_HISTORY_PAGE, limit));
+        // One extra row tells us whether another page exists without a count query
+        PageRequest page = PageRequest.of(0, size + 1);
+        List<GameSummary> games;
+        if (cursor == null || cursor.isBlank()) {
+            games = gameRecordRepository.findHistory(userId, page);
+        } else {
+            String[] key = decodeCursor(cursor);
+            games = gameRecordRepository.findHistoryBefore(userId, LocalDateTime.parse(key[0]), Long.parseLong(key[1]), page);
         }
+        if (games.size() <= size) return new GameHistoryPage(games, null);
 
-        userRepository.save(user);
-        sheetsService.syncUser(user);
+        games = games.subList(0, size);
+        GameSummary last = games.get(size - 1);
+        return new GameHistoryPage(games, encodeCursor(last.getPlayedAt() + "|" + last.getId()));
+    }
 
-        return gameRecordRepository.save(record);
+    public GameDetail getGameDetail(String username, Long gameId) {
+        User user = getProfile(username);
+        GameRecord record = findOwnGame(user, gameId);
+        GameSummary summary = new GameSummary(record.getId(), record.getOpponentType(), record.getGameMode(),
+                record.getResult(), record.getPlayerColor(), record.getOpponentName(), record.getTotalMoves(),
+                record.getDurationSeconds(), record.getBlunderCount(), record.getAccuracyScore(),
+                record.getAnalysisStatus(), record.getPlayedAt());
+        int[] losses = record.getMoveLosses() == null || record.getMoveLosses().isEmpty() ? new int[0]
+                : Arrays.stream(record.getMoveLosses().split(",")).mapToInt(Integer::parseInt).toArray();
+        return new GameDetail(summary, buildPgn(record, user), losses);
     }
 
-    public List<GameRecord> getGameHistory(String username) {
+    public String getGamePgn(String username, Long gameId) {
         User user = getProfile(username);
-        return gameRecordRepository.findByUserOrderByPlayedAtDesc(user);
+        return buildPgn(findOwnGame(user, gameId), user);
+    }
+
+    // Compares ids only, so the game's lazy user is never loaded
+    private GameRecord findOwnGame(User user, Long gameId) {
+        return gameRecordRepository.findById(gameId)
+                .filter(game -> game.getUser().getId().equals(user.getId()))
+                .orElseThrow(() -> new RuntimeException("Game not found"));
+    }
+
+    // Only single-game requests ever decode the stored moves
+    private String buildPgn(GameRecord record, User user) {
+        if (record.getMoves() == null) return record.getPgn();
+
+        Map<String, String> tags = new LinkedHashMap<>();
+        tags.put("Event", "rChessMistry " + record.getGameMode());
+        tags.put("Site", "rChessMistry");
+        tags.put("Date", record.getPlayedAt() == null ? "????.??.??" : record.getPlayedAt().format(PGN_DATE));
+        String player = user.getDisplayName();
+        String opponent = record.getOpponentName() != null ? record.getOpponentName()
+                : record.getOpponentType() == GameRecord.OpponentType.BOT
+                ? "rChessMistry Bot (" + record.getGameMode() + ")" : "Opponent";
+        boolean black = record.getPlayerColor() == GameRecord.PlayerColor.BLACK;
+        tags.put("White", black ? opponent : player);
+        tags.put("Black", black ? player : opponent);
+        // Results are recorded from the owner's side
+        tags.put("Result", switch (record.getResult()) {
+            case WIN -> black ? "0-1" : "1-0";
+            case LOSS -> black ? "1-0" : "0-1";
+            case DRAW -> "1/2-1/2";
+        });
+        return GameCodec.toPgn(record.getMoves(), tags);
     }
 
-    public List<User> getLeaderboard() {
-        return userRepository.findByOrderByWinsDesc();
+    public List<LeaderboardEntry> getLeaderboard(int offset, int limit) {
+        return leaderboardService.getTop(offset, limit);
     }
 
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) return "jpg";
-        return filename.substring(filename.lastIndexOf(".") + 1).toLowerCase();
+    public Map<String, Object> getMyRank(String username) {
+        LeaderboardEntry standing = leaderboardService.getStanding(username);
+        if (standing == null) throw new RuntimeException("User not ranked yet");
+        return Map.of("rank", standing.getRank(), "totalPlayers", leaderboardService.getTotalPlayers(),
+                "entry", standing);
+    }
+
+    // Stores the compact encoding, keeping the text only when it cannot be parsed or is too long
+    private void encodeMoves(GameRecord record, String pgn) {
+        if (pgn == null) return;
+        try {
+            byte[] moves = GameCodec.encode(Pgn.parseGame(pgn));
+            if (moves.length <= MAX_ENCODED_MOVES) {
+                record.setMoves(moves);
+                return;
+            }
+        } catch (IllegalArgumentException e) {
+            System.out.println("⚠️  Keeping unparseable PGN as text: " + e.getMessage());
+        }
+        record.setPgn(pgn);
+    }
+
+    private static String encodeCursor(String key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            if (key.length != 2) throw new IllegalArgumentException();
+            LocalDateTime.parse(key[0]);
+            Long.parseLong(key[1]);
+            return key;
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid history cursor");
+        }
     }
 }
@@ -0,0 +1,173 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Taken usernames in a Bloom filter, so the register screen's per-keystroke
+ * availability check can answer "available" without a query. Only a possible
+ * match goes to the database. Built at startup and added to on register; when
+ * the user count outgrows the filter it is rebuilt at twice the size on a
+ * background thread. The old filter still holds every name, so it keeps
+ * answering meanwhile.
+ */
+@Service
+public class UsernameIndex {
+
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.auth.username-filter-capacity}")
+    private int initialCapacity;
+
+    @Value("${app.auth.username-filter-fpp}")
+    private double falsePositiveRate;
+
+    private BloomFilter filter;
+    private ExecutorService rebuilder;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Names registered while a rebuild reads the table, re-added before it swaps in
+    private List<String> addedDuringRebuild;
+
+    private final LongAdder answeredInMemory = new LongAdder();
+    private final LongAdder checkedInDatabase = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+
+    @PostConstruct
+    public void load() {
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "username-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lock.writeLock().lock();
+        try {
+            addedDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        rebuild(initialCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        rebuilder.shutdownNow();
+    }
+
+    public boolean exists(String username) {
+        if (!mightExist(username)) {
+            answeredInMemory.increment();
+            return false;
+        }
+        checkedInDatabase.increment();
+        boolean exists = userRepository.existsByUsername(username);
+        if (!exists) falsePositives.increment();
+        return exists;
+    }
+
+    private boolean mightExist(String username) {
+        lock.readLock().lock();
+        try {
+            return filter == null || filter.mightContain(username);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Records a newly registered username. */
+    public void add(String username) {
+        int grow = 0;
+        lock.writeLock().lock();
+        try {
+            if (addedDuringRebuild != null) addedDuringRebuild.add(username);
+            if (filter != null) {
+                filter.add(username);
+                if (addedDuringRebuild == null && filter.size() > filter.capacity()) {
+                    grow = filter.capacity() * 2;
+                    addedDuringRebuild = new ArrayList<>();
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (grow == 0) return;
+        // Reading every username is too slow for the registering request to wait on
+        int capacity = grow;
+        try {
+            rebuilder.execute(() -> rebuild(capacity));
+        } catch (RejectedExecutionException e) {
+            lock.writeLock().lock();
+            try {
+                addedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // The caller has claimed the rebuild by setting addedDuringRebuild
+    private void rebuild(int capacity) {
+        BloomFilter next = null;
+        try {
+            long total = userRepository.count();
+            next = new BloomFilter((int) Math.max(capacity, Math.min(Integer.MAX_VALUE / 2, total * 2)),
+                    falsePositiveRate);
+            for (int page = 0; ; page++) {
+                List<String> names = userRepository.findUsernames(
+                        PageRequest.of(page, LOAD_PAGE_SIZE, Sort.by("id")));
+                names.forEach(next::add);
+                if (names.size() < LOAD_PAGE_SIZE) break;
+            }
+        } catch (RuntimeException e) {
+            next = null;
+            System.out.println("⚠️  Username filter rebuild failed, checking the database instead: " + e.getMessage());
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // On failure the old filter stays; it already holds every name added meanwhile
+                if (next != null) {
+                    addedDuringRebuild.forEach(next::add);
+                    filter = next;
+                }
+                addedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            stats.put("usernameFilterSize", filter == null ? 0 : filter.size());
+            stats.put("usernameFilterCapacity", filter == null ? 0 : filter.capacity());
+            stats.put("usernameFilterBytes", filter == null ? 0 : filter.sizeInBytes());
+        } finally {
+            lock.readLock().unlock();
+        }
+        stats.put("usernameChecksInMemory", answeredInMemory.sum());
+        stats.put("usernameChecksInDatabase", checkedInDatabase.sum());
+        stats.put("usernameFalsePositives", falsePositives.sum());
+        return stats;
+    }
+}
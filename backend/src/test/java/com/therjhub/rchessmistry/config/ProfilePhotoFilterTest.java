@@ -0,0 +1,72 @@
+package com.therjhub.rchessmistry.config;
+
+import com.therjhub.rchessmistry.service.ProfilePhotoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProfilePhotoFilterTest {
+
+    @TempDir
+    Path dir;
+
+    private ProfilePhotoFilter filter;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.write(dir.resolve("1_abc.png"), new byte[] { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 });
+        filter = new ProfilePhotoFilter();
+        ReflectionTestUtils.setField(filter, "uploadDir", dir.toString());
+        filter.init();
+    }
+
+    @Test
+    void servesTheRequestedRange() throws Exception {
+        MockHttpServletResponse response = get(HttpHeaders.RANGE, "bytes=2-4");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 2-4/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        assertEquals(3, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    void answersARangeStartingBeyondAnyLongAsUnsatisfiable() throws Exception {
+        MockHttpServletResponse response = get(HttpHeaders.RANGE, "bytes=99999999999999999999-");
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void clampsARangeEndingBeyondAnyLong() throws Exception {
+        MockHttpServletResponse response = get(HttpHeaders.RANGE, "bytes=4-99999999999999999999");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 4-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+        response = get(HttpHeaders.RANGE, "bytes=-99999999999999999999");
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 0-9/10", response.getHeader(HttpHeaders.CONTENT_RANGE));
+    }
+
+    @Test
+    void ignoresAMalformedIfModifiedSince() throws Exception {
+        MockHttpServletResponse response = get(HttpHeaders.IF_MODIFIED_SINCE, "yesterday");
+        assertEquals(200, response.getStatus());
+        assertEquals(10, response.getContentAsByteArray().length);
+    }
+
+    private MockHttpServletResponse get(String header, String value) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", ProfilePhotoService.URL_PREFIX + "1_abc.png");
+        request.addHeader(header, value);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
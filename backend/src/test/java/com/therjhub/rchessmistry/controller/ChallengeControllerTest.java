@@ -0,0 +1,45 @@
+package com.therjhub.rchessmistry.controller;
+
+import com.therjhub.rchessmistry.model.Challenge;
+import com.therjhub.rchessmistry.repository.ChallengeRepository;
+import com.therjhub.rchessmistry.service.ChallengeCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest
+class ChallengeControllerTest {
+
+    @Autowired
+    private ChallengeController challengeController;
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    @Autowired
+    private ChallengeCatalog challengeCatalog;
+
+    @Test
+    void correctsSolutionsSeededByEarlierReleases() throws Exception {
+        Challenge smothered = challengeRepository.findByTitleIn(List.of("Smothered Mate")).get(0);
+        Challenge windmill = challengeRepository.findByTitleIn(List.of("Windmill Combination")).get(0);
+        smothered.setSolutionMoves("Nf7 Rxf7 -- Ng5 -- Qh5");
+        // Edited since it was seeded, so it is not the old seed
+        windmill.setSolutionMoves("Rxe5 Kg7");
+        challengeCatalog.saveAll(List.of(smothered, windmill));
+
+        challengeController.seedChallenges().run();
+
+        assertEquals("Nf7", challengeRepository.findById(smothered.getId()).orElseThrow().getSolutionMoves());
+        assertEquals("Rxe5 Kg7", challengeRepository.findById(windmill.getId()).orElseThrow().getSolutionMoves());
+        assertNotNull(challengeCatalog.getCompiled(smothered.getId()).getLine());
+
+        windmill.setSolutionMoves("Rxe5");
+        challengeCatalog.saveAll(List.of(windmill));
+    }
+}
@@ -0,0 +1,56 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoardTest {
+
+    @Test
+    void replaysHistoryLongerThanThePreallocatedArrays() {
+        Board board = Board.startPosition();
+        String[] uci = { "g1f3", "g8f6", "f3g1", "f6g8" };
+        int[] shuffle = new int[4];
+        int plies = 3 * Board.MAX_HISTORY;
+        for (int i = 0; i < plies; i++) {
+            shuffle[i % 4] = move(board, uci[i % 4]);
+            board.makeMove(shuffle[i % 4]);
+        }
+        assertEquals(plies, board.halfmoveClock());
+        Board copy = new Board(board);
+        for (int i = plies - 1; i >= 0; i--) copy.unmakeMove(shuffle[i % 4]);
+        assertEquals(Board.START_FEN, copy.toFen());
+    }
+
+    @Test
+    void clampsHalfmoveClockFromFen() {
+        Board board = Board.fromFen("4k3/8/8/8/8/8/8/4K2R w K - 99999 60");
+        assertEquals(Board.MAX_HALFMOVE_CLOCK, board.halfmoveClock());
+        int move = move(board, "h1h2");
+        board.makeMove(move);
+        assertEquals(Board.MAX_HALFMOVE_CLOCK, board.halfmoveClock());
+        board.unmakeMove(move);
+        assertEquals(Board.MAX_HALFMOVE_CLOCK, board.halfmoveClock());
+    }
+
+    @Test
+    void acceptsEnPassantSquareBehindAPawnThatJustAdvanced() {
+        Board board = Board.fromFen("rnbqkbnr/ppp1pppp/8/3pP3/8/8/PPPP1PPP/RNBQKBNR w KQkq d6 0 3");
+        assertEquals(Square.of(3, 5), board.enPassantSquare());
+        board = Board.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1");
+        assertEquals(Square.of(4, 2), board.enPassantSquare());
+    }
+
+    @Test
+    void rejectsEnPassantSquareWithoutAPawnToCapture() {
+        assertThrows(IllegalArgumentException.class,
+                () -> Board.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR w KQkq e6 0 1"));
+        assertThrows(IllegalArgumentException.class,
+                () -> Board.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e6 0 1"));
+    }
+
+    private static int move(Board board, String uci) {
+        return Notation.parseUci(board, uci, 0, uci.length(), new int[MoveGenerator.MAX_MOVES]);
+    }
+}
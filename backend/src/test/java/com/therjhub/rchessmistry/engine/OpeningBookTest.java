@@ -0,0 +1,53 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OpeningBookTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void findsTheSamePositionWithOrWithoutAnUncapturableEnPassantSquare() throws Exception {
+        OpeningBook book = book("1. e4 e5 *", "1. e4 e5 *");
+        String withSquare = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq e3 0 1";
+        String without = "rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b KQkq - 0 1";
+
+        assertEquals(Board.fromFen(withSquare).key(), Board.fromFen(without).key());
+        assertEquals(1, probe(book, Board.fromFen(withSquare)));
+        assertEquals(1, probe(book, Board.fromFen(without)));
+        assertEquals("e7e5", Move.toUci(book.pick(Board.fromFen(without), new SplittableRandom(1))));
+    }
+
+    @Test
+    void keepsAPositionWithAnEnPassantCaptureApart() throws Exception {
+        OpeningBook book = book("1. e4 d5 2. e5 f5 3. exf6 *", "1. e4 d5 2. e5 f5 3. exf6 *");
+        Board played = Board.startPosition();
+        for (String san : new String[] { "e4", "d5", "e5", "f5" }) played.makeMove(San.parse(played, san));
+        Board withSquare = Board.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3");
+        Board without = Board.fromFen("rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq - 0 3");
+
+        assertEquals(played.key(), withSquare.key());
+        assertEquals(Zobrist.compute(played), played.key());
+        assertEquals(1, probe(book, withSquare));
+        assertEquals(0, probe(book, without));
+    }
+
+    private OpeningBook book(String... games) throws Exception {
+        OpeningBookBuilder builder = new OpeningBookBuilder(16);
+        for (String game : games) builder.addGame(Pgn.parseGame(game));
+        Path path = dir.resolve("book.bin");
+        builder.write(path, 2);
+        return OpeningBook.open(path);
+    }
+
+    private static int probe(OpeningBook book, Board board) {
+        return book.probe(board, new int[MoveGenerator.MAX_MOVES], new int[MoveGenerator.MAX_MOVES]);
+    }
+}
@@ -0,0 +1,32 @@
+package com.therjhub.rchessmistry.engine;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/** Published perft counts at shallow depth, so a move generation regression fails the build. */
+class PerftTest {
+
+    private static final int DEPTH = 3;
+
+    static Stream<String> positions() {
+        return Arrays.stream(Perft.SUITE).map(Perft.Position::getName);
+    }
+
+    @ParameterizedTest
+    @MethodSource("positions")
+    void matchesPublishedCounts(String name) {
+        Perft.Position position = Perft.position(name);
+        Board board = Board.fromFen(position.getFen());
+        for (int depth = 1; depth <= DEPTH; depth++) {
+            assertEquals(position.getExpected(depth), Perft.count(board, depth), name + " depth " + depth);
+        }
+        // make/unmake must leave the position exactly as it was
+        assertEquals(Board.fromFen(position.getFen()).toFen(), board.toFen());
+        assertEquals(Board.fromFen(position.getFen()).key(), board.key());
+    }
+}
@@ -0,0 +1,36 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GameRoomTest {
+
+    @Test
+    void countsTheStartingPositionTowardsRepetition() {
+        GameRoom room = new GameRoom(1, null);
+        String[] shuffle = { "g1f3", "g8f6", "f3g1", "f6g8" };
+        for (int i = 0; i < 7; i++) {
+            room.play(room.parse(shuffle[i % 4]));
+            assertNull(room.endReason(), "after ply " + (i + 1));
+        }
+        // Back to the starting position for the third time
+        room.play(room.parse(shuffle[3]));
+        assertEquals("threefold repetition", room.endReason());
+    }
+
+    @Test
+    void countsRepetitionsInTheMiddleOfTheGame() {
+        GameRoom room = new GameRoom(1, null);
+        room.play(room.parse("e2e4"));
+        room.play(room.parse("e7e5"));
+        String[] shuffle = { "g1f3", "b8c6", "f3g1", "c6b8" };
+        for (int i = 0; i < 7; i++) {
+            room.play(room.parse(shuffle[i % 4]));
+            assertNull(room.endReason(), "after shuffle ply " + (i + 1));
+        }
+        room.play(room.parse(shuffle[3]));
+        assertEquals("threefold repetition", room.endReason());
+    }
+}
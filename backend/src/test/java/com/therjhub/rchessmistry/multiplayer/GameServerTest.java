@@ -0,0 +1,281 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.service.UserService;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameServerTest {
+
+    private static final long GRACE_MS = 300;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private UserService userService;
+    private GameServer server;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        when(userService.getProfile(anyString())).thenReturn(new User());
+        server = new GameServer();
+        ReflectionTestUtils.setField(server, "userService", userService);
+        ReflectionTestUtils.setField(server, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(server, "eventLoops", 1);
+        ReflectionTestUtils.setField(server, "reconnectGraceMs", GRACE_MS);
+        ReflectionTestUtils.setField(server, "persistThreads", 1);
+        ReflectionTestUtils.setField(server, "maxOpenRooms", 1);
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    void rejectsMovesOutOfTurnAndIllegalMoves() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        black.send("move", game, "e7e5");
+        assertEquals("Not your turn", black.expect("error").path("message").asText());
+        white.send("move", game, "e2e5");
+        assertEquals("Illegal move", white.expect("error").path("message").asText());
+        white.send("move", game, "e2e4");
+        assertEquals("e4", white.expect("move").path("san").asText());
+        assertEquals("e4", black.expect("move").path("san").asText());
+    }
+
+    @Test
+    void aPlayerInAGameCannotStartAnother() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        start(white, black);
+        Client host = new Client(3L, "host");
+        host.send("create", null, null);
+        long open = host.expect("created").path("gameId").asLong();
+
+        white.send("create", null, null);
+        assertEquals(GameServer.IN_GAME, white.expect("error").path("message").asText());
+        black.send("join", open, null);
+        assertEquals(GameServer.IN_GAME, black.expect("error").path("message").asText());
+    }
+
+    @Test
+    void endsAndSavesACheckmate() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        JsonNode end = play(game, white, black, "f2f3", "e7e5", "g2g4", "d8h4");
+        assertEquals("0-1", end.path("result").asText());
+        assertEquals("checkmate", end.path("reason").asText());
+        assertEquals("checkmate", white.expect("end").path("reason").asText());
+
+        ArgumentCaptor<SaveGameRequest> saved = ArgumentCaptor.forClass(SaveGameRequest.class);
+        verify(userService, timeout(5000).times(2)).saveGame(anyString(), saved.capture(), any());
+        List<SaveGameRequest> requests = saved.getAllValues();
+        assertEquals("LOSS", requests.get(0).getResult());
+        assertEquals("WHITE", requests.get(0).getPlayerColor());
+        assertEquals("WIN", requests.get(1).getResult());
+        assertEquals("BLACK", requests.get(1).getPlayerColor());
+        assertEquals(4, requests.get(1).getTotalMoves());
+    }
+
+    @Test
+    void endsAStalemateAsADraw() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        // Sam Loyd's ten-move stalemate
+        JsonNode end = play(game, white, black, "e2e3", "a7a5", "d1h5", "a8a6", "h5a5", "h7h5", "h2h4", "a6h6",
+                "a5c7", "f7f6", "c7d7", "e8f7", "d7b7", "d8d3", "b7b8", "d3h7", "b8c8", "f7g6", "c8e6");
+        assertEquals("1/2-1/2", end.path("result").asText());
+        assertEquals("stalemate", end.path("reason").asText());
+    }
+
+    @Test
+    void endsAThreefoldRepetitionOfTheStartingPosition() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        JsonNode end = play(game, white, black,
+                "g1f3", "g8f6", "f3g1", "f6g8", "g1f3", "g8f6", "f3g1", "f6g8");
+        assertEquals("1/2-1/2", end.path("result").asText());
+        assertEquals("threefold repetition", end.path("reason").asText());
+    }
+
+    @Test
+    void resignationLosesTheGame() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        white.send("resign", game, null);
+        JsonNode end = black.expect("end");
+        assertEquals("0-1", end.path("result").asText());
+        assertEquals("resignation", end.path("reason").asText());
+        // The room is gone, so further moves have no game to go to
+        white.send("move", game, "e2e4");
+        white.expect("end");
+        assertEquals("Game not found", white.expect("error").path("message").asText());
+    }
+
+    @Test
+    void drawsOnlyByAcceptingTheOpponentsOffer() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+
+        black.send("acceptDraw", game, null);
+        assertEquals("There is no draw offer to accept", black.expect("error").path("message").asText());
+        white.send("offerDraw", game, null);
+        black.expect("drawOffered");
+        // Accepting your own offer does nothing
+        white.send("acceptDraw", game, null);
+        assertEquals("There is no draw offer to accept", white.expect("error").path("message").asText());
+        black.send("acceptDraw", game, null);
+        JsonNode end = white.expect("end");
+        assertEquals("1/2-1/2", end.path("result").asText());
+        assertEquals("agreement", end.path("reason").asText());
+    }
+
+    @Test
+    void reconnectingReplaysTheGameAndCancelsTheForfeit() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+        play(game, white, black, "e2e4", "e7e5", "g1f3");
+
+        black.disconnect();
+        assertEquals(GRACE_MS, white.expect("opponentDisconnected").path("graceMs").asLong());
+        Client again = new Client(2L, "black");
+        again.send("join", game, null);
+        JsonNode state = again.expect("state");
+        assertEquals("black", state.path("color").asText());
+        assertEquals("PLAYING", state.path("status").asText());
+        assertEquals(List.of("e2e4", "e7e5", "g1f3"), objectMapper.convertValue(state.path("moves"), List.class));
+        assertEquals("rnbqkbnr/pppp1ppp/8/4p3/4P3/5N2/PPPP1PPP/RNBQKB1R b KQkq - 1 2", state.path("fen").asText());
+        white.expect("opponentReconnected");
+
+        Thread.sleep(2 * GRACE_MS);
+        again.send("move", game, "b8c6");
+        assertEquals("Nc6", again.expect("move").path("san").asText());
+        assertEquals("Nc6", white.expect("move").path("san").asText());
+        assertNull(white.inbox.poll(100, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void forfeitsAPlayerWhoStaysAwayPastTheGracePeriod() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        long game = start(white, black);
+        play(game, white, black, "e2e4");
+
+        black.disconnect();
+        white.expect("opponentDisconnected");
+        JsonNode end = white.expect("end");
+        assertEquals("1-0", end.path("result").asText());
+        assertEquals("abandonment", end.path("reason").asText());
+        verify(userService, timeout(5000).times(2)).saveGame(anyString(), any(), any());
+    }
+
+    @Test
+    void abandonsWithoutSavingWhenBothPlayersLeave() throws Exception {
+        Client white = new Client(1L, "white"), black = new Client(2L, "black");
+        start(white, black);
+
+        black.disconnect();
+        white.expect("opponentDisconnected");
+        white.disconnect();
+        Thread.sleep(2 * GRACE_MS);
+        assertEquals(0, server.getStats().get("activeGames"));
+        verify(userService, never()).saveGame(anyString(), any(), any());
+    }
+
+    private long start(Client white, Client black) throws InterruptedException {
+        white.send("create", null, null);
+        long game = white.expect("created").path("gameId").asLong();
+        black.send("join", game, null);
+        white.expect("start");
+        JsonNode start = black.expect("start");
+        assertEquals("white", start.path("white").asText());
+        assertEquals("black", start.path("black").asText());
+        return game;
+    }
+
+    // Plays the moves in turn and returns the end message if the last one finished the game
+    private JsonNode play(long game, Client white, Client black, String... moves) throws InterruptedException {
+        for (int i = 0; i < moves.length; i++) {
+            Client mover = i % 2 == 0 ? white : black;
+            mover.send("move", game, moves[i]);
+            assertEquals(moves[i], white.expect("move").path("move").asText());
+            assertEquals(moves[i], black.expect("move").path("move").asText());
+        }
+        JsonNode end = black.inbox.poll(200, TimeUnit.MILLISECONDS);
+        if (end != null) assertEquals("end", end.path("type").asText());
+        return end;
+    }
+
+    /** A player on a stub socket that records everything the server sends. */
+    private final class Client {
+        final BlockingQueue<JsonNode> inbox = new LinkedBlockingQueue<>();
+        final AtomicBoolean open = new AtomicBoolean(true);
+        final PlayerConnection connection;
+
+        Client(Long userId, String username) {
+            Session session = mock(Session.class);
+            RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+            SendResult ok = mock(SendResult.class);
+            when(ok.isOK()).thenReturn(true);
+            when(session.isOpen()).thenAnswer(invocation -> open.get());
+            when(session.getAsyncRemote()).thenReturn(remote);
+            doAnswer(invocation -> {
+                inbox.add(objectMapper.readTree((String) invocation.getArgument(0)));
+                invocation.<SendHandler>getArgument(1).onResult(ok);
+                return null;
+            }).when(remote).sendText(anyString(), any(SendHandler.class));
+            connection = new PlayerConnection(session, userId, username);
+            server.connected(connection);
+        }
+
+        void send(String type, Long gameId, String move) {
+            server.received(connection, objectMapper.createObjectNode().put("type", type)
+                    .put("gameId", gameId).put("move", move).toString());
+        }
+
+        JsonNode expect(String type) throws InterruptedException {
+            JsonNode message = inbox.poll(5, TimeUnit.SECONDS);
+            assertNotNull(message, "no " + type + " message");
+            assertEquals(type, message.path("type").asText(), message.toString());
+            return message;
+        }
+
+        void disconnect() {
+            open.set(false);
+            server.disconnected(connection);
+        }
+    }
+}
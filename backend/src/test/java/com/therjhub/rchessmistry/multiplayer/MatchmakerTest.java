@@ -0,0 +1,89 @@
+package com.therjhub.rchessmistry.multiplayer;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MatchmakerTest {
+
+    private GameServer gameServer;
+    private Matchmaker matchmaker;
+
+    @BeforeEach
+    void setUp() {
+        gameServer = mock(GameServer.class);
+        matchmaker = new Matchmaker();
+        ReflectionTestUtils.setField(matchmaker, "gameServer", gameServer);
+        ReflectionTestUtils.setField(matchmaker, "userRepository", mock(UserRepository.class));
+        ReflectionTestUtils.setField(matchmaker, "modes", "ONLINE");
+        ReflectionTestUtils.setField(matchmaker, "bucketWidth", 50.0);
+        ReflectionTestUtils.setField(matchmaker, "initialWindow", 50.0);
+        ReflectionTestUtils.setField(matchmaker, "maxWindow", 400.0);
+        ReflectionTestUtils.setField(matchmaker, "targetWaitMs", 10_000L);
+        matchmaker.init();
+    }
+
+    @Test
+    void aClosedSocketIsDroppedAndItsOpponentRequeued() {
+        PlayerConnection gone = connection(1L, "gone");
+        PlayerConnection waiting = connection(2L, "waiting");
+        PlayerConnection late = connection(3L, "late");
+
+        seek(gone);
+        // Closed, but the disconnect has not reached the matchmaker yet
+        when(gone.isOpen()).thenReturn(false);
+        seek(waiting);
+
+        verify(gameServer, never()).startGame(any(), any());
+        assertEquals(1, matchmaker.getStats().get("matchQueued"));
+        assertEquals(0L, matchmaker.getStats().get("matchesMade"));
+
+        seek(late);
+
+        verify(gameServer).startGame(any(), any());
+        assertEquals(0, matchmaker.getStats().get("matchQueued"));
+        assertEquals(1L, matchmaker.getStats().get("matchesMade"));
+        // The dropped player can seek again on a new socket
+        seek(connection(1L, "gone"));
+        assertEquals(1, matchmaker.getStats().get("matchQueued"));
+    }
+
+    @Test
+    void aPlayerInAGameCannotSeekOrBePaired() {
+        PlayerConnection playing = connection(1L, "playing");
+        when(gameServer.inGame(playing)).thenReturn(true);
+        seek(playing);
+        assertEquals(0, matchmaker.getStats().get("matchQueued"));
+
+        PlayerConnection seated = connection(2L, "seated");
+        seek(seated);
+        // Sat down in a created room while still queued
+        when(gameServer.inGame(seated)).thenReturn(true);
+        seek(connection(3L, "waiting"));
+
+        verify(gameServer, never()).startGame(any(), any());
+        assertEquals(1, matchmaker.getStats().get("matchQueued"));
+        verify(gameServer).error(null, GameServer.IN_GAME);
+    }
+
+    private void seek(PlayerConnection connection) {
+        ReflectionTestUtils.invokeMethod(matchmaker, "seek", connection, JsonNodeFactory.instance.objectNode());
+    }
+
+    private static PlayerConnection connection(Long userId, String username) {
+        PlayerConnection connection = mock(PlayerConnection.class);
+        when(connection.getUserId()).thenReturn(userId);
+        when(connection.getUsername()).thenReturn(username);
+        when(connection.isOpen()).thenReturn(true);
+        return connection;
+    }
+}
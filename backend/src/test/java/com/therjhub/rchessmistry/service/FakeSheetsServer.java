@@ -0,0 +1,166 @@
+package com.therjhub.rchessmistry.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * A stand-in for the parts of the Sheets v4 API that {@link GoogleSheetsService}
+ * uses, serving one sheet from memory. Point {@code google.sheets.root-url} at
+ * {@link #url()}. Writes past the grid fail like the real API, and the next
+ * requests can be made to fail with a given status.
+ */
+final class FakeSheetsServer implements AutoCloseable {
+
+    static final String SHEET = "Users";
+    private static final Pattern ROW = Pattern.compile("![A-Z]+(\\d+)");
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final HttpServer server;
+    // Row number to cell values
+    private final TreeMap<Integer, List<String>> rows = new TreeMap<>();
+    private final List<String> requests = new ArrayList<>();
+    private int rowCount;
+    private int failures;
+    private int failStatus;
+
+    FakeSheetsServer(int rowCount) throws IOException {
+        this.rowCount = rowCount;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String url() { return "http://127.0.0.1:" + server.getAddress().getPort() + "/"; }
+
+    synchronized void setRow(int row, String... values) { rows.put(row, new ArrayList<>(List.of(values))); }
+
+    synchronized List<String> row(int row) { return rows.get(row); }
+
+    synchronized Map<Integer, List<String>> rows() { return new TreeMap<>(rows); }
+
+    synchronized int rowCount() { return rowCount; }
+
+    /** Method, path and body of every request so far, e.g. {@code POST /v4/spreadsheets/s/values:batchUpdate {...}}. */
+    synchronized List<String> requests() { return new ArrayList<>(requests); }
+
+    synchronized void clearRequests() { requests.clear(); }
+
+    /** Answers the next {@code count} requests with {@code status}. */
+    synchronized void failNext(int count, int status) {
+        failures = count;
+        failStatus = status;
+    }
+
+    @Override
+    public void close() { server.stop(0); }
+
+    private synchronized void handle(HttpExchange exchange) throws IOException {
+        InputStream in = exchange.getRequestBody();
+        // The client gzips request bodies
+        if ("gzip".equals(exchange.getRequestHeaders().getFirst("Content-Encoding"))) in = new GZIPInputStream(in);
+        String body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        requests.add(method + " " + path + (body.isEmpty() ? "" : " " + body));
+        if (failures > 0) {
+            failures--;
+            reply(exchange, failStatus, error(failStatus, "Injected failure"));
+            return;
+        }
+        JsonNode request = body.isEmpty() ? mapper.createObjectNode() : mapper.readTree(body);
+        String[] parts = path.split("/values", 2);
+        if (method.equals("GET") && parts.length == 1) {
+            reply(exchange, 200, properties());
+        } else if (method.equals("GET")) {
+            reply(exchange, 200, column());
+        } else if (method.equals("PUT")) {
+            write(parts[1], request.path("values").get(0));
+            reply(exchange, 200, "{}");
+        } else if (path.endsWith("/values:batchUpdate")) {
+            for (JsonNode data : request.path("data")) {
+                if (row(data.path("range").asText()) > rowCount) {
+                    reply(exchange, 400, error(400, "Range exceeds grid limits. Max rows: " + rowCount));
+                    return;
+                }
+            }
+            for (JsonNode data : request.path("data")) write(data.path("range").asText(), data.path("values").get(0));
+            reply(exchange, 200, "{}");
+        } else if (path.endsWith("/values:batchClear")) {
+            for (JsonNode range : request.path("ranges")) rows.remove(row(range.asText()));
+            reply(exchange, 200, "{}");
+        } else if (path.endsWith(":batchUpdate")) {
+            for (JsonNode change : request.path("requests")) rowCount += change.path("appendDimension").path("length").asInt();
+            reply(exchange, 200, "{}");
+        } else {
+            reply(exchange, 404, error(404, "Unknown request " + method + " " + path));
+        }
+    }
+
+    private void write(String range, JsonNode values) {
+        List<String> cells = new ArrayList<>();
+        values.forEach(value -> cells.add(value.asText()));
+        rows.put(row(range), cells);
+    }
+
+    private String properties() {
+        ObjectNode grid = mapper.createObjectNode().put("rowCount", rowCount).put("columnCount", 15);
+        ObjectNode properties = mapper.createObjectNode().put("sheetId", 7).put("title", SHEET);
+        properties.set("gridProperties", grid);
+        ObjectNode sheet = mapper.createObjectNode();
+        sheet.set("properties", properties);
+        ObjectNode spreadsheet = mapper.createObjectNode();
+        spreadsheet.putArray("sheets").add(sheet);
+        return spreadsheet.toString();
+    }
+
+    // Column A from row 2 to the last row with data; a blank row comes back as an empty list
+    private String column() {
+        ObjectNode range = mapper.createObjectNode().put("range", SHEET + "!A2:A").put("majorDimension", "ROWS");
+        ArrayNode values = range.putArray("values");
+        int last = rows.isEmpty() ? 1 : rows.lastKey();
+        for (int row = 2; row <= last; row++) {
+            ArrayNode cells = values.addArray();
+            List<String> cellsAt = rows.get(row);
+            if (cellsAt != null && !cellsAt.isEmpty() && !cellsAt.get(0).isEmpty()) cells.add(cellsAt.get(0));
+        }
+        return range.toString();
+    }
+
+    private static int row(String range) {
+        Matcher matcher = ROW.matcher(range);
+        if (!matcher.find()) throw new IllegalArgumentException("Bad range " + range);
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private String error(int status, String message) {
+        ObjectNode error = mapper.createObjectNode();
+        error.putObject("error").put("code", status).put("message", message);
+        return error.toString();
+    }
+
+    private static void reply(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.GameRecordRepository;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class GameAnalysisServiceTest {
+
+    // White's 2. g4 walks into mate; Black makes no mistake
+    private static final String FOOLS_MATE = "1. f3 e5 2. g4 Qh4#";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private GameRecordRepository gameRecordRepository;
+
+    @Test
+    void onlineGamesRateOnlyTheOwnersMoves() throws Exception {
+        GameRecord white = analyzed(userService.saveGame(newUser(), onlineGame("WHITE", "LOSS")));
+        GameRecord black = analyzed(userService.saveGame(newUser(), onlineGame("BLACK", "WIN")));
+
+        assertTrue(white.getBlunderCount() >= 1, "white blunders " + white.getBlunderCount());
+        assertEquals(0, black.getBlunderCount());
+        assertTrue(black.getAccuracyScore() > white.getAccuracyScore());
+        // Per-move losses still cover both sides
+        assertEquals(4, black.getMoveLosses().split(",").length);
+    }
+
+    private GameRecord analyzed(GameRecord saved) throws InterruptedException {
+        for (int i = 0; i < 600; i++) {
+            GameRecord record = gameRecordRepository.findById(saved.getId()).orElseThrow();
+            if (record.getAnalysisStatus() == GameRecord.AnalysisStatus.DONE) return record;
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Game " + saved.getId() + " was not analysed");
+    }
+
+    private String newUser() {
+        User user = new User();
+        user.setUsername("a" + UUID.randomUUID().toString().substring(0, 12));
+        user.setPassword("x");
+        return userRepository.save(user).getUsername();
+    }
+
+    private static SaveGameRequest onlineGame(String color, String result) {
+        SaveGameRequest req = new SaveGameRequest();
+        req.setOpponentType("HUMAN");
+        req.setGameMode("ONLINE");
+        req.setResult(result);
+        req.setPlayerColor(color);
+        req.setOpponentName("rival");
+        req.setTotalMoves(4);
+        req.setDurationSeconds(30);
+        req.setPgn(FOOLS_MATE);
+        return req;
+    }
+}
@@ -0,0 +1,169 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class GoogleSheetsServiceTest {
+
+    private static final long RETRY_INITIAL_MS = 100;
+
+    private FakeSheetsServer sheets;
+    private GoogleSheetsService service;
+    private final Map<Long, User> users = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        sheets = new FakeSheetsServer(4);
+        UserRepository repository = mock(UserRepository.class);
+        when(repository.findAllById(any())).thenAnswer(call -> {
+            List<User> found = new ArrayList<>();
+            for (Long id : call.<Iterable<Long>>getArgument(0)) if (users.containsKey(id)) found.add(users.get(id));
+            return found;
+        });
+        when(repository.findBySyncedToSheetFalse(any())).thenReturn(List.of());
+
+        service = new GoogleSheetsService();
+        ReflectionTestUtils.setField(service, "userRepository", repository);
+        ReflectionTestUtils.setField(service, "spreadsheetId", "sheet-1");
+        ReflectionTestUtils.setField(service, "credentialsResource", new ClassPathResource("no-such-credentials.json"));
+        ReflectionTestUtils.setField(service, "sheetName", FakeSheetsServer.SHEET);
+        ReflectionTestUtils.setField(service, "rootUrl", sheets.url());
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        ReflectionTestUtils.setField(service, "retryInitialMs", RETRY_INITIAL_MS);
+        ReflectionTestUtils.setField(service, "retryMaxMs", 4 * RETRY_INITIAL_MS);
+        service.init();
+        ReflectionTestUtils.setField(service, "backlog", false);
+        sheets.clearRequests();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sheets.close();
+    }
+
+    @Test
+    void coalescesChangesBetweenFlushesIntoOneWrite() {
+        User alice = user(1, "alice");
+        User bob = user(2, "bob");
+        for (int wins = 1; wins <= 3; wins++) {
+            alice.setWins(wins);
+            service.syncUser(alice);
+        }
+        service.syncUser(bob);
+        service.flush();
+
+        List<String> writes = requests("/values:batchUpdate");
+        assertEquals(1, writes.size());
+        assertEquals(2, count(writes.get(0), "\"range\""));
+        assertEquals("3", sheets.row(2).get(3));
+        assertEquals("bob", sheets.row(3).get(1));
+
+        sheets.clearRequests();
+        service.flush();
+        assertTrue(sheets.requests().isEmpty());
+    }
+
+    // Rows are found by the ID column; legacy repeats are cleared and reused, and the grid grows as needed
+    @Test
+    void upsertsByIdColumnAndClearsLegacyRows() {
+        sheets.setRow(2, "5", "old-five");
+        sheets.setRow(3, "9", "old-nine");
+        sheets.setRow(4, "5", "older-five");
+
+        List.of(user(5, "five"), user(9, "nine"), user(12, "twelve"), user(40, "forty")).forEach(service::syncUser);
+        service.flush();
+
+        List<String> clears = requests("/values:batchClear");
+        assertEquals(1, clears.size());
+        assertTrue(clears.get(0).contains("Users!A4:O4"));
+        List<String> grows = requests(":batchUpdate").stream().filter(r -> r.contains("appendDimension")).toList();
+        assertEquals(1, grows.size());
+        assertTrue(grows.get(0).contains("\"sheetId\":7") && grows.get(0).contains("\"dimension\":\"ROWS\""));
+
+        String write = requests("/values:batchUpdate").get(0);
+        for (String range : List.of("Users!A2:O2", "Users!A3:O3", "Users!A4:O4", "Users!A5:O5")) {
+            assertTrue(write.contains(range), range);
+        }
+        assertEquals(List.of("5", "five"), sheets.row(2).subList(0, 2));
+        assertEquals(List.of("9", "nine"), sheets.row(3).subList(0, 2));
+        // The new users take the freed row and the first row past the end, in either order
+        Map<String, Integer> rowsById = new HashMap<>();
+        sheets.rows().forEach((row, cells) -> rowsById.put(cells.get(0), row));
+        assertEquals(Map.of("5", 2, "9", 3), Map.of("5", rowsById.get("5"), "9", rowsById.get("9")));
+        assertEquals(Set.of(4, 5), Set.of(rowsById.get("12"), rowsById.get("40")));
+        // Header plus one row per user
+        assertEquals(5, sheets.rows().size());
+
+        // A later change to an existing user goes back to the same row without re-reading the sheet
+        sheets.clearRequests();
+        int row = rowsById.get("40");
+        users.get(40L).setWins(7);
+        service.syncUser(users.get(40L));
+        service.flush();
+        assertEquals(1, sheets.requests().size());
+        assertTrue(sheets.requests().get(0).contains("Users!A" + row + ":O" + row));
+        assertEquals("7", sheets.row(row).get(3));
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoff() throws Exception {
+        User alice = user(1, "alice");
+        service.syncUser(alice);
+        sheets.failNext(1, 503);
+        service.flush();
+        assertNull(sheets.row(2));
+        assertEquals(RETRY_INITIAL_MS, ReflectionTestUtils.getField(service, "retryDelayMs"));
+
+        // Too early: nothing is sent
+        sheets.clearRequests();
+        service.flush();
+        assertTrue(sheets.requests().isEmpty());
+
+        Thread.sleep(RETRY_INITIAL_MS + 20);
+        sheets.failNext(1, 500);
+        service.flush();
+        assertEquals(2 * RETRY_INITIAL_MS, ReflectionTestUtils.getField(service, "retryDelayMs"));
+
+        Thread.sleep(2 * RETRY_INITIAL_MS + 20);
+        service.flush();
+        assertEquals("alice", sheets.row(2).get(1));
+        assertEquals(0L, ReflectionTestUtils.getField(service, "retryDelayMs"));
+        assertFalse(requests("/values:batchUpdate").isEmpty());
+    }
+
+    private User user(long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setThemePreference("dark");
+        users.put(id, user);
+        return user;
+    }
+
+    private List<String> requests(String suffix) {
+        return sheets.requests().stream().filter(r -> r.split(" ", 3)[1].endsWith(suffix)).toList();
+    }
+
+    private static int count(String text, String needle) {
+        return text.split(needle, -1).length - 1;
+    }
+}
@@ -0,0 +1,134 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.rating.Rating;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class RatingServiceTest {
+
+    private static final int PLAYERS = 8;
+    private static final int GAMES = 80;
+    private static final String[] MODES = { "EASY", "CLASSIC", "HARD" };
+    private static final String[] RESULTS = { "WIN", "LOSS", "DRAW", "WIN" };
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private RatingService ratingService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Games saved during a recompute must end up counted exactly once, with the ratings a fresh replay gives
+    @Test
+    void recomputeWhileSavingMatchesReplay() throws Exception {
+        List<User> players = new ArrayList<>();
+        for (int p = 0; p < PLAYERS; p++) players.add(newUser());
+
+        ExecutorService executor = Executors.newFixedThreadPool(PLAYERS + 1);
+        try {
+            List<Future<?>> saves = new ArrayList<>();
+            for (int p = 0; p < PLAYERS; p++) {
+                String username = players.get(p).getUsername();
+                int seed = p;
+                // One thread per player keeps each player's games in id order
+                saves.add(executor.submit(() -> {
+                    for (int g = 0; g < GAMES; g++) {
+                        userService.saveGame(username, botGame(MODES[(seed + g) % MODES.length],
+                                RESULTS[(seed * 3 + g) % RESULTS.length]));
+                    }
+                }));
+            }
+            Future<?> recompute = executor.submit(() -> {
+                while (!saves.stream().allMatch(Future::isDone)) ratingService.recompute();
+            });
+            for (Future<?> save : saves) save.get();
+            recompute.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        List<User> live = new ArrayList<>();
+        for (User player : players) live.add(userRepository.findById(player.getId()).orElseThrow());
+        assertTrue(ratingService.recompute());
+        for (User before : live) {
+            User after = userRepository.findById(before.getId()).orElseThrow();
+            assertEquals(GAMES, before.getRatedGames());
+            assertEquals(GAMES, after.getRatedGames());
+            assertEquals(after.getRating(), before.getRating(), 1e-6);
+            assertEquals(after.getRatingDeviation(), before.getRatingDeviation(), 1e-6);
+        }
+    }
+
+    // Each side moves against the other's pre-game rating; a client-saved online game stays unrated
+    @Test
+    void onlineGamesRateBothPlayersAgainstEachOther() {
+        User white = newUser(), black = newUser();
+        Rating whiteBefore = rating(white), blackBefore = rating(black);
+        userService.saveGame(white.getUsername(), onlineGame("WHITE", "WIN"), blackBefore);
+        userService.saveGame(black.getUsername(), onlineGame("BLACK", "LOSS"), whiteBefore);
+        userService.saveGame(black.getUsername(), onlineGame("BLACK", "WIN"));
+
+        User winner = userRepository.findById(white.getId()).orElseThrow();
+        User loser = userRepository.findById(black.getId()).orElseThrow();
+        assertEquals(1, winner.getRatedGames());
+        assertEquals(1, loser.getRatedGames());
+        assertTrue(winner.getRating() > Rating.INITIAL.getRating());
+        // Equal players, so the changes mirror each other
+        assertEquals(winner.getRating() - Rating.INITIAL.getRating(), Rating.INITIAL.getRating() - loser.getRating(),
+                1e-6);
+
+        assertTrue(ratingService.recompute());
+        assertEquals(winner.getRating(), rating(winner).getRating(), 1e-6);
+        assertEquals(loser.getRating(), rating(loser).getRating(), 1e-6);
+        assertEquals(1, userRepository.findById(black.getId()).orElseThrow().getRatedGames());
+    }
+
+    private Rating rating(User user) {
+        return userRepository.findRating(user.getId());
+    }
+
+    private static SaveGameRequest onlineGame(String color, String result) {
+        SaveGameRequest req = new SaveGameRequest();
+        req.setOpponentType("HUMAN");
+        req.setGameMode("ONLINE");
+        req.setPlayerColor(color);
+        req.setResult(result);
+        req.setTotalMoves(40);
+        req.setDurationSeconds(600);
+        return req;
+    }
+
+    private User newUser() {
+        User user = new User();
+        user.setUsername("r" + UUID.randomUUID().toString().substring(0, 12));
+        user.setPassword("x");
+        return userRepository.save(user);
+    }
+
+    private static SaveGameRequest botGame(String mode, String result) {
+        SaveGameRequest req = new SaveGameRequest();
+        req.setOpponentType("BOT");
+        req.setGameMode(mode);
+        req.setResult(result);
+        req.setTotalMoves(20);
+        req.setDurationSeconds(60);
+        return req;
+    }
+}
@@ -0,0 +1,85 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+class UserServiceConcurrencyTest {
+
+    // Enough saves in flight at once for a read-modify-write counter to lose some
+    private static final int THREADS = 8;
+    private static final int SAVES = 32;
+    private static final String[] RESULTS = { "WIN", "LOSS", "DRAW", "WIN", "LOSS" };
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    // Parallel saves for one player must not lose any counter update
+    @Test
+    void parallelSavesForOneUserKeepEveryCounter() throws Exception {
+        User user = new User();
+        user.setUsername("c" + UUID.randomUUID().toString().substring(0, 12));
+        user.setPassword("x");
+        String username = userRepository.save(user).getUsername();
+
+        int wins = 0, losses = 0, draws = 0, moves = 0;
+        List<SaveGameRequest> requests = new ArrayList<>(SAVES);
+        for (int i = 0; i < SAVES; i++) {
+            String result = RESULTS[i % RESULTS.length];
+            SaveGameRequest req = new SaveGameRequest();
+            req.setOpponentType("BOT");
+            req.setGameMode("CLASSIC");
+            req.setResult(result);
+            req.setTotalMoves(10 + i % 50);
+            req.setDurationSeconds(60);
+            requests.add(req);
+            moves += req.getTotalMoves();
+            switch (result) {
+                case "WIN" -> wins++;
+                case "LOSS" -> losses++;
+                default -> draws++;
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> saves = new ArrayList<>(SAVES);
+            for (SaveGameRequest req : requests) {
+                saves.add(executor.submit(() -> {
+                    start.await();
+                    return userService.saveGame(username, req);
+                }));
+            }
+            start.countDown();
+            for (Future<?> save : saves) save.get();
+        } finally {
+            executor.shutdown();
+        }
+
+        User saved = userRepository.findByUsername(username).orElseThrow();
+        assertEquals(SAVES, saved.getGamesPlayed());
+        assertEquals(wins, saved.getWins());
+        assertEquals(losses, saved.getLosses());
+        assertEquals(draws, saved.getDraws());
+        assertEquals(moves, saved.getTotalMoves());
+        assertEquals(SAVES, saved.getRatedGames());
+    }
+}
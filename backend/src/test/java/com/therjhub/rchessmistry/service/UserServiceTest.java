@@ -0,0 +1,126 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.dto.GameSummary;
+import com.therjhub.rchessmistry.dto.SaveGameRequest;
+import com.therjhub.rchessmistry.model.GameRecord;
+import com.therjhub.rchessmistry.model.User;
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class UserServiceTest {
+
+    private static final String MOVES = "1. f3 e5 2. g4 Qh4#";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Value("${app.upload.dir}")
+    private String photoDir;
+
+    @Test
+    void pgnOfAnOnlineGameWonWithBlackNamesBothPlayers() {
+        String username = newUser("Dana");
+        GameRecord saved = userService.saveGame(username, onlineGame("BLACK", "WIN"));
+
+        String pgn = userService.getGamePgn(username, saved.getId());
+        assertTrue(pgn.contains("[White \"rival\"]"), pgn);
+        assertTrue(pgn.contains("[Black \"Dana\"]"), pgn);
+        assertTrue(pgn.contains("[Result \"0-1\"]"), pgn);
+
+        GameSummary summary = userService.getGameHistory(username, null, 1).getGames().get(0);
+        assertEquals(GameRecord.PlayerColor.BLACK, summary.getPlayerColor());
+        assertEquals("rival", summary.getOpponentName());
+        assertEquals(GameRecord.GameResult.WIN, summary.getResult());
+    }
+
+    @Test
+    void pgnDefaultsToWhiteWithoutAColour() {
+        String username = newUser("Eli");
+        SaveGameRequest req = onlineGame(null, "LOSS");
+        req.setOpponentType("BOT");
+        req.setGameMode("HARD");
+        req.setOpponentName(null);
+        GameRecord saved = userService.saveGame(username, req);
+
+        String pgn = userService.getGamePgn(username, saved.getId());
+        assertTrue(pgn.contains("[White \"Eli\"]"), pgn);
+        assertTrue(pgn.contains("[Black \"rChessMistry Bot (HARD)\"]"), pgn);
+        assertTrue(pgn.contains("[Result \"0-1\"]"), pgn);
+    }
+
+    @Test
+    void aPhotoUploadThatLosesARaceIsDeleted() throws Exception {
+        String username = newUser("Fay");
+        Long userId = userService.getProfile(username).getId();
+        String[] winner = new String[1];
+        // The second upload lands while the first is still storing its file
+        MockMultipartFile racing = new MockMultipartFile("photo", "a.png", "image/png", png()) {
+            @Override
+            public void transferTo(File dest) throws IOException {
+                winner[0] = userService.uploadProfilePhoto(username, new MockMultipartFile("photo", png()));
+                super.transferTo(dest);
+            }
+        };
+
+        RuntimeException error = assertThrows(RuntimeException.class,
+                () -> userService.uploadProfilePhoto(username, racing));
+        assertTrue(error.getMessage().contains("another upload"), error.getMessage());
+        assertEquals(winner[0], userService.getProfile(username).getProfilePhotoUrl());
+        try (Stream<Path> files = Files.list(Paths.get(photoDir))) {
+            List<String> photos = files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(userId + "_") && !name.contains("_thumb")).toList();
+            assertEquals(List.of(winner[0].substring(winner[0].lastIndexOf('/') + 1)), photos);
+        }
+    }
+
+    private static byte[] png() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+
+    private String newUser(String displayName) {
+        User user = new User();
+        user.setUsername("u" + UUID.randomUUID().toString().substring(0, 12));
+        user.setPassword("x");
+        user.setDisplayName(displayName);
+        return userRepository.save(user).getUsername();
+    }
+
+    private static SaveGameRequest onlineGame(String color, String result) {
+        SaveGameRequest req = new SaveGameRequest();
+        req.setOpponentType("HUMAN");
+        req.setGameMode("ONLINE");
+        req.setResult(result);
+        req.setPlayerColor(color);
+        req.setOpponentName("rival");
+        req.setTotalMoves(4);
+        req.setDurationSeconds(30);
+        req.setPgn(MOVES);
+        return req;
+    }
+}
@@ -0,0 +1,74 @@
+package com.therjhub.rchessmistry.service;
+
+import com.therjhub.rchessmistry.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UsernameIndexTest {
+
+    private final List<String> usernames = new CopyOnWriteArrayList<>();
+    private final CountDownLatch tableRead = new CountDownLatch(1);
+    private UserRepository userRepository;
+    private UsernameIndex index;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.count()).thenAnswer(invocation -> (long) usernames.size());
+        when(userRepository.findUsernames(any(Pageable.class))).thenAnswer(invocation -> {
+            // The startup load runs with an empty table; only a rebuild waits here
+            if (!usernames.isEmpty()) tableRead.await(5, TimeUnit.SECONDS);
+            return List.copyOf(usernames);
+        });
+        index = new UsernameIndex();
+        ReflectionTestUtils.setField(index, "userRepository", userRepository);
+        ReflectionTestUtils.setField(index, "initialCapacity", 2);
+        ReflectionTestUtils.setField(index, "falsePositiveRate", 0.01);
+        index.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.stop();
+    }
+
+    @Test
+    void outgrowingTheFilterRebuildsItWithoutBlockingRegistration() throws Exception {
+        for (String name : List.of("ann", "bob", "cat")) {
+            usernames.add(name);
+            // Returns while the rebuild is still reading the table
+            index.add(name);
+        }
+        assertEquals(2, index.getStats().get("usernameFilterCapacity"));
+        usernames.add("dan");
+        index.add("dan");
+
+        // Names stay known to the old filter meanwhile
+        when(userRepository.existsByUsername(anyString())).thenReturn(true);
+        for (String name : usernames) assertTrue(index.exists(name));
+
+        tableRead.countDown();
+        for (int i = 0; i < 100 && (int) index.getStats().get("usernameFilterCapacity") == 2; i++) Thread.sleep(50);
+        assertTrue((int) index.getStats().get("usernameFilterCapacity") >= 4);
+        // Including the name registered while the table was being read
+        for (String name : usernames) assertTrue(index.exists(name));
+        verify(userRepository, times(2 * usernames.size())).existsByUsername(anyString());
+    }
+}
@@ -7,7 +7,7 @@ import { SafeAreaView } from 'react-native-safe-area-context';
 import { Ionicons } from '@expo/vector-icons';
 import { useTheme } from '../context/ThemeContext';
 import { useAuth } from '../context/AuthContext';
-import { getBotMove, DIFFICULTY_DEPTH, api } from '../services/api';
+import { getBotMove, api } from '../services/api';
 import { Chess } from 'chess.js';
 import Toast from 'react-native-toast-message';
 
@@ -143,8 +143,7 @@ export default function ChessBoardScreen({ navigation, route }) {
   const triggerBotMove = async (currentGame) => {
     setIsThinking(true);
     try {
-      const depth = DIFFICULTY_DEPTH[mode.id] || 5;
-      const bestMove = await getBotMove(currentGame.fen(), depth);
+      const bestMove = await getBotMove(currentGame.fen(), mode.id);
 
       if (bestMove && bestMove.length >= 4) {
         const from = bestMove.substring(0, 2);
@@ -226,7 +225,7 @@ export default function ChessBoardScreen({ navigation, route }) {
     if (isThinking) return;
     setIsThinking(true);
     try {
-      const bestMove = await getBotMove(game.fen(), 8);
+      const bestMove = await getBotMove(game.fen(), 'HARD');
       if (bestMove) {
         const from = bestMove.substring(0, 2);
         const to = bestMove.substring(2, 4);
@@ -9,14 +9,17 @@ import moment from 'moment';
 export function GameHistoryScreen({ navigation }) {
   const { theme } = useTheme();
   const [history, setHistory] = useState([]);
+  const [cursor, setCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   useEffect(() => { loadHistory(); }, []);
 
   const loadHistory = async () => {
     try {
       const res = await api.get('/user/game-history');
-      setHistory(res.data);
+      setHistory(res.data.games);
+      setCursor(res.data.nextCursor);
     } catch (e) {
       console.log('History load failed:', e);
     } finally {
@@ -24,6 +27,20 @@ export function GameHistoryScreen({ navigation }) {
     }
   };
 
+  const loadMore = async () => {
+    if (!cursor || loadingMore) return;
+    setLoadingMore(true);
+    try {
+      const res = await api.get('/user/game-history', { params: { cursor } });
+      setHistory(prev => [...prev, ...res.data.games]);
+      setCursor(res.data.nextCursor);
+    } catch (e) {
+      console.log('History load failed:', e);
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   const getResultColor = (result) => {
     if (result === 'WIN') return theme.success;
     if (result === 'LOSS') return theme.error;
@@ -75,6 +92,9 @@ export function GameHistoryScreen({ navigation }) {
             renderItem={renderItem}
             keyExtractor={item => String(item.id)}
             contentContainerStyle={{ padding: 16 }}
+            onEndReached={loadMore}
+            onEndReachedThreshold={0.5}
+            ListFooterComponent={loadingMore ? <ActivityIndicator color={theme.primary} style={{ marginVertical: 12 }} /> : null}
             ListEmptyComponent={
               <View style={styles.empty}>
                 <Text style={{ fontSize: 48 }}>♟</Text>
@@ -127,8 +147,8 @@ export function LeaderboardScreen({ navigation }) {
         <Text style={[styles.leaderSub, { color: theme.textMuted }]}>@{item.username}</Text>
       </View>
       <View style={styles.leaderStats}>
-        <Text style={[styles.leaderWins, { color: theme.success }]}>{item.wins}W</Text>
-        <Text style={[styles.leaderMuted, { color: theme.textMuted }]}> / {item.gamesPlayed}G</Text>
+        <Text style={[styles.leaderWins, { color: theme.success }]}>{item.rating}</Text>
+        <Text style={[styles.leaderMuted, { color: theme.textMuted }]}> · {item.wins}W / {item.gamesPlayed}G</Text>
       </View>
     </View>
   );
@@ -7,6 +7,7 @@ import { LinearGradient } from 'expo-linear-gradient';
 import { Ionicons } from '@expo/vector-icons';
 import { useAuth } from '../context/AuthContext';
 import { useTheme } from '../context/ThemeContext';
+import { avatarUri } from '../services/api';
 import { SafeAreaView } from 'react-native-safe-area-context';
 
 const { width } = Dimensions.get('window');
@@ -96,8 +97,8 @@ export default function HomeScreen({ navigation }) {
                 style={[styles.avatarBtn, { backgroundColor: theme.card, borderColor: theme.primary }]}
                 onPress={() => navigation.navigate('Profile')}
               >
-                {user?.profilePhotoUrl ? (
-                  <Image source={{ uri: user.profilePhotoUrl }} style={styles.avatar} />
+                {avatarUri(user) ? (
+                  <Image source={{ uri: avatarUri(user) }} style={styles.avatar} />
                 ) : (
                   <Text style={{ fontSize: 22 }}>♚</Text>
                 )}
@@ -9,7 +9,7 @@ import * as ImagePicker from 'expo-image-picker';
 import { LinearGradient } from 'expo-linear-gradient';
 import { useAuth } from '../context/AuthContext';
 import { useTheme } from '../context/ThemeContext';
-import { api, BASE_URL } from '../services/api';
+import { api, avatarUri, BASE_URL } from '../services/api';
 import Toast from 'react-native-toast-message';
 
 export default function ProfileScreen({ navigation }) {
@@ -52,7 +52,11 @@ export default function ProfileScreen({ navigation }) {
         headers: { 'Content-Type': 'multipart/form-data' },
       });
 
-      await updateUser({ profilePhotoUrl: BASE_URL.replace('/api', '') + response.data.photoUrl });
+      // The old thumbnail is gone; the new one is made in the background
+      await updateUser({
+        profilePhotoUrl: BASE_URL.replace('/api', '') + response.data.photoUrl,
+        profileThumbnailUrl: null,
+      });
       Toast.show({ type: 'success', text1: 'Photo Updated!', text2: 'Your profile photo has been saved.' });
     } catch (e) {
       Toast.show({ type: 'error', text1: 'Upload Failed', text2: e.message });
@@ -87,8 +91,8 @@ export default function ProfileScreen({ navigation }) {
             <View style={styles.photoContainer}>
               <TouchableOpacity onPress={pickPhoto} disabled={uploading}>
                 <View style={[styles.photoWrapper, { borderColor: theme.primary }]}>
-                  {user?.profilePhotoUrl ? (
-                    <Image source={{ uri: user.profilePhotoUrl }} style={styles.photo} />
+                  {avatarUri(user) ? (
+                    <Image source={{ uri: avatarUri(user) }} style={styles.photo} />
                   ) : (
                     <View style={[styles.photoPlaceholder, { backgroundColor: theme.card }]}>
                       <Text style={{ fontSize: 44 }}>♚</Text>
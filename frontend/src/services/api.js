@@ -15,6 +15,13 @@ export const api = axios.create({
   },
 });
 
+// Avatars show the server's thumbnail once it is made, and the full photo until then
+export const avatarUri = (user) => {
+  const url = user?.profileThumbnailUrl || user?.profilePhotoUrl;
+  if (!url) return null;
+  return url.startsWith('/') ? BASE_URL.replace('/api', '') + url : url;
+};
+
 // Response interceptor for error handling
 api.interceptors.response.use(
   (response) => response,
@@ -30,22 +37,12 @@ api.interceptors.response.use(
 );
 
 // Chess Bot API calls
-export const getBotMove = async (fen, depth = 5) => {
-  // Stockfish WASM — uses a free public API or local Stockfish via backend
+export const getBotMove = async (fen, mode = 'CLASSIC') => {
+  // Searched in-process by the backend engine for the given GameMode
   try {
-    const response = await axios.get(
-      `https://stockfish.online/api/s/v2.php?fen=${encodeURIComponent(fen)}&depth=${depth}`,
-      { timeout: 10000 }
-    );
-    return response.data?.bestmove?.split(' ')[1] || null;
+    const response = await api.get('/bot/move', { params: { fen, mode } });
+    return response.data?.bestMove || null;
   } catch {
     return null;
   }
 };
-
-export const DIFFICULTY_DEPTH = {
-  EASY: 1,
-  HARD: 12,
-  UNBEATABLE: 20,
-  CLASSIC: 5,
-};